@@ -1,67 +1,175 @@
 package com.scg.app;
 
+import java.io.BufferedInputStream;
 import java.io.Console;
+import java.io.FileDescriptor;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 
 import com.scg.domain.ClientAccount;
 import com.scg.domain.Invoice;
+import com.scg.domain.InvoiceEngine;
+import com.scg.domain.ParallelInvoiceBuilder;
 import com.scg.domain.TimeCard;
+import com.scg.io.BinaryFormat;
+import com.scg.io.ColumnarTimeStore;
+import com.scg.io.CompressedTimeCardFile;
+import com.scg.io.Dataset;
+import com.scg.io.DatasetLoader;
+import com.scg.io.InvoiceChannelWriter;
+import com.scg.io.MappedTimeCard;
+import com.scg.io.TimeCardReader;
 
 import edu.uw.ext.util.ListFactory;
 
 public final class Assignment05 
 {
-    /** Character encoding to use. */
-    private static final String ENCODING = "ISO-8859-1";
+    /** Source of the time cards when no argument names one: the serialized lists. */
+    private static final String DEFAULT_SOURCE = "ser";
+    
+    /** Month invoiced as given on the command line, or null to invoice the month of the latest time card. */
+    private final YearMonth invoicePeriod;
     
     private List<TimeCard> timeCards;
     private List<ClientAccount> clientAccounts;
     
+    private Assignment05(final YearMonth invoicePeriod) {
+        this.invoicePeriod = invoicePeriod;
+    }
+    
+    /**
+     * Prints the invoices from the time card files named by the first argument: ser for the serialized
+     * lists (the default), bin for the framed binary stream, z for the compressed file, or col for the
+     * columnar store. The second argument names the month to invoice as yyyy-MM; without it the binary
+     * sources invoice the month of the latest week in the time cards, and the serialized lists are
+     * invoiced by the list factory.
+     * @param args optional time card source and invoice month.
+     * @throws Exception if the invoices cannot be created.
+     */
     public static void main(String[] args) throws Exception {
-        Assignment05 assignment = new Assignment05();
-        assignment.deserializeLists();
-        List<Invoice> invoices = ListFactory.createInvoices(assignment.clientAccounts,
-                                                            assignment.timeCards);
+        final String source = (args.length > 0) ? args[0] : DEFAULT_SOURCE;
+        Assignment05 assignment = new Assignment05((args.length > 1) ? YearMonth.parse(args[1]) : null);
+        final List<Invoice> invoices;
+        switch(source) {
+            case "ser":
+                assignment.deserializeLists();
+                if(assignment.invoicePeriod == null) {
+                    invoices = ListFactory.createInvoices(assignment.clientAccounts, assignment.timeCards);
+                } else {
+                    invoices = new InvoiceEngine(assignment.clientAccounts).addAll(assignment.timeCards)
+                        .getInvoices(assignment.invoicePeriod.getMonth(), assignment.invoicePeriod.getYear());
+                }
+                break;
+            case "bin":
+                invoices = assignment.streamInvoices();
+                break;
+            case "z":
+                invoices = assignment.inflateInvoices();
+                break;
+            case "col":
+                invoices = assignment.mapInvoices();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown time card source " + source
+                                                   + ", expected ser, bin, z or col");
+        }
         Console console = System.console();
         try {
-            PrintWriter consoleWriter = (console != null) ? console.writer() : new PrintWriter(new OutputStreamWriter(System.out, ENCODING), true);
-            ListFactory.printInvoices(invoices, consoleWriter);
+            if(console != null) {
+                ListFactory.printInvoices(invoices, console.writer());
+            } else {
+                final InvoiceChannelWriter stdout = new InvoiceChannelWriter(new FileOutputStream(FileDescriptor.out).getChannel());
+                stdout.writeAll(invoices);
+            }
         } catch (IOException ex) {
             System.out.println("Error printing invoices.");
         }
     }
     
-    private void deserializeLists() {
-        final Object clientList = deserializeFiles("ClientList.ser");
-        if(clientList instanceof List<?>) {
-            for(Object client : ((List<?>) clientList)) {
-                if(!(client instanceof ClientAccount)) {
-                    throw new IllegalArgumentException("Not Client Account List.");
+    private void deserializeLists() throws IOException {
+        final Dataset dataset;
+        try {
+            dataset = DatasetLoader.load(Paths.get("ClientList.ser"), Paths.get("TimeCardList.ser")).join();
+        } catch (CompletionException ex) {
+            if(ex.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) ex.getCause()).getCause();
+            }
+            throw ex;
+        }
+        clientAccounts = dataset.getClientAccounts();
+        timeCards = dataset.getTimeCards();
+    }
+    
+    private List<ClientAccount> readBinaryClients() throws IOException {
+        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream("ClientList.bin"))) {
+            clientAccounts = BinaryFormat.readClientAccounts(in);
+        }
+        return clientAccounts;
+    }
+    
+    private YearMonth invoicePeriod(final LocalDate latestWeek) {
+        if(invoicePeriod != null) {
+            return invoicePeriod;
+        }
+        return YearMonth.from((latestWeek == null) ? LocalDate.now() : latestWeek);
+    }
+    
+    private static LocalDate latest(final LocalDate latestWeek, final LocalDate week) {
+        return (latestWeek == null || week.isAfter(latestWeek)) ? week : latestWeek;
+    }
+    
+    private List<Invoice> mapInvoices() throws IOException {
+        final List<Invoice> invoices = new ArrayList<>();
+        try (ColumnarTimeStore store = ColumnarTimeStore.open(Paths.get("TimeCardList.col"))) {
+            LocalDate latestWeek = null;
+            for(MappedTimeCard timeCard : store.getTimeCards()) {
+                latestWeek = latest(latestWeek, timeCard.getWeekStartingDay());
+            }
+            final YearMonth period = invoicePeriod(latestWeek);
+            for(ClientAccount client : readBinaryClients()) {
+                invoices.add(new Invoice(client, period.getMonth(), period.getYear()));
+            }
+            for(MappedTimeCard timeCard : store.getTimeCards()) {
+                for(Invoice invoice : invoices) {
+                    timeCard.extractLineItems(invoice);
                 }
             }
-            @SuppressWarnings("unchecked")
-            final List<ClientAccount> deserializeClientList = (List<ClientAccount>) clientList;
-            clientAccounts = deserializeClientList;
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
         }
-        @SuppressWarnings("unchecked")
-        final List<TimeCard> deserializeTCardList = (List<TimeCard>) deserializeFiles("TimeCardList.ser");
-        timeCards = deserializeTCardList;
+        return invoices;
     }
     
-    private static Object deserializeFiles(final String file) {
-        Object newObject = null;
-        try(ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
-            newObject = in.readObject();
-        } catch (ClassNotFoundException ex) {
-            System.out.println("Class type: " + ex + " not found");
-        } catch (IOException ex) {
-            System.out.println("File: " + ex + "unreadable");
+    private List<Invoice> inflateInvoices() throws IOException {
+        readBinaryClients();
+        timeCards = CompressedTimeCardFile.read(Paths.get("TimeCardList.z"));
+        LocalDate latestWeek = null;
+        for(TimeCard timeCard : timeCards) {
+            latestWeek = latest(latestWeek, timeCard.getWeekStartingDay());
+        }
+        final YearMonth period = invoicePeriod(latestWeek);
+        return new ParallelInvoiceBuilder(clientAccounts, timeCards, period.getMonth(), period.getYear()).build();
+    }
+    
+    private List<Invoice> streamInvoices() throws IOException {
+        final InvoiceEngine engine = new InvoiceEngine(readBinaryClients());
+        final LocalDate[] latestWeek = new LocalDate[1];
+        try (TimeCardReader reader = new TimeCardReader(new BufferedInputStream(new FileInputStream("TimeCardList.bin")))) {
+            reader.forEachRemaining(engine.andThen(timeCard -> {
+                latestWeek[0] = latest(latestWeek[0], timeCard.getWeekStartingDay());
+            }));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
         }
-        return newObject;
+        final YearMonth period = invoicePeriod(latestWeek[0]);
+        return engine.getInvoices(period.getMonth(), period.getYear());
     }
-}
+}
\ No newline at end of file
@@ -1,17 +1,24 @@
 package com.scg.app;
 
+import java.io.BufferedOutputStream;
 import java.io.Console;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.scg.domain.ClientAccount;
 import com.scg.domain.Consultant;
 import com.scg.domain.TimeCard;
+import com.scg.io.BinaryFormat;
+import com.scg.io.ColumnarTimeStore;
+import com.scg.io.CompressedTimeCardFile;
+import com.scg.io.DeltaSnapshotStore;
+import com.scg.io.TimeCardWriter;
 
 import edu.uw.ext.util.ListFactory;
 
@@ -33,6 +40,8 @@ extends Object
         PrintWriter consoleWriter = (console != null) ? console.writer() : new PrintWriter(new OutputStreamWriter(System.out /*, ENCODING */), true);
         ListFactory.printTimeCards(timeCards, consoleWriter);
         serializeLists(accounts, timeCards);
+        writeBinaryLists(accounts, timeCards);
+        saveSnapshot(accounts, timeCards);
     }
     
     private static void serializeLists(final List<ClientAccount> accounts, final List<TimeCard> timeCards) {
@@ -50,4 +59,41 @@ extends Object
             System.out.println("Serialization of timecard list failed per error: " + e);
         }
     }
-}
\ No newline at end of file
+    
+    private static void writeBinaryLists(final List<ClientAccount> accounts, final List<TimeCard> timeCards) {
+        try (BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream("ClientList.bin"))) {
+            BinaryFormat.writeClientAccounts(out, accounts);
+        } catch (IOException e) {
+            System.out.println("Binary write of client account list failed per error: " + e);
+        }
+        
+        try (TimeCardWriter out = new TimeCardWriter(new BufferedOutputStream(new FileOutputStream("TimeCardList.bin")))) {
+            for(TimeCard timeCard : timeCards) {
+                out.write(timeCard);
+            }
+        } catch (IOException e) {
+            System.out.println("Binary write of timecard list failed per error: " + e);
+        }
+        
+        try {
+            ColumnarTimeStore.write(Paths.get("TimeCardList.col"), timeCards);
+        } catch (IOException e) {
+            System.out.println("Columnar write of timecard list failed per error: " + e);
+        }
+        
+        try {
+            CompressedTimeCardFile.write(Paths.get("TimeCardList.z"), timeCards);
+        } catch (IOException e) {
+            System.out.println("Compressed write of timecard list failed per error: " + e);
+        }
+    }
+    
+    private static void saveSnapshot(final List<ClientAccount> accounts, final List<TimeCard> timeCards) {
+        try {
+            final int written = new DeltaSnapshotStore(Paths.get("."), "TimeCardData").save(accounts, timeCards);
+            System.out.println("Snapshot saved " + written + " changed client accounts and timecards.");
+        } catch (IOException e) {
+            System.out.println("Snapshot of client account and timecard lists failed per error: " + e);
+        }
+    }
+}
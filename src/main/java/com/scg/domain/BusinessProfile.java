@@ -0,0 +1,321 @@
+package com.scg.domain;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Business name and address printed on every invoice. A profile is loaded once from
+ * {@code invoice.properties} and keeps its header block pre-rendered, so rendering invoices does no
+ * property I/O. The current profile is shared by all invoices; it is loaded from the classpath the
+ * first time it is needed and can be replaced atomically, either directly or by watching a properties
+ * file that is reloaded whenever it changes.
+ * @author Adam Spade
+ */
+public final class BusinessProfile
+extends Object
+{
+    // CONSTANTS \\
+    /**
+     * Name of the properties resource and file.
+     */
+    public static final String PROPERTIES_FILE = "invoice.properties";
+    /**
+     * Space formatter for adding line breaks to the header block.
+     */
+    private static final String SPACE = String.format("%n");
+    /**
+     * Current profile, null until first needed.
+     */
+    private static final AtomicReference<BusinessProfile> CURRENT = new AtomicReference<>();
+
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for business name.
+     */
+    private final String name;
+    /**
+     * Initializer for business street address.
+     */
+    private final String street;
+    /**
+     * Initializer for business city address.
+     */
+    private final String city;
+    /**
+     * Initializer for business state code.
+     */
+    private final String state;
+    /**
+     * Initializer for business zip code.
+     */
+    private final String zip;
+    /**
+     * Initializer for the pre-rendered header block.
+     */
+    private final String header;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a profile from loaded properties.
+     * @param properties holding the business.* keys.
+     * @throws IOException if any of the keys is missing.
+     */
+    private BusinessProfile(final Properties properties) throws IOException {
+        name   = required(properties, "business.name");
+        street = required(properties, "business.street");
+        city   = required(properties, "business.city");
+        state  = required(properties, "business.state");
+        zip    = required(properties, "business.zip");
+        header = new StringBuilder()
+                .append(name)
+                .append(SPACE)
+                .append(street)
+                .append(SPACE)
+                .append(city)
+                .append(", ")
+                .append(state)
+                .append(" ")
+                .append(zip)
+                .append(SPACE)
+                .toString();
+    }
+
+    // GETTERS & SETTERS \\
+    /**
+     * Getter for the business name.
+     * @return business name.
+     */
+    public String getName() {
+        return name;
+    }
+    /**
+     * Getter for the business street address.
+     * @return business street.
+     */
+    public String getStreet() {
+        return street;
+    }
+    /**
+     * Getter for the business city.
+     * @return business city.
+     */
+    public String getCity() {
+        return city;
+    }
+    /**
+     * Getter for the business state code.
+     * @return business state.
+     */
+    public String getState() {
+        return state;
+    }
+    /**
+     * Getter for the business zip code.
+     * @return business zip.
+     */
+    public String getZip() {
+        return zip;
+    }
+    /**
+     * Getter for the header block of business name, street and city line.
+     * @return the pre-rendered header block.
+     */
+    public String getHeader() {
+        return header;
+    }
+    /**
+     * Getter for the current profile, loading it from the classpath the first time it is needed.
+     * @return the current profile.
+     * @throws IOException if the properties resource is missing or cannot be read.
+     */
+    public static BusinessProfile current() throws IOException {
+        final BusinessProfile profile = CURRENT.get();
+        if(profile != null) {
+            return profile;
+        }
+        final BusinessProfile loaded;
+        try (InputStream in = BusinessProfile.class.getClassLoader().getResourceAsStream(PROPERTIES_FILE)) {
+            if(in == null) {
+                throw new FileNotFoundException("property file ' " + PROPERTIES_FILE
+                                                + " ' not found in the classpath");
+            }
+            loaded = load(in);
+        }
+        return CURRENT.compareAndSet(null, loaded) ? loaded : CURRENT.get();
+    }
+    /**
+     * Setter for the current profile, used by every invoice rendered after the call.
+     * @param profile to make current.
+     */
+    public static void setCurrent(final BusinessProfile profile) {
+        if(profile == null) {
+            throw new IllegalArgumentException("profile must not be null");
+        }
+        CURRENT.set(profile);
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Loads a profile from a properties stream.
+     * @param in stream holding the properties, not closed by this method.
+     * @return the loaded profile.
+     * @throws IOException if the stream cannot be read or a business key is missing.
+     */
+    public static BusinessProfile load(final InputStream in) throws IOException {
+        final Properties properties = new Properties();
+        properties.load(in);
+        return new BusinessProfile(properties);
+    }
+    /**
+     * Loads a profile from a properties file.
+     * @param file holding the properties.
+     * @return the loaded profile.
+     * @throws IOException if the file cannot be read or a business key is missing.
+     */
+    public static BusinessProfile load(final Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return load(in);
+        }
+    }
+    /**
+     * Loads a properties file as the current profile and reloads it whenever the file is created or
+     * modified. A reload that fails, including one that catches the file half written with keys missing,
+     * leaves the previous profile current.
+     * @param file holding the properties.
+     * @return the running watch, which stops reloading when closed.
+     * @throws IOException if the file cannot be loaded or watched.
+     */
+    public static Watch watch(final Path file) throws IOException {
+        final Path absolute = file.toAbsolutePath();
+        setCurrent(load(absolute));
+        final WatchService service = absolute.getFileSystem().newWatchService();
+        try {
+            absolute.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                                          StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | RuntimeException ex) {
+            service.close();
+            throw ex;
+        }
+        final Watch watch = new Watch(absolute, service);
+        watch.thread.start();
+        return watch;
+    }
+
+    /**
+     * Getter for a property that every profile must have.
+     * @param properties to read.
+     * @param key of the property.
+     * @return the property value.
+     * @throws IOException if the property is missing.
+     */
+    private static String required(final Properties properties, final String key) throws IOException {
+        final String value = properties.getProperty(key);
+        if(value == null) {
+            throw new IOException(key + " missing from " + PROPERTIES_FILE);
+        }
+        return value;
+    }
+
+    /**
+     * String format of the profile.
+     * @return the header block.
+     */
+    @Override
+    public String toString() {
+        return header;
+    }
+
+    // INNER CLASS \\
+    /**
+     * Watch that reloads the current profile on a private daemon thread when its properties file
+     * changes, until closed.
+     */
+    public static final class Watch
+    extends Object
+    implements Closeable
+    {
+        /**
+         * Initializer for the watched properties file.
+         */
+        private final Path file;
+        /**
+         * Initializer for the watch service of the file's directory.
+         */
+        private final WatchService service;
+        /**
+         * Initializer for the error of the last failed reload.
+         */
+        private volatile IOException lastError;
+        /**
+         * Initializer for the thread waiting for changes.
+         */
+        private final Thread thread;
+
+        /**
+         * Constructor for a watch of a properties file.
+         * @param file to watch.
+         * @param service registered on the file's directory.
+         */
+        private Watch(final Path file, final WatchService service) {
+            this.file = file;
+            this.service = service;
+            this.thread = new Thread(this::reloadOnChange, "BusinessProfile-" + file.getFileName());
+            thread.setDaemon(true);
+        }
+        /**
+         * Getter for the error of the last failed reload.
+         * @return the error, or null if the last reload succeeded.
+         */
+        public IOException getLastError() {
+            return lastError;
+        }
+        /**
+         * Stops watching the file.
+         * @throws IOException if the watch service cannot be closed.
+         */
+        @Override
+        public void close() throws IOException {
+            service.close();
+        }
+
+        /**
+         * Waits for changes to the file and reloads it, until closed.
+         */
+        private void reloadOnChange() {
+            while(true) {
+                final WatchKey key;
+                try {
+                    key = service.take();
+                } catch (InterruptedException | ClosedWatchServiceException ex) {
+                    return;
+                }
+                boolean changed = false;
+                for(WatchEvent<?> event : key.pollEvents()) {
+                    changed |= file.getFileName().equals(event.context());
+                }
+                if(changed) {
+                    try {
+                        setCurrent(load(file));
+                        lastError = null;
+                    } catch (IOException ex) {
+                        lastError = ex;
+                    }
+                }
+                if(!key.reset()) {
+                    return;
+                }
+            }
+        }
+    }
+}
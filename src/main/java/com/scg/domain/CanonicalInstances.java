@@ -0,0 +1,148 @@
+package com.scg.domain;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import com.scg.util.PersonalName;
+
+/**
+ * Registry of canonical consultant and client account instances used by deserialization. Time cards
+ * read back resolve their consultants and client accounts to the canonical instances, so deserialized
+ * lists share one object per consultant and client even across separate files. Instances are keyed by
+ * an immutable snapshot of their values and held weakly, so the registry forgets them once nothing else
+ * refers to them, and a canonical instance whose values were changed after it was registered no longer
+ * matches its key and is replaced by the next instance looked up with that key.
+ * @author Adam Spade
+ */
+final class CanonicalInstances
+extends Object
+{
+    // MEMBER VARIABLES \\
+    /**
+     * Canonical consultants keyed by a snapshot of their name.
+     */
+    private static final ConcurrentMap<List<Object>, Canonical<Consultant>> consultants = new ConcurrentHashMap<>();
+    /**
+     * Canonical client accounts keyed by a snapshot of their name, contact and address.
+     */
+    private static final ConcurrentMap<List<Object>, Canonical<ClientAccount>> clients = new ConcurrentHashMap<>();
+    /**
+     * Queue of the canonical instances that were garbage collected, whose keys are removed.
+     */
+    private static final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+    // CONSTRUCTORS \\
+    /**
+     * Prevent instantiation.
+     */
+    private CanonicalInstances() {
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Returns the canonical instance of a consultant, registering it if there is none with its name.
+     * @param consultant to look up.
+     * @return the canonical consultant with the same name.
+     */
+    static Consultant of(final Consultant consultant) {
+        return intern(consultants, keyOf(consultant), consultant, CanonicalInstances::keyOf);
+    }
+    /**
+     * Returns the canonical instance of an account. Non-billable accounts are already canonical, client
+     * accounts are registered if there is none with their values.
+     * @param account to look up.
+     * @return the canonical account with the same name, contact and address.
+     */
+    static Account of(final Account account) {
+        return (account instanceof ClientAccount) ? of((ClientAccount) account) : account;
+    }
+    /**
+     * Returns the canonical instance of a client account, registering it if there is none with its
+     * values.
+     * @param client account to look up.
+     * @return the canonical client account with the same name, contact and address.
+     */
+    static ClientAccount of(final ClientAccount client) {
+        return intern(clients, keyOf(client), client, CanonicalInstances::keyOf);
+    }
+    /**
+     * Returns the canonical instance registered under a key if it still has the key's values, and
+     * otherwise registers the given instance in its place.
+     * @param registry to look the key up in.
+     * @param key snapshot of the instance's values.
+     * @param instance to register if there is no matching canonical instance.
+     * @param keyOf snapshot of the current values of a canonical instance.
+     * @return the canonical instance.
+     */
+    private static <T> T intern(final ConcurrentMap<List<Object>, Canonical<T>> registry, final List<Object> key,
+                                final T instance, final Function<T, List<Object>> keyOf) {
+        expunge();
+        while(true) {
+            final Canonical<T> current = registry.get(key);
+            final T canonical = (current == null) ? null : current.get();
+            if(canonical != null && key.equals(keyOf.apply(canonical))) {
+                return canonical;
+            }
+            final Canonical<T> replacement = new Canonical<>(instance, registry, key);
+            if((current == null) ? registry.putIfAbsent(key, replacement) == null
+                                 : registry.replace(key, current, replacement)) {
+                return instance;
+            }
+        }
+    }
+    /**
+     * Removes the keys of the canonical instances that were garbage collected.
+     */
+    private static void expunge() {
+        Reference<?> reference;
+        while((reference = collected.poll()) != null) {
+            final Canonical<?> canonical = (Canonical<?>) reference;
+            canonical.registry.remove(canonical.key, canonical);
+        }
+    }
+    /**
+     * Snapshot of the values identifying a consultant.
+     * @param consultant to key.
+     * @return last, first and middle name.
+     */
+    private static List<Object> keyOf(final Consultant consultant) {
+        final PersonalName name = consultant.getName();
+        return Collections.unmodifiableList(Arrays.<Object>asList(name.getLastName(), name.getFirstName(),
+                                                                  name.getMiddleName()));
+    }
+    /**
+     * Snapshot of the values identifying a client account.
+     * @param client account to key.
+     * @return name, contact last, first and middle name, and address.
+     */
+    private static List<Object> keyOf(final ClientAccount client) {
+        final PersonalName contact = client.getContact();
+        return Collections.unmodifiableList(Arrays.<Object>asList(client.getName(),
+                (contact == null) ? null : contact.getLastName(),
+                (contact == null) ? null : contact.getFirstName(),
+                (contact == null) ? null : contact.getMiddleName(),
+                client.getAddress()));
+    }
+
+    // INNER CLASS \\
+    /**
+     * Weak reference to a canonical instance that remembers where it is registered.
+     */
+    private static final class Canonical<T> extends WeakReference<T> {
+        private final ConcurrentMap<List<Object>, ?> registry;
+        private final List<Object> key;
+
+        Canonical(final T instance, final ConcurrentMap<List<Object>, ?> registry, final List<Object> key) {
+            super(instance, collected);
+            this.registry = registry;
+            this.key = key;
+        }
+    }
+}
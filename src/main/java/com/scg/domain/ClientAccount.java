@@ -14,6 +14,10 @@ public final class ClientAccount
 implements Account, Comparable<ClientAccount>
 {
     // MEMBER VARIABLES
+    /**
+     * Serial Version UID.
+     */
+    private static final long serialVersionUID = -6449774237712483374L;
     /**
      * String variable for name.
      */
@@ -125,4 +129,13 @@ implements Account, Comparable<ClientAccount>
 //            return 0;
 //        return clientAccountComparator.compare(this, other);
     }
+
+    /**
+     * Resolves a deserialized client account to the canonical instance with the same name, contact and
+     * address.
+     * @return the canonical client account.
+     */
+    private Object readResolve() {
+        return CanonicalInstances.of(this);
+    }
 }
\ No newline at end of file
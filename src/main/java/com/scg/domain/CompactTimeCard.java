@@ -0,0 +1,297 @@
+package com.scg.domain;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Time card that packs its entries into parallel primitive arrays instead of holding a list of
+ * {@link ConsultantTime} objects. Each entry is a byte day offset from the week starting day, an int
+ * index into the card's own account table, a byte skill ordinal and an int of hours, ten bytes in all,
+ * where a consultant time with its date costs several times that. The table holds the accounts exactly
+ * as they were added, so the accounts read back are the same instances. Totals and invoice extraction
+ * scan the arrays directly; consultant time objects are only created on demand through
+ * {@link #getConsultingHours()}. A binary time card list can be read straight into compact time cards
+ * with {@link com.scg.io.BinaryFormat#readCompactTimeCards}.
+ * @author Adam Spade
+ */
+public final class CompactTimeCard
+extends Object
+{
+    // CONSTANTS \\
+    /**
+     * Initial capacity of the entry arrays, enough for a five day week on one account.
+     */
+    private static final int INITIAL_CAPACITY = 5;
+    /**
+     * Skills by ordinal.
+     */
+    private static final Skill[] SKILLS = Skill.values();
+
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for consultant.
+     */
+    private final Consultant consultant;
+    /**
+     * Initializer for the week starting day.
+     */
+    private final LocalDate weekStartingDay;
+    /**
+     * Initializer for the day offset of each entry from the week starting day.
+     */
+    private byte[] dayOffsets = new byte[INITIAL_CAPACITY];
+    /**
+     * Initializer for the distinct accounts of the entries, in the order they were first added.
+     */
+    private Account[] accounts = new Account[1];
+    /**
+     * Initializer for the number of distinct accounts.
+     */
+    private int accountCount;
+    /**
+     * Initializer for the account table index of each entry.
+     */
+    private int[] accountIds = new int[INITIAL_CAPACITY];
+    /**
+     * Initializer for the skill ordinal of each entry.
+     */
+    private byte[] skills = new byte[INITIAL_CAPACITY];
+    /**
+     * Initializer for the hours of each entry.
+     */
+    private int[] hours = new int[INITIAL_CAPACITY];
+    /**
+     * Initializer for the number of entries.
+     */
+    private int size;
+    /**
+     * Initializer for total billable hours.
+     */
+    private int totalBillableHours;
+    /**
+     * Initializer for total non-billable hours.
+     */
+    private int totalNonBillableHours;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for an empty compact time card.
+     * @param consultant to list on the time card.
+     * @param weekStartingDay first work day of the week.
+     */
+    public CompactTimeCard(final Consultant consultant, final LocalDate weekStartingDay) {
+        this.consultant = consultant;
+        this.weekStartingDay = weekStartingDay;
+    }
+
+    // GETTERS & SETTERS \\
+    /**
+     * Getter for consultant.
+     * @return consultant of the time card.
+     */
+    public Consultant getConsultant() {
+        return consultant;
+    }
+    /**
+     * Getter for starting day of week.
+     * @return week starting day.
+     */
+    public LocalDate getWeekStartingDay() {
+        return weekStartingDay;
+    }
+    /**
+     * Getter for the number of consultant time entries.
+     * @return number of entries on the time card.
+     */
+    public int getEntryCount() {
+        return size;
+    }
+    /**
+     * Getter for total billable hours.
+     * @return sum of the billable hours.
+     */
+    public int getTotalBillableHours() {
+        return totalBillableHours;
+    }
+    /**
+     * Getter for total non-billable hours.
+     * @return sum of the non-billable hours.
+     */
+    public int getTotalNonBillableHours() {
+        return totalNonBillableHours;
+    }
+    /**
+     * Getter for total hours.
+     * @return sum of all hours.
+     */
+    public int getTotalHours() {
+        return totalBillableHours + totalNonBillableHours;
+    }
+    /**
+     * Getter for consulting hours.
+     * @return read-only view creating a consultant time for an entry each time it is read.
+     */
+    public List<ConsultantTime> getConsultingHours() {
+        return new Entries();
+    }
+    /**
+     * Getter for billable hours for client.
+     * @param clientName name of client.
+     * @return the billable consultant times for the client.
+     */
+    public List<ConsultantTime> getBillableHoursForClient(final String clientName) {
+        final List<ConsultantTime> billable = new ArrayList<>();
+        for(int i = 0; i < size; i++) {
+            final Account account = accounts[accountIds[i]];
+            if(account.isBillable() && clientName.equals(account.getName())) {
+                billable.add(entry(i));
+            }
+        }
+        return billable;
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Packs a compact copy of a time card.
+     * @param timeCard to copy.
+     * @return the compact time card.
+     */
+    public static CompactTimeCard of(final TimeCard timeCard) {
+        final CompactTimeCard compact = new CompactTimeCard(timeCard.getConsultant(),
+                                                            timeCard.getWeekStartingDay());
+        final List<ConsultantTime> times = timeCard.getConsultingHours();
+        compact.ensureCapacity(times.size());
+        for(ConsultantTime time : times) {
+            compact.addConsultantTime(time);
+        }
+        return compact;
+    }
+    /**
+     * Packs a consultant time into the entry arrays.
+     * @param consultantTime time to add.
+     * @throws IllegalArgumentException if the time is more than 127 days from the week starting day.
+     */
+    public void addConsultantTime(final ConsultantTime consultantTime) {
+        final long offset = consultantTime.getDate().toEpochDay() - weekStartingDay.toEpochDay();
+        if(offset < Byte.MIN_VALUE || offset > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Date " + consultantTime.getDate() + " too far from week of "
+                                               + weekStartingDay);
+        }
+        ensureCapacity(size + 1);
+        dayOffsets[size] = (byte) offset;
+        accountIds[size] = accountId(consultantTime.getAccount());
+        skills[size] = (byte) consultantTime.getSkillType().ordinal();
+        hours[size] = consultantTime.getHours();
+        size++;
+        if(consultantTime.isBillable()) {
+            totalBillableHours += consultantTime.getHours();
+        }
+        else {
+            totalNonBillableHours += consultantTime.getHours();
+        }
+    }
+    /**
+     * Adds a line item to the invoice for every billable entry for the invoice's client in the
+     * invoice's month. Only the matching entries allocate.
+     * @param invoice to add the line items to.
+     */
+    public void extractLineItems(final Invoice invoice) {
+        final String clientName = invoice.getClientAccount().getName();
+        final LocalDate start = invoice.getStartDate();
+        final long first = start.toEpochDay() - weekStartingDay.toEpochDay();
+        final long last = start.plusMonths(1).toEpochDay() - 1 - weekStartingDay.toEpochDay();
+        for(int i = 0; i < size; i++) {
+            if(dayOffsets[i] < first || dayOffsets[i] > last) {
+                continue;
+            }
+            final Account account = accounts[accountIds[i]];
+            if(account.isBillable() && clientName.equals(account.getName())) {
+                invoice.addLineItem(new InvoiceLineItem(weekStartingDay.plusDays(dayOffsets[i]), consultant,
+                                                        SKILLS[skills[i]], hours[i]));
+            }
+        }
+    }
+    /**
+     * Materializes this card as a time card.
+     * @return time card holding a consultant time for every entry.
+     */
+    public TimeCard toTimeCard() {
+        final TimeCard timeCard = new TimeCard(consultant, weekStartingDay);
+        for(int i = 0; i < size; i++) {
+            timeCard.addConsultantTime(entry(i));
+        }
+        return timeCard;
+    }
+    /**
+     * Creates as string with consultant name and work week starting day.
+     * @return string with consultant name and starting day of work week.
+     */
+    @Override
+    public String toString() {
+        return String.format("Consultant: %s Week Starting: %s", consultant, weekStartingDay);
+    }
+
+    /**
+     * Creates the consultant time of an entry.
+     * @param i index of the entry.
+     * @return a new consultant time.
+     */
+    private ConsultantTime entry(final int i) {
+        return new ConsultantTime(weekStartingDay.plusDays(dayOffsets[i]), accounts[accountIds[i]],
+                                  SKILLS[skills[i]], hours[i]);
+    }
+    /**
+     * Finds an account in the account table by identity, adding it if it is not there yet. A card bills
+     * only a handful of accounts, so a scan is cheaper than a map.
+     * @param account to find.
+     * @return index of the account in the table.
+     */
+    private int accountId(final Account account) {
+        for(int id = 0; id < accountCount; id++) {
+            if(accounts[id] == account) {
+                return id;
+            }
+        }
+        if(accountCount == accounts.length) {
+            accounts = Arrays.copyOf(accounts, accountCount * 2);
+        }
+        accounts[accountCount] = account;
+        return accountCount++;
+    }
+    /**
+     * Grows the entry arrays to hold at least the given number of entries.
+     * @param capacity entries to hold.
+     */
+    private void ensureCapacity(final int capacity) {
+        if(capacity <= hours.length) {
+            return;
+        }
+        final int grown = Math.max(capacity, hours.length + (hours.length >> 1) + 1);
+        dayOffsets = Arrays.copyOf(dayOffsets, grown);
+        accountIds = Arrays.copyOf(accountIds, grown);
+        skills = Arrays.copyOf(skills, grown);
+        hours = Arrays.copyOf(hours, grown);
+    }
+
+    // INNER CLASS \\
+    /**
+     * Read-only list view of the entries, creating a consultant time each time an entry is read.
+     */
+    private final class Entries extends AbstractList<ConsultantTime> implements RandomAccess {
+        @Override
+        public ConsultantTime get(final int index) {
+            if(index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return entry(index);
+        }
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
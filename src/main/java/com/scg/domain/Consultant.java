@@ -51,9 +51,9 @@ implements Comparable<Consultant>, Serializable
         }
         private Object readResolve() {
             //final String msg = String.format("De-Serialized consultant: %s, %s %s", first, middle, last);
-            PersonalName personalName = new PersonalName(first, middle, last);
+            PersonalName personalName = new PersonalName(last, first, middle);
             Consultant consultant = new Consultant(personalName);
-            return consultant;
+            return CanonicalInstances.of(consultant);
         }
     }
     
@@ -1,10 +1,14 @@
 package com.scg.domain;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
 
+import com.scg.util.FixedWidthLayout;
+
 /**
- * Class for account name, date, hours, and skilltype to go on timecard.
+ * Class for account name, date, hours, and skilltype to go on timecard. Once the time is added to a
+ * time card it can no longer be changed, since the card keeps totals and client groups of its hours.
  * @author Adam Spade
  */
 public final class ConsultantTime 
@@ -16,6 +20,11 @@ implements Serializable
      * Serial Version UID.
      */
     private static final long serialVersionUID = -8195553192806518070L;
+    /**
+     * Time card line formatter for account name, date, hours and skill type.
+     */
+    private static final FixedWidthLayout LINE = FixedWidthLayout.compile(
+            "%-29s %2$tm/%2$td/%2$tY%3$7s %4$17s %n");
     /**
      * Account name initializer.
      */
@@ -32,6 +41,10 @@ implements Serializable
      * SkillType initializer.
      */
     private Skill skillType;
+    /**
+     * Initializer for the flag set once the time is added to a time card.
+     */
+    private transient volatile boolean added;
 
     // CONSTRUCTORS \\
     /**
@@ -49,6 +62,32 @@ implements Serializable
         setHours(hours);
     }
     
+    // INNER CLASS \\
+    /**
+     * Serialized form of a consultant time, whose account is resolved to the canonical instance when read.
+     */
+    private static final class SerializationProxy implements Serializable {
+        /**
+         * Serial Version UID.
+         */
+        private static final long serialVersionUID = -5441236553643110589L;
+        private final long epochDay;
+        private final Account account;
+        private final Skill skillType;
+        private final int hours;
+
+        SerializationProxy(final ConsultantTime consultantTime) {
+            epochDay = consultantTime.getDate().toEpochDay();
+            account = consultantTime.getAccount();
+            skillType = consultantTime.getSkillType();
+            hours = consultantTime.getHours();
+        }
+        private Object readResolve() {
+            return new ConsultantTime(LocalDate.ofEpochDay(epochDay), CanonicalInstances.of(account),
+                                      skillType, hours);
+        }
+    }
+    
     // GETTERS & SETTERS \\
     /**
      * Getter for account name.
@@ -60,8 +99,10 @@ implements Serializable
     /**
      * Setter for account name.
      * @param account name.
+     * @throws IllegalStateException if the time has been added to a time card.
      */
     public void setAccount(Account account) {
+        checkNotAdded();
         this.account = account;
     }
     /**
@@ -74,8 +115,10 @@ implements Serializable
     /**
      * Setter for date.
      * @param date value.
+     * @throws IllegalStateException if the time has been added to a time card.
      */
     public void setDate(LocalDate date) {
+        checkNotAdded();
         this.date = date;
     }
     /**
@@ -89,9 +132,11 @@ implements Serializable
      * Setter for hours.
      * @param hours of work done.
      * @throws IllegalArgumentException if hours are listed as zero or less.
+     * @throws IllegalStateException if the time has been added to a time card.
      */
     public void setHours(int hours) 
     throws IllegalArgumentException{
+        checkNotAdded();
         if(hours <= 0) {
             throw new IllegalArgumentException("hours must be greater than zero");
         }
@@ -158,13 +203,43 @@ implements Serializable
     public boolean isBillable() {
         return this.getAccount().isBillable() ? true : false;
     }
+    /**
+     * Marks the time as added to a time card, after which the setters reject changes.
+     */
+    void markAdded() {
+        added = true;
+    }
+    /**
+     * Appends the formatted consultant time line to a destination.
+     * @param out destination to append to.
+     * @throws IOException if the destination cannot be written.
+     */
+    void appendTo(final Appendable out) throws IOException {
+        LINE.appendTo(out, getAccount().getName(), getDate(), getHours(), getSkillType());
+    }
     /**
      * Creates string of consultant time.
      * @return string of consultant time with account name, date, hours, skill type. 
      */
     public String toString() {
-        String  line = String.format("%-29s %2$tm/%2$td/%2$tY", getAccount().getName(), getDate());
-        String line2 = String.format("%7s %17s %n", getHours(), getSkillType());
-        return  line + line2.toString();
+        return LINE.format(getAccount().getName(), getDate(), getHours(), getSkillType());
+    }
+
+    /**
+     * Rejects a change to time that has been added to a time card.
+     * @throws IllegalStateException if the time has been added to a time card.
+     */
+    private void checkNotAdded() {
+        if(added) {
+            throw new IllegalStateException("Consultant time on a time card cannot be changed");
+        }
+    }
+    /**
+     * Replaces this consultant time with its serialization proxy. Streams written before the proxy
+     * was introduced still deserialize through the default form.
+     * @return the serialization proxy.
+     */
+    private Object writeReplace() {
+        return new SerializationProxy(this);
     }
 }
\ No newline at end of file
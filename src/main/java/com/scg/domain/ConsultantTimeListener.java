@@ -0,0 +1,19 @@
+package com.scg.domain;
+
+import java.util.EventListener;
+
+/**
+ * Listener notified each time consultant time is added to a time card it is registered with.
+ * @author Adam Spade
+ */
+@FunctionalInterface
+public interface ConsultantTimeListener
+extends EventListener
+{
+    /**
+     * Called after consultant time has been added to a time card.
+     * @param timeCard the time was added to.
+     * @param consultantTime that was added.
+     */
+    void consultantTimeAdded(TimeCard timeCard, ConsultantTime consultantTime);
+}
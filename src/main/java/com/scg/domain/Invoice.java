@@ -1,17 +1,13 @@
 package com.scg.domain;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.ArrayList;
-import java.util.Formatter;
+import java.util.Collections;
 import java.util.List;
-import java.util.Properties;
 
-import com.scg.util.Address;
-import com.scg.util.StateCode;
+import com.scg.util.Money;
 
 /**
  * Class to create invoices for clients for work done by consultants during a particular billing period.
@@ -21,32 +17,6 @@ import com.scg.util.StateCode;
  */
 public final class Invoice 
 {
-    // FORMATTERS \\
-    /**
-     * Column name formatter.
-     */
-    private static final String COLUMN_NAMES = String.format("%s %18s %22s %20s %7s %n" +
-            "-----------  --------------------------  -------------------  -----  -----------%n",
-            "Date", "Consultant", "Skill", "Hours", "Charge");
-    /**
-     * Items to list per page.
-     */
-    private static final int ITEMS_PER_PAGE = 5;
-    /**
-     * Formatter for total hours and charges to list per invoice.
-     */
-    private static final String TOTAL = "Total: %1$62s %2$,10.2f%n";
-    /**
-     * Space formatter for adding blank rows as separators.
-     */
-    private static final String SPACE = String.format("%n");
-    /**
-     * Formatter for separating one page from another.
-     */
-    private static final String END_OF_PAGE = String.format("==================================="
-                                                          + "==================================="
-                                                          + "===========%n");
-
     // MEMBER VARIABLES \\
     /**
      * Initializer for line item list.
@@ -69,45 +39,9 @@ public final class Invoice
      */
     private int totalHours;
     /**
-     * Initializer for total charges.
-     */
-    private int totalCharges;
-    /**
-     * Initializer for items to print.
+     * Initializer for total charges in cents.
      */
-    private int itemsToPrint = 0;
-    /**
-     * Initializer for input stream.
-     */
-    private InputStream inputStream;
-    /**
-     * Initializer for business address.
-     */
-    private Address businessAddress;
-    /**
-     * Initialier for address state code.
-     */
-    private StateCode state;
-    /**
-     * Initializer for business name.
-     */
-    private String businessName;
-    /**
-     * Initializer for business street address.
-     */
-    private String businessStreet;
-    /**
-     * Initializer for business city address.
-     */
-    private String businessCity;
-    /**
-     * Initializer for business state code.
-     */
-    private String businessState;
-    /**
-     * Initializer for business zip code.
-     */
-    private String businessZip;
+    private long totalCharges;
     
     // CONSTRUCTOR \\
     /**
@@ -146,58 +80,54 @@ public final class Invoice
         return startDate;
     }
     /**
-     * Getter for total charges on invoice.
+     * Getter for total charges on invoice in whole currency units.
      * @return total charges to list on invoice.
+     * @throws ArithmeticException if the total does not fit in an int.
      */
     public int getTotalCharges() {
-        return newLineItem.stream().mapToInt(x -> x.getCharge()).sum();
+        return Math.toIntExact(Money.toUnits(totalCharges));
+    }
+    /**
+     * Getter for total charges on invoice in cents.
+     * @return total charges to list on invoice.
+     */
+    public long getTotalChargesCents() {
+        return totalCharges;
     }
     /**
      * Getter for total hours on invoice.
      * @return total hours to list on invoice.
      */
     public int getTotalHours() {
-        return newLineItem.stream().mapToInt(x -> x.getHours()).sum();
-    }    
+        return totalHours;
+    }
     /**
-     * Get address values from resource properties file through inputStream.
-     * @return result of appended properties pulled from resource file.
-     * @throws IOException if properties file not found.
+     * Getter for the line items on the invoice.
+     * @return unmodifiable view of the line items, in the order they were added.
      */
-    private String getAV() throws IOException {
-        StringBuilder result = new StringBuilder();
-        Properties      prop = new Properties();
-        String  propFileName = "invoice.properties";
-        try {  
-            inputStream = getClass().getClassLoader().getResourceAsStream(propFileName);
-            if(inputStream != null) {
-                prop.load(inputStream);
-            }
-            else {
-                throw new FileNotFoundException("property file ' " 
-                                                + propFileName 
-                                                + " ' not found in the classpath");
-            }
-        }
-        catch (Exception e) {
-        }
-        businessName   = prop.getProperty("business.name");
-        businessStreet = prop.getProperty("business.street");
-        businessCity   = prop.getProperty("business.city");
-        businessState  = prop.getProperty("business.state");
-        businessZip    = prop.getProperty("business.zip");
-        
-        result.append(businessName)
-        .append(SPACE)
-        .append(businessStreet)
-        .append(SPACE)
-        .append(businessCity)
-        .append(", ")
-        .append(businessState)
-        .append(" ")
-        .append(businessZip)
-        .append(SPACE);
-        return result.toString();        
+    public List<InvoiceLineItem> getLineItems() {
+        return Collections.unmodifiableList(newLineItem);
+    }
+    /**
+     * Getter for the number of line items on the invoice.
+     * @return number of line items.
+     */
+    public int getLineItemCount() {
+        return newLineItem.size();
+    }
+    /**
+     * Getter for the number of pages the invoice report prints on.
+     * @return number of pages.
+     */
+    public int getPageCount() {
+        return InvoicePages.pageCount(newLineItem.size());
+    }
+    /**
+     * Getter for a paginated view of the invoice report as it stands now.
+     * @return the paginated view.
+     */
+    public InvoicePages getPages() {
+        return new InvoicePages(client, invoiceDate, startDate, newLineItem, totalHours, totalCharges);
     }
     
     // ADDITIONAL METHODS \\
@@ -208,7 +138,7 @@ public final class Invoice
     public void addLineItem(final InvoiceLineItem lineItem) {
         newLineItem.add(lineItem);
         totalHours += lineItem.getHours();
-        totalCharges += lineItem.getCharge();
+        totalCharges = Money.plus(totalCharges, lineItem.getChargeCents());
     }
     /**
      * Method for extracting the billable hours from the timeCard to put on the invoice.
@@ -237,45 +167,21 @@ public final class Invoice
     /**
      * Creates a report and prints the invoice lines items to it as a formatted string.
      * @return the full invoice report as a formatted string.
-     * @throws IOException if the getAV() method does not have a properties file load properly.
+     * @throws IOException if the business profile cannot be loaded.
      */
     public String toReportString() throws IOException {
-        StringBuilder invLine = new StringBuilder();
-        InvoiceHeader invHead = new InvoiceHeader(getAV(), businessAddress, 
-                                                  client, invoiceDate, startDate);
-        InvoiceFooter invFoot = new InvoiceFooter(businessName);
-        Formatter      totals = new Formatter();
-        
-        totals.format(TOTAL, getTotalHours(), (double)getTotalCharges());
-        String str = totals.toString();
-        totals.close();
-        
-        for(InvoiceLineItem invoiceLineItem : newLineItem) {
-            invLine.append(invoiceLineItem);
-            itemsToPrint++;
-            if(itemsToPrint % ITEMS_PER_PAGE == 0) {
-                invFoot.incrementPageNumber();
-                invLine.append(SPACE)
-                .append(invFoot)
-                .append(END_OF_PAGE)
-                .append(SPACE)
-                .append(invHead)
-                .append(SPACE);
-            }
-        }
-        invFoot.incrementPageNumber();
-        
-        StringBuilder invoice = new StringBuilder();
-        invoice.append(invHead)
-        .append(SPACE)
-        .append(COLUMN_NAMES)
-        .append(invLine.toString())
-        .append(SPACE)
-        .append(str)
-        .append(SPACE)
-        .append(invFoot)
-        .append(END_OF_PAGE);
-        
+        final StringBuilder invoice = new StringBuilder();
+        writeReport(invoice);
         return invoice.toString();
     }
-}
\ No newline at end of file
+    /**
+     * Writes the invoice report, page by page, straight to a destination. Nothing but the header text
+     * is buffered, so memory use does not grow with the number of line items.
+     * @param out destination of the report.
+     * @throws IOException if the business profile cannot be loaded or the destination cannot be
+     * written.
+     */
+    public void writeReport(final Appendable out) throws IOException {
+        getPages().writeReport(out);
+    }
+}
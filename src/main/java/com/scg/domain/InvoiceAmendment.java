@@ -0,0 +1,199 @@
+package com.scg.domain;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.scg.util.FixedWidthLayout;
+
+/**
+ * Change to a previously issued invoice, made when late or corrected time cards are ingested. The
+ * amendment holds the invoice as issued, the invoice as revised, and the line items added to and
+ * removed from it, matched as a multiset so that a line item repeated on the invoice is counted once
+ * for every time it appears.
+ * @author Adam Spade
+ */
+public final class InvoiceAmendment
+extends Object
+{
+    // FORMATTERS \\
+    /**
+     * Formatter for the amendment heading.
+     */
+    private static final FixedWidthLayout HEADING = FixedWidthLayout.compile(
+            "Amendment to invoice for %1$s, %2$tB %2$tY%n");
+    /**
+     * Formatter for the change in totals.
+     */
+    private static final FixedWidthLayout CHANGE = FixedWidthLayout.compile(
+            "Change: %1$61d %2$,10.2m%n");
+    /**
+     * Marker of an added line item.
+     */
+    private static final String ADDED = "+ ";
+    /**
+     * Marker of a removed line item.
+     */
+    private static final String REMOVED = "- ";
+
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the invoice as issued before the amendment.
+     */
+    private final Invoice previous;
+    /**
+     * Initializer for the invoice as revised.
+     */
+    private final Invoice revised;
+    /**
+     * Initializer for the line items added by the amendment.
+     */
+    private final List<InvoiceLineItem> added;
+    /**
+     * Initializer for the line items removed by the amendment.
+     */
+    private final List<InvoiceLineItem> removed;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for the amendment between two versions of an invoice.
+     * @param previous invoice as issued before.
+     * @param revised invoice as revised.
+     */
+    InvoiceAmendment(final Invoice previous, final Invoice revised) {
+        this.previous = previous;
+        this.revised = revised;
+        final Map<InvoiceLineItem, Integer> counts = new HashMap<>();
+        for(InvoiceLineItem lineItem : previous.getLineItems()) {
+            counts.merge(lineItem, 1, Integer::sum);
+        }
+        final List<InvoiceLineItem> addedItems = new ArrayList<>();
+        for(InvoiceLineItem lineItem : revised.getLineItems()) {
+            final Integer count = counts.get(lineItem);
+            if(count == null) {
+                addedItems.add(lineItem);
+            } else if(count == 1) {
+                counts.remove(lineItem);
+            } else {
+                counts.put(lineItem, count - 1);
+            }
+        }
+        final List<InvoiceLineItem> removedItems = new ArrayList<>();
+        for(InvoiceLineItem lineItem : previous.getLineItems()) {
+            final Integer count = counts.get(lineItem);
+            if(count != null) {
+                removedItems.add(lineItem);
+                if(count == 1) {
+                    counts.remove(lineItem);
+                } else {
+                    counts.put(lineItem, count - 1);
+                }
+            }
+        }
+        this.added = Collections.unmodifiableList(addedItems);
+        this.removed = Collections.unmodifiableList(removedItems);
+    }
+
+    // GETTERS & SETTERS \\
+    /**
+     * Getter for the client of the amended invoice.
+     * @return client.
+     */
+    public ClientAccount getClientAccount() {
+        return revised.getClientAccount();
+    }
+    /**
+     * Getter for the start date of the amended invoice's month.
+     * @return start date.
+     */
+    public LocalDate getStartDate() {
+        return revised.getStartDate();
+    }
+    /**
+     * Getter for the invoice as issued before the amendment.
+     * @return previous invoice, empty if none was issued.
+     */
+    public Invoice getPreviousInvoice() {
+        return previous;
+    }
+    /**
+     * Getter for the invoice as revised.
+     * @return revised invoice.
+     */
+    public Invoice getRevisedInvoice() {
+        return revised;
+    }
+    /**
+     * Getter for the line items added by the amendment.
+     * @return added line items, in revised invoice order.
+     */
+    public List<InvoiceLineItem> getAddedLineItems() {
+        return added;
+    }
+    /**
+     * Getter for the line items removed by the amendment.
+     * @return removed line items, in previous invoice order.
+     */
+    public List<InvoiceLineItem> getRemovedLineItems() {
+        return removed;
+    }
+    /**
+     * Getter for the change in total hours.
+     * @return revised minus previous total hours.
+     */
+    public int getHoursDelta() {
+        return revised.getTotalHours() - previous.getTotalHours();
+    }
+    /**
+     * Getter for the change in total charges.
+     * @return revised minus previous total charges in cents.
+     */
+    public long getChargesDeltaCents() {
+        return Math.subtractExact(revised.getTotalChargesCents(), previous.getTotalChargesCents());
+    }
+    /**
+     * Determines if the amendment changes any line item.
+     * @return true if no line item was added or removed.
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Writes the amendment, listing removed then added line items and the change in totals.
+     * @param out destination of the amendment.
+     * @throws IOException if the destination cannot be written.
+     */
+    public void writeReport(final Appendable out) throws IOException {
+        HEADING.appendTo(out, getClientAccount().getName(), getStartDate());
+        for(InvoiceLineItem lineItem : removed) {
+            out.append(REMOVED);
+            lineItem.appendTo(out);
+        }
+        for(InvoiceLineItem lineItem : added) {
+            out.append(ADDED);
+            lineItem.appendTo(out);
+        }
+        CHANGE.appendTo(out, getHoursDelta(), getChargesDeltaCents());
+    }
+    /**
+     * String format of the amendment.
+     * @return the amendment report.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder report = new StringBuilder();
+        try {
+            writeReport(report);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return report.toString();
+    }
+}
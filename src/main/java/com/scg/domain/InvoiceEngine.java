@@ -0,0 +1,185 @@
+package com.scg.domain;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Builds the invoices for a list of clients in a single pass over the time cards. Each billable
+ * consultant time is routed straight into the invoice for its client and month, so the time cards are
+ * walked once no matter how many clients are invoiced. The clients billed to an account are resolved
+ * by name the first time the account is seen and cached by account identity after that.
+ * @author Adam Spade
+ */
+public final class InvoiceEngine
+extends Object
+implements Consumer<TimeCard>
+{
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the clients being invoiced, in invoice order.
+     */
+    private final List<ClientAccount> clients;
+    /**
+     * Initializer for the indexes of the clients with each name.
+     */
+    private final Map<String, int[]> clientsByName = new HashMap<>();
+    /**
+     * Initializer for the indexes of the clients billed to each account seen so far.
+     */
+    private final Map<Account, int[]> clientsByAccount = new IdentityHashMap<>();
+    /**
+     * Initializer for the invoices of each client, keyed by month.
+     */
+    private final List<Map<YearMonth, Invoice>> invoices;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for an engine that invoices the given clients.
+     * @param clients to invoice.
+     */
+    public InvoiceEngine(final List<ClientAccount> clients) {
+        this.clients = new ArrayList<>(clients);
+        this.invoices = new ArrayList<>(clients.size());
+        for(int i = 0; i < this.clients.size(); i++) {
+            final String name = this.clients.get(i).getName();
+            final int[] previous = clientsByName.get(name);
+            final int[] indexes = (previous == null) ? new int[1] : Arrays.copyOf(previous, previous.length + 1);
+            indexes[indexes.length - 1] = i;
+            clientsByName.put(name, indexes);
+            invoices.add(new TreeMap<>());
+        }
+    }
+
+    // GETTERS & SETTERS \\
+    /**
+     * Getter for the invoices of every client for one month. Clients with no billable time in the month
+     * get an empty invoice.
+     * @param invoiceMonth month of the invoices.
+     * @param invoiceYear year of the invoices.
+     * @return one invoice per client, in client order.
+     */
+    public List<Invoice> getInvoices(final Month invoiceMonth, final int invoiceYear) {
+        final YearMonth month = YearMonth.of(invoiceYear, invoiceMonth);
+        final List<Invoice> monthInvoices = new ArrayList<>(clients.size());
+        for(int i = 0; i < clients.size(); i++) {
+            monthInvoices.add(getInvoice(i, month));
+        }
+        return monthInvoices;
+    }
+    /**
+     * Getter for the invoice of one client for one month.
+     * @param index of the client in the client list.
+     * @param month of the invoice.
+     * @return the invoice, empty if the client has no billable time in the month.
+     */
+    Invoice getInvoice(final int index, final YearMonth month) {
+        final Invoice invoice = invoices.get(index).get(month);
+        return (invoice == null) ? new Invoice(clients.get(index), month.getMonth(), month.getYear()) : invoice;
+    }
+    /**
+     * Getter for the invoice of one client for one month, creating it if the client has no billable time
+     * in the month yet, so the invoice returned is the one later time is added to.
+     * @param index of the client in the client list.
+     * @param month of the invoice.
+     * @return the invoice held by this engine.
+     */
+    Invoice invoice(final int index, final YearMonth month) {
+        return invoices.get(index).computeIfAbsent(month,
+                m -> new Invoice(clients.get(index), m.getMonth(), m.getYear()));
+    }
+    /**
+     * Getter for the index of a client in the client list.
+     * @param client to look up by identity.
+     * @return index of the client, or -1 if it is not being invoiced.
+     */
+    int indexOf(final ClientAccount client) {
+        for(int i = 0; i < clients.size(); i++) {
+            if(clients.get(i) == client) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    /**
+     * Getter for every invoice that has at least one line item.
+     * @return the invoices, by client and then by month.
+     */
+    public List<Invoice> getInvoices() {
+        final List<Invoice> allInvoices = new ArrayList<>();
+        for(Map<YearMonth, Invoice> clientInvoices : invoices) {
+            allInvoices.addAll(clientInvoices.values());
+        }
+        return allInvoices;
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Routes the billable time of a time card into the invoices of its clients and months.
+     * @param timeCard to add.
+     */
+    @Override
+    public void accept(final TimeCard timeCard) {
+        final Consultant consultant = timeCard.getConsultant();
+        for(ConsultantTime time : timeCard.getConsultingHours()) {
+            accept(consultant, time);
+        }
+    }
+    /**
+     * Routes one consultant time into the invoices of its clients and month if it is billable.
+     * @param consultant who recorded the time.
+     * @param time to add.
+     */
+    void accept(final Consultant consultant, final ConsultantTime time) {
+        if(!time.isBillable()) {
+            return;
+        }
+        final int[] indexes = clientsFor(time.getAccount());
+        if(indexes.length == 0) {
+            return;
+        }
+        final LocalDate date = time.getDate();
+        final YearMonth month = YearMonth.from(date);
+        final InvoiceLineItem lineItem = new InvoiceLineItem(date, consultant, time.getSkillType(),
+                                                             time.getHours());
+        for(int index : indexes) {
+            invoice(index, month).addLineItem(lineItem);
+        }
+    }
+    /**
+     * Routes the billable time of every time card.
+     * @param timeCards to add.
+     * @return this engine.
+     */
+    public InvoiceEngine addAll(final Iterable<TimeCard> timeCards) {
+        for(TimeCard timeCard : timeCards) {
+            accept(timeCard);
+        }
+        return this;
+    }
+
+    /**
+     * Resolves the clients billed to an account.
+     * @param account of a billable consultant time.
+     * @return indexes of the clients, empty if none is being invoiced.
+     */
+    private int[] clientsFor(final Account account) {
+        int[] indexes = clientsByAccount.get(account);
+        if(indexes == null) {
+            indexes = clientsByName.get(account.getName());
+            if(indexes == null) {
+                indexes = new int[0];
+            }
+            clientsByAccount.put(account, indexes);
+        }
+        return indexes;
+    }
+}
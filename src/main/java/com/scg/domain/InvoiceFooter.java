@@ -1,5 +1,9 @@
 package com.scg.domain;
 
+import java.io.IOException;
+
+import com.scg.util.FixedWidthLayout;
+
 /**
  * Class that builds the footer used in the invoice class.
  * @author Adam Spade
@@ -7,6 +11,12 @@ package com.scg.domain;
  */
 final class InvoiceFooter 
 {
+    // FORMATTERS \\
+    /**
+     * Footer formatter for business name and page number.
+     */
+    private static final FixedWidthLayout FOOTER = FixedWidthLayout.compile("%-70s Page: %s%n");
+
     // MEMBER VARIABLES \\
     /**
      * Initializer for the business name.
@@ -25,6 +35,15 @@ final class InvoiceFooter
     public InvoiceFooter(final String businessName) {
         this.businessName = businessName;
     }
+    /**
+     * Invoice footer constructor for a given page.
+     * @param businessName to list on the invoice footer.
+     * @param pageNumber to list on the invoice footer.
+     */
+    public InvoiceFooter(final String businessName, final int pageNumber) {
+        this.businessName = businessName;
+        this.nextPage = pageNumber;
+    }
 
     // ADDITIONAL METHODS \\
     /**
@@ -33,11 +52,19 @@ final class InvoiceFooter
     public void incrementPageNumber() {
         nextPage++;
     }
+    /**
+     * Appends the footer to a destination.
+     * @param out destination to append to.
+     * @throws IOException if the destination cannot be written.
+     */
+    public void appendTo(final Appendable out) throws IOException {
+        FOOTER.appendTo(out, businessName, nextPage);
+    }
     /**
      * String format of the footer that includes the business name and page number.
      */
     @Override
     public String toString() {
-        return String.format("%-70s Page: %s%n", businessName, nextPage);
+        return FOOTER.format(businessName, nextPage);
     }
 }
\ No newline at end of file
@@ -1,9 +1,10 @@
 package com.scg.domain;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
-import java.util.Formatter;
 
-import com.scg.util.Address;
+import com.scg.util.FixedWidthLayout;
 
 /**
  * Header class to be used in the invoice class. Contains company header, client name, and invoice date.
@@ -15,7 +16,7 @@ final class InvoiceHeader
     /**
      * Formatter for the business name.
      */
-    private static final String SCG = "%s%n";
+    private static final FixedWidthLayout SCG = FixedWidthLayout.compile("%s%n");
     /**
      * Formatter for whom the invoice is for.
      */
@@ -23,25 +24,21 @@ final class InvoiceHeader
     /**
      * Formatter for the client name.
      */
-    private static final String CLIENT = "%s%n";
+    private static final FixedWidthLayout CLIENT = FixedWidthLayout.compile("%s%n");
     /**
      * Formatter for the billing month.
      */
-    private static final String FOR_MONTH_OF = "Invoice For Month of: %1$tB %1$tY%n";
+    private static final FixedWidthLayout FOR_MONTH_OF = FixedWidthLayout.compile("Invoice For Month of: %1$tB %1$tY%n");
     /**
      * Formatter for the date the invoice was issued.
      */
-    private static final String INVOICE_DATE = "Invoice Date: %1$tB %1$td, %1$tY%n";
+    private static final FixedWidthLayout INVOICE_DATE = FixedWidthLayout.compile("Invoice Date: %1$tB %1$td, %1$tY%n");
 
     // MEMBER VARIABLES \\
     /**
      * Initializer for the business name.
      */
     private final String businessName;
-    /**
-     * Initializer for the busines address.
-     */
-    private final Address businessAddress;
     /**
      * Initializer for the client name.
      */
@@ -57,23 +54,35 @@ final class InvoiceHeader
     
     // CONSTRUCTOR \\
     /**
-     * Constructor for the invoice header class. Includes the business name, business address,
+     * Constructor for the invoice header class. Includes the business name and address block,
      * client name, invoice date, and invoice month.
-     * @param businessName name of the business.
-     * @param businessAddress address of the business.
+     * @param businessName name and address block of the business.
      * @param client name of the client.
      * @param invoiceDate date of the invoice.
      * @param invoiceForMonth month of the invoice.
      */
-    public InvoiceHeader(String businessName, Address businessAddress, ClientAccount client, 
+    public InvoiceHeader(String businessName, ClientAccount client, 
             LocalDate invoiceDate, LocalDate invoiceForMonth) {
         this.businessName = businessName;
-        this.businessAddress = businessAddress;
         this.client = client;
         this.invoiceDate = invoiceDate;
         this.invoiceForMonth = invoiceForMonth;
     }
     
+    /**
+     * Appends the header to a destination.
+     * @param out destination to append to.
+     * @return the destination.
+     * @throws IOException if the destination cannot be written.
+     */
+    public <A extends Appendable> A appendTo(final A out) throws IOException {
+        SCG.appendTo(out, businessName);
+        out.append(INVOICE_FOR);
+        CLIENT.appendTo(out, client);
+        FOR_MONTH_OF.appendTo(out, invoiceForMonth);
+        INVOICE_DATE.appendTo(out, invoiceDate);
+        return out;
+    }
     /**
      * To string format of the invoice header that includes the biz name and address, client the 
      * invoice is for, month the invoice is for and the invoice date.
@@ -81,14 +90,10 @@ final class InvoiceHeader
      */
     @Override
     public String toString() {
-        Formatter invHead = new Formatter();
-        invHead.format(SCG, businessName, businessAddress)
-               .format(INVOICE_FOR)
-               .format(CLIENT, client)
-               .format(FOR_MONTH_OF, invoiceForMonth)
-               .format(INVOICE_DATE, invoiceDate);
-        String invoiceHead = invHead.toString();
-        invHead.close();
-        return invoiceHead;
-    }   
-}
\ No newline at end of file
+        try {
+            return appendTo(new StringBuilder()).toString();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
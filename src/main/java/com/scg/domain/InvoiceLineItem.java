@@ -1,7 +1,11 @@
 package com.scg.domain;
 
+import java.io.IOException;
 import java.time.LocalDate;
 
+import com.scg.util.FixedWidthLayout;
+import com.scg.util.Money;
+
 /**
  * Invoice line item class which builds a single line to be added to the invoice. Line includes
  * the date of work, consultant name, skilltype, hours worked, and charges for hours worked.
@@ -15,8 +19,8 @@ public final class InvoiceLineItem
     /**
      * Formatter for the line time to be added to the invoice.
      */
-    private static final String INVOICE_LINE_ITEM = "%1$tm/%1$td/%1$tY   "
-                                                  + "%2$s %3$29s %4$8d   %5$,6.2f%n";
+    private static final FixedWidthLayout INVOICE_LINE_ITEM = FixedWidthLayout.compile(
+            "%1$tm/%1$td/%1$tY   %2$s %3$29s %4$8d   %5$,6.2m%n");
     
     // MEMBER VARIABLES \\
     /**
@@ -36,9 +40,9 @@ public final class InvoiceLineItem
      */
     private final int hours;
     /**
-     * Initializer for charge.
+     * Initializer for charge in cents.
      */
-    private final int charge;
+    private final long charge;
     
     // CONSTRUCTORS \\
     /**
@@ -55,7 +59,7 @@ public final class InvoiceLineItem
                                     this.consultant = consultant;
                                     this.skill = skill;
                                     this.hours = hours;
-                                    this.charge = skill.getRate() * hours;
+                                    this.charge = Money.times(skill.getRateCents(), hours);
     }
 
     // GETTERS & SETTERS \\
@@ -88,13 +92,79 @@ public final class InvoiceLineItem
         return hours;
     }
     /**
-     * Getter for charge.
+     * Getter for charge in whole currency units.
      * @return charge on the line item.
+     * @throws ArithmeticException if the charge does not fit in an int.
      */
     public int getCharge() {
-        return charge ;
+        return Math.toIntExact(Money.toUnits(charge));
+    }
+    /**
+     * Getter for charge in cents.
+     * @return charge on the line item.
+     */
+    public long getChargeCents() {
+        return charge;
     }
 
+    /**
+     * Appends the formatted line item to a destination.
+     * @param out destination to append to.
+     * @throws IOException if the destination cannot be written.
+     */
+    void appendTo(final Appendable out) throws IOException {
+        INVOICE_LINE_ITEM.appendTo(out,
+                                getDate(),
+                                getConsultant().getName(),
+                                getSkill(),
+                                getHours(),
+                                getChargeCents());
+    }
+    /**
+     * Method for calculating hashcode of the line item. The consultant is compared by name, so line
+     * items read back from a file match the ones they were written from.
+     * @return result hashcode value.
+     */
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((consultant == null) ? 0 : consultant.getName().hashCode());
+        result = prime * result + ((date == null) ? 0 : date.hashCode());
+        result = prime * result + hours;
+        result = prime * result + ((skill == null) ? 0 : skill.hashCode());
+        return result;
+    }
+    /**
+     * Method for checking equality of line items.
+     * @param obj to compare to.
+     * @return true if the date, consultant name, skill and hours are equal.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        InvoiceLineItem other = (InvoiceLineItem) obj;
+        if (consultant == null) {
+            if (other.consultant != null)
+                return false;
+        } else if (other.consultant == null || !consultant.getName().equals(other.consultant.getName()))
+            return false;
+        if (date == null) {
+            if (other.date != null)
+                return false;
+        } else if (!date.equals(other.date))
+            return false;
+        if (hours != other.hours)
+            return false;
+        if (skill != other.skill)
+            return false;
+        return true;
+    }
     /**
      * String representation of the invoice line item.
      * @return invoice line item that includes work date, consultant name, skill type, hours,
@@ -102,11 +172,11 @@ public final class InvoiceLineItem
      */
     @Override
     public String toString() {
-        return String.format(INVOICE_LINE_ITEM, 
+        return INVOICE_LINE_ITEM.format(
                              getDate(), 
                              getConsultant().getName(), 
                              getSkill(), 
                              getHours(), 
-                             (double)getCharge());
+                             getChargeCents());
     }
 }
\ No newline at end of file
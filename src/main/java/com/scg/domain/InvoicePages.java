@@ -0,0 +1,186 @@
+package com.scg.domain;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.scg.util.FixedWidthLayout;
+
+/**
+ * Paginated view of an invoice report. The view holds a snapshot of the invoice's line items and
+ * totals, knows its page count up front and renders any single page, with its header and footer,
+ * without rendering the pages before it. It keeps no rendering state, so it is safe to share between
+ * threads and renders the same text every time. Writing every page in order gives the full report.
+ * @author Adam Spade
+ */
+public final class InvoicePages
+extends Object
+{
+    // FORMATTERS \\
+    /**
+     * Column name formatter.
+     */
+    private static final String COLUMN_NAMES = String.format("%s %18s %22s %20s %7s %n" +
+            "-----------  --------------------------  -------------------  -----  -----------%n",
+            "Date", "Consultant", "Skill", "Hours", "Charge");
+    /**
+     * Items to list per page.
+     */
+    static final int ITEMS_PER_PAGE = 5;
+    /**
+     * Formatter for total hours and charges to list per invoice.
+     */
+    private static final FixedWidthLayout TOTAL = FixedWidthLayout.compile("Total: %1$62s %2$,10.2m%n");
+    /**
+     * Space formatter for adding blank rows as separators.
+     */
+    private static final String SPACE = String.format("%n");
+    /**
+     * Formatter for separating one page from another.
+     */
+    private static final String END_OF_PAGE = String.format("==================================="
+                                                          + "==================================="
+                                                          + "===========%n");
+
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the client on the invoice.
+     */
+    private final ClientAccount client;
+    /**
+     * Initializer for the invoice date.
+     */
+    private final LocalDate invoiceDate;
+    /**
+     * Initializer for the invoice start date.
+     */
+    private final LocalDate startDate;
+    /**
+     * Initializer for the line items.
+     */
+    private final List<InvoiceLineItem> lineItems;
+    /**
+     * Initializer for the total hours.
+     */
+    private final int totalHours;
+    /**
+     * Initializer for the total charges in cents.
+     */
+    private final long totalCharges;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a view of an invoice snapshot.
+     * @param client on the invoice.
+     * @param invoiceDate of the invoice.
+     * @param startDate of the invoice month.
+     * @param lineItems of the invoice, copied.
+     * @param totalHours of the invoice.
+     * @param totalCharges of the invoice in cents.
+     */
+    InvoicePages(final ClientAccount client, final LocalDate invoiceDate, final LocalDate startDate,
+                 final List<InvoiceLineItem> lineItems, final int totalHours, final long totalCharges) {
+        this.client = client;
+        this.invoiceDate = invoiceDate;
+        this.startDate = startDate;
+        this.lineItems = Collections.unmodifiableList(new ArrayList<>(lineItems));
+        this.totalHours = totalHours;
+        this.totalCharges = totalCharges;
+    }
+
+    // GETTERS & SETTERS \\
+    /**
+     * Getter for the number of pages.
+     * @return number of pages, at least one.
+     */
+    public int getPageCount() {
+        return pageCount(lineItems.size());
+    }
+    /**
+     * Getter for the text of one page.
+     * @param page number, starting at one.
+     * @return the page text.
+     * @throws IOException if the business profile cannot be loaded.
+     */
+    public String getPage(final int page) throws IOException {
+        final StringBuilder text = new StringBuilder();
+        writePage(text, page);
+        return text.toString();
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Number of pages a report of the given number of line items prints on. A page break follows
+     * every full page of line items, and the totals always go on the page after the last break.
+     * @param lineItemCount number of line items.
+     * @return number of pages.
+     */
+    static int pageCount(final int lineItemCount) {
+        return lineItemCount / ITEMS_PER_PAGE + 1;
+    }
+    /**
+     * Writes one page to a destination. The first page opens with the column names, later pages with
+     * the blank line that separates them from the page before; only the last page has the totals.
+     * @param out destination of the page.
+     * @param page number, starting at one.
+     * @throws IOException if the business profile cannot be loaded or the destination cannot be
+     * written.
+     * @throws IndexOutOfBoundsException if the page does not exist.
+     */
+    public void writePage(final Appendable out, final int page) throws IOException {
+        if(page < 1 || page > getPageCount()) {
+            throw new IndexOutOfBoundsException("Page " + page + " of " + getPageCount());
+        }
+        final BusinessProfile profile = BusinessProfile.current();
+        writePage(out, page, new InvoiceHeader(profile.getHeader(), client, invoiceDate, startDate),
+                  profile.getName());
+    }
+    /**
+     * Writes every page to a destination.
+     * @param out destination of the report.
+     * @throws IOException if the business profile cannot be loaded or the destination cannot be
+     * written.
+     */
+    public void writeReport(final Appendable out) throws IOException {
+        final BusinessProfile profile = BusinessProfile.current();
+        final InvoiceHeader header = new InvoiceHeader(profile.getHeader(), client, invoiceDate, startDate);
+        final int pages = getPageCount();
+        for(int page = 1; page <= pages; page++) {
+            writePage(out, page, header, profile.getName());
+        }
+    }
+
+    /**
+     * Writes one page with the given header and business name.
+     * @param out destination of the page.
+     * @param page number, starting at one.
+     * @param header of the invoice.
+     * @param businessName for the footer.
+     * @throws IOException if the destination cannot be written.
+     */
+    private void writePage(final Appendable out, final int page, final InvoiceHeader header,
+                           final String businessName) throws IOException {
+        if(page == 1) {
+            header.appendTo(out);
+            out.append(SPACE).append(COLUMN_NAMES);
+        }
+        else {
+            out.append(SPACE);
+            header.appendTo(out);
+            out.append(SPACE);
+        }
+        final int last = Math.min(page * ITEMS_PER_PAGE, lineItems.size());
+        for(int i = (page - 1) * ITEMS_PER_PAGE; i < last; i++) {
+            lineItems.get(i).appendTo(out);
+        }
+        out.append(SPACE);
+        if(page == getPageCount()) {
+            TOTAL.appendTo(out, totalHours, totalCharges);
+            out.append(SPACE);
+        }
+        new InvoiceFooter(businessName, page).appendTo(out);
+        out.append(END_OF_PAGE);
+    }
+}
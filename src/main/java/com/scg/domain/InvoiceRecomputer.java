@@ -0,0 +1,281 @@
+package com.scg.domain;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.scg.util.PersonalName;
+
+/**
+ * Issued invoices that are recomputed incrementally as late or corrected time cards arrive. Every
+ * ingested time card is remembered along with the (client, month) invoices it contributes to, and a
+ * card for a consultant and week already ingested replaces the earlier card. Ingesting cards rebuilds
+ * only the invoices the new and replaced cards contribute to, from just the cards contributing to each
+ * of them, and reports every rebuilt invoice that changed as an {@link InvoiceAmendment} against the
+ * invoice issued before.
+ * @author Adam Spade
+ */
+public final class InvoiceRecomputer
+extends Object
+{
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the clients being invoiced, in invoice order.
+     */
+    private final List<ClientAccount> clients;
+    /**
+     * Initializer for the indexes of the clients with each name.
+     */
+    private final Map<String, int[]> clientsByName = new HashMap<>();
+    /**
+     * Initializer for the sequence number of each ingested consultant week.
+     */
+    private final Map<CardKey, Integer> sequence = new HashMap<>();
+    /**
+     * Initializer for the current time card of each sequence number.
+     */
+    private final List<TimeCard> timeCards = new ArrayList<>();
+    /**
+     * Initializer for the invoices each time card contributes to, by sequence number.
+     */
+    private final List<Set<InvoiceKey>> contributions = new ArrayList<>();
+    /**
+     * Initializer for the sequence numbers of the time cards contributing to each client's invoices,
+     * keyed by month.
+     */
+    private final List<Map<YearMonth, TreeSet<Integer>>> contributors;
+    /**
+     * Initializer for the issued invoices of each client, keyed by month.
+     */
+    private final List<Map<YearMonth, Invoice>> issued;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a recomputer of the given clients' invoices, with no time cards ingested yet.
+     * @param clients to invoice.
+     */
+    public InvoiceRecomputer(final List<ClientAccount> clients) {
+        this.clients = new ArrayList<>(clients);
+        this.contributors = new ArrayList<>(clients.size());
+        this.issued = new ArrayList<>(clients.size());
+        for(int i = 0; i < this.clients.size(); i++) {
+            final String name = this.clients.get(i).getName();
+            final int[] previous = clientsByName.get(name);
+            final int[] indexes = (previous == null) ? new int[1] : Arrays.copyOf(previous, previous.length + 1);
+            indexes[indexes.length - 1] = i;
+            clientsByName.put(name, indexes);
+            contributors.add(new TreeMap<>());
+            issued.add(new TreeMap<>());
+        }
+    }
+
+    // GETTERS & SETTERS \\
+    /**
+     * Getter for the issued invoice of one client for one month.
+     * @param client to look up by identity.
+     * @param invoiceMonth month of the invoice.
+     * @param invoiceYear year of the invoice.
+     * @return the invoice, empty if the client has no billable time in the month.
+     * @throws IllegalArgumentException if the client is not being invoiced.
+     */
+    public synchronized Invoice getInvoice(final ClientAccount client, final Month invoiceMonth,
+                                           final int invoiceYear) {
+        for(int i = 0; i < clients.size(); i++) {
+            if(clients.get(i) == client) {
+                return issuedInvoice(i, YearMonth.of(invoiceYear, invoiceMonth));
+            }
+        }
+        throw new IllegalArgumentException("Not an invoiced client: " + client.getName());
+    }
+    /**
+     * Getter for the issued invoices of every client for one month.
+     * @param invoiceMonth month of the invoices.
+     * @param invoiceYear year of the invoices.
+     * @return one invoice per client, in client order.
+     */
+    public synchronized List<Invoice> getInvoices(final Month invoiceMonth, final int invoiceYear) {
+        final YearMonth month = YearMonth.of(invoiceYear, invoiceMonth);
+        final List<Invoice> monthInvoices = new ArrayList<>(clients.size());
+        for(int i = 0; i < clients.size(); i++) {
+            monthInvoices.add(issuedInvoice(i, month));
+        }
+        return monthInvoices;
+    }
+    /**
+     * Getter for the number of consultant weeks ingested.
+     * @return number of current time cards.
+     */
+    public synchronized int getTimeCardCount() {
+        return timeCards.size();
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Ingests one new or corrected time card.
+     * @param timeCard to ingest.
+     * @return amendments of the invoices that changed, by client and then by month.
+     */
+    public List<InvoiceAmendment> ingest(final TimeCard timeCard) {
+        return ingest(Collections.singletonList(timeCard));
+    }
+    /**
+     * Ingests new or corrected time cards, rebuilding only the invoices they or the cards they replace
+     * contribute to.
+     * @param newTimeCards to ingest.
+     * @return amendments of the invoices that changed, by client and then by month.
+     */
+    public synchronized List<InvoiceAmendment> ingest(final Iterable<TimeCard> newTimeCards) {
+        final Set<InvoiceKey> affected = new TreeSet<>();
+        for(TimeCard timeCard : newTimeCards) {
+            final CardKey key = new CardKey(timeCard.getConsultant().getName(), timeCard.getWeekStartingDay());
+            Integer number = sequence.get(key);
+            if(number == null) {
+                number = timeCards.size();
+                sequence.put(key, number);
+                timeCards.add(timeCard);
+                contributions.add(Collections.<InvoiceKey>emptySet());
+            } else {
+                timeCards.set(number, timeCard);
+            }
+            for(InvoiceKey invoice : contributions.get(number)) {
+                contributors.get(invoice.client).get(invoice.month).remove(number);
+                affected.add(invoice);
+            }
+            final Set<InvoiceKey> invoices = contributionsOf(timeCard);
+            for(InvoiceKey invoice : invoices) {
+                contributors.get(invoice.client).computeIfAbsent(invoice.month, m -> new TreeSet<>()).add(number);
+                affected.add(invoice);
+            }
+            contributions.set(number, invoices);
+        }
+        final List<InvoiceAmendment> amendments = new ArrayList<>();
+        for(InvoiceKey invoice : affected) {
+            final Invoice previous = issuedInvoice(invoice.client, invoice.month);
+            final Invoice revised = rebuild(invoice);
+            final InvoiceAmendment amendment = new InvoiceAmendment(previous, revised);
+            if(amendment.isEmpty()) {
+                continue;
+            }
+            if(revised.getLineItemCount() == 0) {
+                issued.get(invoice.client).remove(invoice.month);
+            } else {
+                issued.get(invoice.client).put(invoice.month, revised);
+            }
+            amendments.add(amendment);
+        }
+        return amendments;
+    }
+
+    /**
+     * Resolves the invoices a time card contributes billable time to.
+     * @param timeCard to resolve.
+     * @return the client and month of each invoice.
+     */
+    private Set<InvoiceKey> contributionsOf(final TimeCard timeCard) {
+        final Set<InvoiceKey> invoices = new TreeSet<>();
+        for(ConsultantTime time : timeCard.getConsultingHours()) {
+            if(!time.isBillable()) {
+                continue;
+            }
+            final int[] indexes = clientsByName.get(time.getAccount().getName());
+            if(indexes == null) {
+                continue;
+            }
+            final YearMonth month = YearMonth.from(time.getDate());
+            for(int index : indexes) {
+                invoices.add(new InvoiceKey(index, month));
+            }
+        }
+        return invoices;
+    }
+    /**
+     * Rebuilds one invoice from the time cards contributing to it, in the order they were first
+     * ingested.
+     * @param invoice client and month to rebuild.
+     * @return the rebuilt invoice.
+     */
+    private Invoice rebuild(final InvoiceKey invoice) {
+        final Invoice revised = new Invoice(clients.get(invoice.client), invoice.month.getMonth(),
+                                            invoice.month.getYear());
+        final TreeSet<Integer> numbers = contributors.get(invoice.client).get(invoice.month);
+        if(numbers != null) {
+            for(int number : numbers) {
+                revised.extractLineItems(timeCards.get(number));
+            }
+            if(numbers.isEmpty()) {
+                contributors.get(invoice.client).remove(invoice.month);
+            }
+        }
+        return revised;
+    }
+    /**
+     * Getter for the issued invoice of a client index and month.
+     * @param index of the client.
+     * @param month of the invoice.
+     * @return the issued invoice, or an empty one if none was issued.
+     */
+    private Invoice issuedInvoice(final int index, final YearMonth month) {
+        final Invoice invoice = issued.get(index).get(month);
+        return (invoice == null) ? new Invoice(clients.get(index), month.getMonth(), month.getYear()) : invoice;
+    }
+
+    // INNER CLASS \\
+    /**
+     * Consultant and week identifying a time card, so a corrected card replaces the original.
+     */
+    private static final class CardKey {
+        private final PersonalName consultant;
+        private final LocalDate week;
+
+        CardKey(final PersonalName consultant, final LocalDate week) {
+            this.consultant = consultant;
+            this.week = week;
+        }
+        @Override
+        public int hashCode() {
+            return 31 * consultant.hashCode() + week.hashCode();
+        }
+        @Override
+        public boolean equals(final Object obj) {
+            if(!(obj instanceof CardKey)) {
+                return false;
+            }
+            final CardKey other = (CardKey) obj;
+            return consultant.equals(other.consultant) && week.equals(other.week);
+        }
+    }
+    /**
+     * Client index and month identifying an invoice, ordered by client and then by month.
+     */
+    private static final class InvoiceKey implements Comparable<InvoiceKey> {
+        private final int client;
+        private final YearMonth month;
+
+        InvoiceKey(final int client, final YearMonth month) {
+            this.client = client;
+            this.month = month;
+        }
+        @Override
+        public int compareTo(final InvoiceKey other) {
+            final int diff = Integer.compare(client, other.client);
+            return (diff != 0) ? diff : month.compareTo(other.month);
+        }
+        @Override
+        public int hashCode() {
+            return 31 * client + month.hashCode();
+        }
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof InvoiceKey && compareTo((InvoiceKey) obj) == 0;
+        }
+    }
+}
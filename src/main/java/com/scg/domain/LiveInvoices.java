@@ -0,0 +1,129 @@
+package com.scg.domain;
+
+import java.io.IOException;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Invoices kept up to date as time is recorded. Tracked time cards notify this book each time
+ * consultant time is added to them, and the time is routed straight into the invoice for its client
+ * and month, whose running totals and page count are updated as the line item is added. The invoice
+ * for the current month is therefore always ready to preview. A time card can be tracked while time is
+ * still being recorded on it: the time already on the card and the subscription are taken together under
+ * the card's lock, so no time is missed or counted twice. The live invoices are only touched under this
+ * book's lock; callers get snapshots copied under the lock, which they can read and render while time
+ * keeps arriving.
+ * @author Adam Spade
+ */
+public final class LiveInvoices
+extends Object
+implements ConsultantTimeListener
+{
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the engine holding the invoices.
+     */
+    private final InvoiceEngine engine;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for live invoices of the given clients.
+     * @param clients to invoice.
+     */
+    public LiveInvoices(final List<ClientAccount> clients) {
+        this.engine = new InvoiceEngine(clients);
+    }
+
+    // GETTERS & SETTERS \\
+    /**
+     * Getter for a snapshot of the live invoice of one client for one month.
+     * @param client to look up by identity.
+     * @param invoiceMonth month of the invoice.
+     * @param invoiceYear year of the invoice.
+     * @return copy of the invoice, empty if the client has no billable time in the month yet.
+     * @throws IllegalArgumentException if the client is not being invoiced.
+     */
+    public synchronized Invoice getInvoice(final ClientAccount client, final Month invoiceMonth,
+                                           final int invoiceYear) {
+        final int index = engine.indexOf(client);
+        if(index < 0) {
+            throw new IllegalArgumentException("Not an invoiced client: " + client.getName());
+        }
+        return snapshot(engine.invoice(index, YearMonth.of(invoiceYear, invoiceMonth)));
+    }
+    /**
+     * Getter for snapshots of the live invoices of every client for one month.
+     * @param invoiceMonth month of the invoices.
+     * @param invoiceYear year of the invoices.
+     * @return copy of one invoice per client, in client order.
+     */
+    public synchronized List<Invoice> getInvoices(final Month invoiceMonth, final int invoiceYear) {
+        final List<Invoice> snapshots = new ArrayList<>();
+        for(Invoice invoice : engine.getInvoices(invoiceMonth, invoiceYear)) {
+            snapshots.add(snapshot(invoice));
+        }
+        return snapshots;
+    }
+    /**
+     * Getter for snapshots of the live invoices of every client for the current month.
+     * @return copy of one invoice per client, in client order.
+     */
+    public List<Invoice> getCurrentInvoices() {
+        final YearMonth now = YearMonth.now();
+        return getInvoices(now.getMonth(), now.getYear());
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Adds the time already on a time card and subscribes to the time added to it from now on.
+     * @param timeCard to track.
+     */
+    public synchronized void track(final TimeCard timeCard) {
+        final Consultant consultant = timeCard.getConsultant();
+        for(ConsultantTime time : timeCard.subscribe(this)) {
+            engine.accept(consultant, time);
+        }
+    }
+    /**
+     * Stops following a time card. Time already added stays on the invoices.
+     * @param timeCard to stop tracking.
+     */
+    public void untrack(final TimeCard timeCard) {
+        timeCard.removeConsultantTimeListener(this);
+    }
+    /**
+     * Routes consultant time added to a tracked time card into its invoice.
+     * @param timeCard the time was added to.
+     * @param consultantTime that was added.
+     */
+    @Override
+    public synchronized void consultantTimeAdded(final TimeCard timeCard, final ConsultantTime consultantTime) {
+        engine.accept(timeCard.getConsultant(), consultantTime);
+    }
+    /**
+     * Renders a snapshot of the current month's invoice of a client, outside this book's lock.
+     * @param client to preview.
+     * @return the invoice report.
+     * @throws IOException if the business profile cannot be loaded.
+     */
+    public String preview(final ClientAccount client) throws IOException {
+        final YearMonth now = YearMonth.now();
+        return getInvoice(client, now.getMonth(), now.getYear()).toReportString();
+    }
+
+    /**
+     * Copies a live invoice with its line items so far.
+     * @param invoice to copy.
+     * @return the copy.
+     */
+    private static Invoice snapshot(final Invoice invoice) {
+        final Invoice copy = new Invoice(invoice.getClientAccount(), invoice.getInvoiceMonth(),
+                                         invoice.getStartDate().getYear());
+        for(InvoiceLineItem lineItem : invoice.getLineItems()) {
+            copy.addLineItem(lineItem);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,328 @@
+package com.scg.domain;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Builds and renders the invoices for one month in parallel across clients. The time cards are first
+ * split into ranges on a {@link ForkJoinPool} and every billable entry of the month is routed into the
+ * bucket of its clients, so the cards are walked once in total whatever the number of threads; the
+ * ranges' buckets are joined in card order. The client list is then split into ranges that turn their
+ * buckets into invoices and render their reports, joined in client order, so the output is the same as
+ * a sequential run.
+ * @author Adam Spade
+ */
+public final class ParallelInvoiceBuilder
+extends Object
+{
+    // CONSTANTS \\
+    /**
+     * Fewest time cards bucketed by one task.
+     */
+    private static final int MIN_CARD_GRAIN = 64;
+
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the clients to invoice.
+     */
+    private final List<ClientAccount> clients;
+    /**
+     * Initializer for the indexes of the clients with each name.
+     */
+    private final Map<String, int[]> clientsByName = new HashMap<>();
+    /**
+     * Initializer for the time cards to extract line items from.
+     */
+    private final List<TimeCard> timeCards;
+    /**
+     * Initializer for the invoice month.
+     */
+    private final Month invoiceMonth;
+    /**
+     * Initializer for the invoice year.
+     */
+    private final int invoiceYear;
+    /**
+     * Initializer for the epoch day of the first day of the invoice month.
+     */
+    private final long firstDay;
+    /**
+     * Initializer for the epoch day of the last day of the invoice month.
+     */
+    private final long lastDay;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a builder of the invoices of one month.
+     * @param clients to invoice.
+     * @param timeCards to extract line items from.
+     * @param invoiceMonth month of the invoices.
+     * @param invoiceYear year of the invoices.
+     */
+    public ParallelInvoiceBuilder(final List<ClientAccount> clients, final List<TimeCard> timeCards,
+                                  final Month invoiceMonth, final int invoiceYear) {
+        this.clients = new ArrayList<>(clients);
+        this.timeCards = new ArrayList<>(timeCards);
+        this.invoiceMonth = invoiceMonth;
+        this.invoiceYear = invoiceYear;
+        final YearMonth month = YearMonth.of(invoiceYear, invoiceMonth);
+        this.firstDay = month.atDay(1).toEpochDay();
+        this.lastDay = month.atEndOfMonth().toEpochDay();
+        for(int i = 0; i < this.clients.size(); i++) {
+            final String name = this.clients.get(i).getName();
+            final int[] previous = clientsByName.get(name);
+            final int[] indexes = (previous == null) ? new int[1] : Arrays.copyOf(previous, previous.length + 1);
+            indexes[indexes.length - 1] = i;
+            clientsByName.put(name, indexes);
+        }
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Builds the invoices on the common fork/join pool.
+     * @return one invoice per client, in client order.
+     */
+    public List<Invoice> build() {
+        return build(ForkJoinPool.commonPool());
+    }
+    /**
+     * Builds the invoices on the given fork/join pool.
+     * @param pool to build the invoices on.
+     * @return one invoice per client, in client order.
+     */
+    public List<Invoice> build(final ForkJoinPool pool) {
+        final Buckets buckets = pool.invoke(new BucketLineItems(0, timeCards.size(), cardGrain(pool)));
+        return pool.invoke(new BuildInvoices(buckets, 0, clients.size(), clientGrain(pool)));
+    }
+    /**
+     * Builds and renders the invoice reports on the common fork/join pool.
+     * @return one invoice report per client, in client order.
+     * @throws IOException if an invoice cannot be rendered.
+     */
+    public List<String> render() throws IOException {
+        return render(ForkJoinPool.commonPool());
+    }
+    /**
+     * Builds and renders the invoice reports on the given fork/join pool.
+     * @param pool to build and render the invoices on.
+     * @return one invoice report per client, in client order.
+     * @throws IOException if an invoice cannot be rendered.
+     */
+    public List<String> render(final ForkJoinPool pool) throws IOException {
+        final Buckets buckets = pool.invoke(new BucketLineItems(0, timeCards.size(), cardGrain(pool)));
+        try {
+            return pool.invoke(new RenderInvoices(buckets, 0, clients.size(), clientGrain(pool)));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Number of clients handled by one task, giving each worker several tasks to balance the load.
+     * @param pool the tasks run on.
+     * @return clients per task.
+     */
+    private int clientGrain(final ForkJoinPool pool) {
+        return Math.max(1, clients.size() / (pool.getParallelism() * 4));
+    }
+    /**
+     * Number of time cards bucketed by one task, giving each worker several tasks to balance the load.
+     * @param pool the tasks run on.
+     * @return time cards per task.
+     */
+    private int cardGrain(final ForkJoinPool pool) {
+        return Math.max(MIN_CARD_GRAIN, timeCards.size() / (pool.getParallelism() * 4));
+    }
+    /**
+     * Routes the billable entries of the invoice month on a range of time cards into client buckets.
+     * @param from first time card index, inclusive.
+     * @param to last time card index, exclusive.
+     * @return the buckets of the range.
+     */
+    private Buckets bucket(final int from, final int to) {
+        final Buckets buckets = new Buckets(clients.size());
+        for(TimeCard timeCard : timeCards.subList(from, to)) {
+            final Consultant consultant = timeCard.getConsultant();
+            for(ConsultantTime time : timeCard.getConsultingHours()) {
+                final long day = time.getDate().toEpochDay();
+                if(day < firstDay || day > lastDay || !time.isBillable()) {
+                    continue;
+                }
+                final int[] indexes = clientsByName.get(time.getAccount().getName());
+                if(indexes == null) {
+                    continue;
+                }
+                final InvoiceLineItem lineItem = new InvoiceLineItem(time.getDate(), consultant,
+                                                                     time.getSkillType(), time.getHours());
+                for(int index : indexes) {
+                    buckets.add(index, lineItem);
+                }
+            }
+        }
+        return buckets;
+    }
+    /**
+     * Builds the invoices of a range of clients from their buckets.
+     * @param buckets of every client.
+     * @param from first client index, inclusive.
+     * @param to last client index, exclusive.
+     * @return the invoices of the range, in client order.
+     */
+    private List<Invoice> invoices(final Buckets buckets, final int from, final int to) {
+        final List<Invoice> invoices = new ArrayList<>(to - from);
+        for(int i = from; i < to; i++) {
+            final Invoice invoice = new Invoice(clients.get(i), invoiceMonth, invoiceYear);
+            for(InvoiceLineItem lineItem : buckets.get(i)) {
+                invoice.addLineItem(lineItem);
+            }
+            invoices.add(invoice);
+        }
+        return invoices;
+    }
+
+    // INNER CLASS \\
+    /**
+     * Line items of each client, created only for the clients that have any.
+     */
+    private static final class Buckets {
+        private final List<List<InvoiceLineItem>> lineItems;
+
+        Buckets(final int clientCount) {
+            lineItems = new ArrayList<>(Collections.<List<InvoiceLineItem>>nCopies(clientCount, null));
+        }
+        void add(final int index, final InvoiceLineItem lineItem) {
+            List<InvoiceLineItem> bucket = lineItems.get(index);
+            if(bucket == null) {
+                bucket = new ArrayList<>();
+                lineItems.set(index, bucket);
+            }
+            bucket.add(lineItem);
+        }
+        List<InvoiceLineItem> get(final int index) {
+            final List<InvoiceLineItem> bucket = lineItems.get(index);
+            return (bucket == null) ? Collections.<InvoiceLineItem>emptyList() : bucket;
+        }
+        /**
+         * Appends the buckets of the following range of time cards.
+         */
+        Buckets append(final Buckets later) {
+            for(int i = 0; i < lineItems.size(); i++) {
+                final List<InvoiceLineItem> bucket = later.lineItems.get(i);
+                if(bucket == null) {
+                    continue;
+                }
+                if(lineItems.get(i) == null) {
+                    lineItems.set(i, bucket);
+                } else {
+                    lineItems.get(i).addAll(bucket);
+                }
+            }
+            return this;
+        }
+    }
+    /**
+     * Task that buckets the line items of a range of time cards, splitting the range until it is no
+     * larger than the grain.
+     */
+    private final class BucketLineItems extends RecursiveTask<Buckets> {
+        private static final long serialVersionUID = 6034862811279356734L;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        BucketLineItems(final int from, final int to, final int grain) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+        @Override
+        protected Buckets compute() {
+            if(to - from <= grain) {
+                return bucket(from, to);
+            }
+            final int middle = (from + to) >>> 1;
+            final BucketLineItems right = new BucketLineItems(middle, to, grain);
+            right.fork();
+            final Buckets buckets = new BucketLineItems(from, middle, grain).compute();
+            return buckets.append(right.join());
+        }
+    }
+    /**
+     * Task that builds the invoices of a range of clients, splitting the range until it is no larger
+     * than the grain.
+     */
+    private final class BuildInvoices extends RecursiveTask<List<Invoice>> {
+        private static final long serialVersionUID = -4153373519632471089L;
+        private final Buckets buckets;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        BuildInvoices(final Buckets buckets, final int from, final int to, final int grain) {
+            this.buckets = buckets;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+        @Override
+        protected List<Invoice> compute() {
+            if(to - from <= grain) {
+                return invoices(buckets, from, to);
+            }
+            final int middle = (from + to) >>> 1;
+            final BuildInvoices right = new BuildInvoices(buckets, middle, to, grain);
+            right.fork();
+            final List<Invoice> invoices = new BuildInvoices(buckets, from, middle, grain).compute();
+            invoices.addAll(right.join());
+            return invoices;
+        }
+    }
+    /**
+     * Task that builds and renders the invoices of a range of clients, splitting the range until it is
+     * no larger than the grain.
+     */
+    private final class RenderInvoices extends RecursiveTask<List<String>> {
+        private static final long serialVersionUID = 3360862296532081455L;
+        private final Buckets buckets;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        RenderInvoices(final Buckets buckets, final int from, final int to, final int grain) {
+            this.buckets = buckets;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+        @Override
+        protected List<String> compute() {
+            if(to - from <= grain) {
+                final List<String> reports = new ArrayList<>(to - from);
+                try {
+                    for(Invoice invoice : invoices(buckets, from, to)) {
+                        reports.add(invoice.toReportString());
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                return reports;
+            }
+            final int middle = (from + to) >>> 1;
+            final RenderInvoices right = new RenderInvoices(buckets, middle, to, grain);
+            right.fork();
+            final List<String> reports = new RenderInvoices(buckets, from, middle, grain).compute();
+            reports.addAll(right.join());
+            return reports;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.scg.domain;
 
+import com.scg.util.Money;
+
 /**
  * Enum class for billable skills with name and rate.
  * @author Adam Spade
@@ -33,6 +35,10 @@ public enum Skill
      * Rate initializer.
      */
     private int rate;
+    /**
+     * Rate in cents initializer.
+     */
+    private final long rateCents;
     /**
      * Skill name initializer.
      */
@@ -46,6 +52,7 @@ public enum Skill
     private Skill(String name, final int rate) {
         this.name = name;
         this.rate = rate;
+        this.rateCents = Money.ofUnits(rate);
     }   
 
     // GETTERS & SETTERS \\
@@ -56,6 +63,13 @@ public enum Skill
     public int getRate() {
         return this.rate;
     }
+    /**
+     * Getter for skilltype rate in cents.
+     * @return hourly rate in cents.
+     */
+    public long getRateCents() {
+        return this.rateCents;
+    }
     
     // ADDITIONAL METHODS \\
     /**
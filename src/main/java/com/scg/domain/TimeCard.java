@@ -1,12 +1,20 @@
 package com.scg.domain;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.Formatter;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.scg.util.FixedWidthLayout;
 
 /**
  * Class TimeCard creates and outputs a completed timecard for each consultant. This includes all
@@ -31,7 +39,7 @@ implements Comparable<TimeCard>, Serializable
     /**
      * Header formatter of each time card with consultant name and day of week.
      */
-    private static final String HEADER = "Consultant: %-27s Week Starting: %2$tb %2$td, %2$tY%n%n";
+    private static final FixedWidthLayout HEADER = FixedWidthLayout.compile("Consultant: %-27s Week Starting: %2$tb %2$td, %2$tY%n%n");
     /**
      * Column formatter for column names account, date, hours, and skill
      */
@@ -53,15 +61,15 @@ implements Comparable<TimeCard>, Serializable
     /**
      * Total billable hours formatter.
      */
-    private static final String TOTAL_BILLABLE = "Total Billable:%32s%n";
+    private static final FixedWidthLayout TOTAL_BILLABLE = FixedWidthLayout.compile("Total Billable:%32s%n");
     /**
      * Total non-billable hours formatter.
      */
-    private static final String TOTAL_NON_BILLABLE = "Total Non-Billable:%28s%n";
+    private static final FixedWidthLayout TOTAL_NON_BILLABLE = FixedWidthLayout.compile("Total Non-Billable:%28s%n");
     /**
      * Total of all hours formatter.
      */
-    private static final String TOTAL_HOURS = "Total Hours:%35s%n";
+    private static final FixedWidthLayout TOTAL_HOURS = FixedWidthLayout.compile("Total Hours:%35s%n");
     /**
      * Space formatter for adding blank rows as separators.
      */
@@ -69,9 +77,14 @@ implements Comparable<TimeCard>, Serializable
     
     // MEMBER VARIABLES \\
     /**
-     * ArrayList initializer for billable hours for client.
+     * Billable hours grouped by client account name, built on first use for time cards read from the
+     * default serialized form. Guarded by this time card's lock.
+     */
+    private transient Map<String, ClientHours> billableHoursForClient;
+    /**
+     * Read-only view of the consulting hours, created on first use.
      */
-    private List<ConsultantTime> billableHoursForClient = new ArrayList<>();
+    private transient List<ConsultantTime> consultingHoursView;
     /**
      * ArrayList initializer for consulting hours.
      */
@@ -96,6 +109,10 @@ implements Comparable<TimeCard>, Serializable
      * Day of week initializer.
      */
     private LocalDate weekStartingDay;
+    /**
+     * Listeners notified when consultant time is added, created with the first listener.
+     */
+    private transient List<ConsultantTimeListener> listeners;
 //  private static Comparator<TimeCard> timeCardComparator = Comparator
 //  .comparing(TimeCard::getWeekStartingDay)
 //  .thenComparing(TimeCard::getConsultant)
@@ -114,22 +131,99 @@ implements Comparable<TimeCard>, Serializable
         this.totalBillableHours = 0;
         this.totalNonBillableHours = 0;
         this.consultingHours = new ArrayList<>();
+        this.billableHoursForClient = new HashMap<>();
+    }
+    
+    // INNER CLASS \\
+    /**
+     * Serialized form of a time card. The entries are packed into an int array of day offset, account
+     * index, skill ordinal and hours, each account is written once per card, and the accounts and
+     * consultant are resolved to the canonical instances when the card is read.
+     */
+    private static final class SerializationProxy implements Serializable {
+        /**
+         * Serial Version UID.
+         */
+        private static final long serialVersionUID = 2783059468579767194L;
+        /**
+         * Number of packed ints per entry.
+         */
+        private static final int FIELDS = 4;
+        private final Consultant consultant;
+        private final long weekStartingDay;
+        private final Account[] accounts;
+        private final int[] entries;
+
+        SerializationProxy(final TimeCard timeCard) {
+            consultant = timeCard.getConsultant();
+            weekStartingDay = timeCard.getWeekStartingDay().toEpochDay();
+            final List<ConsultantTime> hours = timeCard.getConsultingHours();
+            final List<Account> accountTable = new ArrayList<>();
+            entries = new int[hours.size() * FIELDS];
+            int i = 0;
+            for(ConsultantTime time : hours) {
+                final Account account = time.getAccount();
+                int index = accountTable.indexOf(account);
+                if(index < 0) {
+                    index = accountTable.size();
+                    accountTable.add(account);
+                }
+                entries[i++] = Math.toIntExact(time.getDate().toEpochDay() - weekStartingDay);
+                entries[i++] = index;
+                entries[i++] = time.getSkillType().ordinal();
+                entries[i++] = time.getHours();
+            }
+            accounts = accountTable.toArray(new Account[accountTable.size()]);
+        }
+        private Object readResolve() {
+            final Skill[] skills = Skill.values();
+            final TimeCard timeCard = new TimeCard(CanonicalInstances.of(consultant),
+                                                   LocalDate.ofEpochDay(weekStartingDay));
+            for(int i = 0; i < entries.length; i += FIELDS) {
+                timeCard.addConsultantTime(new ConsultantTime(
+                        LocalDate.ofEpochDay(weekStartingDay + entries[i]),
+                        CanonicalInstances.of(accounts[entries[i + 1]]),
+                        skills[entries[i + 2]],
+                        entries[i + 3]));
+            }
+            return timeCard;
+        }
+    }
+    /**
+     * Billable hours of one client on the time card, with their read-only view and total.
+     */
+    private static final class ClientHours {
+        private final List<ConsultantTime> entries = new ArrayList<>();
+        private final List<ConsultantTime> view = Collections.unmodifiableList(entries);
+        private int total;
     }
     
     // GETTERS & SETTERS \\
     /**
-     * Getter for billable hours for client.
+     * Getter for billable hours for client. The hours are grouped by client as they are added, so the
+     * lookup neither scans the time card nor allocates.
      * @param clientName name of client.
-     * @return billableHoursForClient list.
-     */
-    public List<ConsultantTime> getBillableHoursForClient(String clientName) {
-        return consultingHours
-                            .stream()
-//                              .filter(x->x.isBillable()) alternative to line directly below
-                            .filter(ConsultantTime::isBillable)
-                            .filter(hrs -> clientName.equals(hrs.getAccount().getName()))
-                            .collect(Collectors.toList());
-
+     * @return read-only view of the billable hours for the client, in the order they were added.
+     */
+    public synchronized List<ConsultantTime> getBillableHoursForClient(String clientName) {
+        final ClientHours hours = billableHoursForClient().get(clientName);
+        return (hours == null) ? Collections.<ConsultantTime>emptyList() : hours.view;
+    }
+    /**
+     * Getter for total billable hours for client.
+     * @param clientName name of client.
+     * @return sum of the billable hours for the client.
+     */
+    public synchronized int getTotalBillableHoursForClient(final String clientName) {
+        final ClientHours hours = billableHoursForClient().get(clientName);
+        return (hours == null) ? 0 : hours.total;
+    }
+    /**
+     * Getter for the names of the clients billed on the time card.
+     * @return read-only view of the client account names.
+     */
+    public synchronized Set<String> getBillableClientNames() {
+        return Collections.unmodifiableSet(billableHoursForClient().keySet());
     }
 
     /**
@@ -140,11 +234,15 @@ implements Comparable<TimeCard>, Serializable
         return this.consultant;
     }
     /**
-     * Getter for consulting hours.
-     * @return consultingHours list.
+     * Getter for consulting hours. Time is added through {@link #addConsultantTime(ConsultantTime)}, which
+     * keeps the totals and client groups up to date.
+     * @return read-only view of the consultingHours list.
      */
     public List<ConsultantTime> getConsultingHours() {
-        return this.consultingHours;
+        if(consultingHoursView == null) {
+            consultingHoursView = Collections.unmodifiableList(consultingHours);
+        }
+        return consultingHoursView;
     }
     /**
      * Getter for total billable hours.
@@ -177,17 +275,61 @@ implements Comparable<TimeCard>, Serializable
         
     // ADDITIONAL METHODS \\
     /**
-     * Method to add consulting time object either of two lists: billable and non-billable.
+     * Method to add consulting time object either of two lists: billable and non-billable. The time can
+     * no longer be changed once it is added, so the totals and client groups stay correct. The listeners
+     * registered when the time is added are notified after the time card's lock is released.
      * @param consultantTime time to be added to billabe and non-billabe lists.
      */
     public void addConsultantTime(ConsultantTime consultantTime) {
-        consultingHours.add(consultantTime);
-        final int addHours = consultantTime.getHours();
-        if(consultantTime.isBillable()) {
-            totalBillableHours += addHours;
+        final Iterator<ConsultantTimeListener> notify;
+        synchronized(this) {
+            consultantTime.markAdded();
+            consultingHours.add(consultantTime);
+            final int addHours = consultantTime.getHours();
+            if(consultantTime.isBillable()) {
+                totalBillableHours += addHours;
+                addBillableHours(billableHoursForClient(), consultantTime);
+            }
+            else if(!consultantTime.isBillable()) {
+                totalNonBillableHours += addHours;
+            }
+            notify = (listeners == null) ? null : listeners.iterator();
+        }
+        if(notify != null) {
+            while(notify.hasNext()) {
+                notify.next().consultantTimeAdded(this, consultantTime);
+            }
+        }
+    }
+    /**
+     * Registers a listener to be notified each time consultant time is added to this time card.
+     * Listeners are not serialized.
+     * @param listener to register.
+     */
+    public synchronized void addConsultantTimeListener(final ConsultantTimeListener listener) {
+        if(listeners == null) {
+            listeners = new CopyOnWriteArrayList<>();
         }
-        else if(!consultantTime.isBillable()) {
-            totalNonBillableHours += addHours;
+        listeners.add(listener);
+    }
+    /**
+     * Registers a listener and copies the consultant time already on this time card, both under the
+     * time card's lock. Every consultant time is then either in the copy or notified to the listener,
+     * never both and never neither, however time is being added concurrently.
+     * @param listener to register.
+     * @return copy of the consultant time added before the listener was registered.
+     */
+    public synchronized List<ConsultantTime> subscribe(final ConsultantTimeListener listener) {
+        addConsultantTimeListener(listener);
+        return new ArrayList<>(consultingHours);
+    }
+    /**
+     * Removes a registered listener.
+     * @param listener to remove.
+     */
+    public synchronized void removeConsultantTimeListener(final ConsultantTimeListener listener) {
+        if(listeners != null) {
+            listeners.remove(listener);
         }
     }
     /**
@@ -195,54 +337,50 @@ implements Comparable<TimeCard>, Serializable
      * @return string with consultant name and starting day of work week.
      */
     public String toString() {
-        Formatter formatted = new Formatter();
-        formatted.format(HEADER, getConsultant(), getWeekStartingDay());
-        String report = formatted.toString();
-        formatted.close();
-        return report;
+        return HEADER.format(getConsultant(), getWeekStartingDay());
     }
     /**
      * Creates the entire string for output to the time card.
      * @return full time card as string.
      */
     public String toReportString() {  
-        StringBuilder billYes = new StringBuilder();
-        StringBuilder billNo = new StringBuilder();
-
+        final StringBuilder timecard = new StringBuilder();
+        try {
+            writeReport(timecard);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return timecard.toString();
+    }
+    /**
+     * Writes the time card report straight to a destination, one consultant time line at a time.
+     * @param out destination of the report.
+     * @throws IOException if the destination cannot be written.
+     */
+    public void writeReport(final Appendable out) throws IOException {
+        out.append(DIVIDER);
+        HEADER.appendTo(out, getConsultant(), getWeekStartingDay());
+        out.append(BILLABLE_TIME)
+        .append(COLUMN_NAMES);
         for(ConsultantTime getBill : consultingHours) {
-            if(getBill.getAccount().isBillable()){
-                billYes.append(getBill.toString());
+            if(getBill.getAccount().isBillable()) {
+                getBill.appendTo(out);
             }
         }
+        out.append(SPACE)
+        .append(NON_BILLABLE_TIME)
+        .append(COLUMN_NAMES);
         for(ConsultantTime getBill : consultingHours) {
-            if(!getBill.getAccount().isBillable()){
-                billNo.append(getBill.toString());
+            if(!getBill.getAccount().isBillable()) {
+                getBill.appendTo(out);
             }
-        } 
-        Formatter tb = new Formatter();
-        tb.format(TOTAL_BILLABLE, getTotalBillableHours());
-        Formatter nb = new Formatter();
-        nb.format(TOTAL_NON_BILLABLE, getTotalNonBillableHours());
-        Formatter th = new Formatter();
-        th.format(TOTAL_HOURS, getTotalHours());
-        
-        StringBuilder timecard = new StringBuilder();
-        timecard.append(DIVIDER)
-        .append(toString())
-        .append(BILLABLE_TIME)
-        .append(COLUMN_NAMES)
-        .append(billYes)
-        .append(SPACE)
-        .append(NON_BILLABLE_TIME)
-        .append(COLUMN_NAMES)
-        .append(billNo)
-        .append(SPACE)
-        .append(SUMMARY)
-        .append(tb)
-        .append(nb)
-        .append(th)
-        .append(DIVIDER);
-        return timecard.toString();
+        }
+        out.append(SPACE)
+        .append(SUMMARY);
+        TOTAL_BILLABLE.appendTo(out, getTotalBillableHours());
+        TOTAL_NON_BILLABLE.appendTo(out, getTotalNonBillableHours());
+        TOTAL_HOURS.appendTo(out, getTotalHours());
+        out.append(DIVIDER);
     }
 
     /**
@@ -265,4 +403,41 @@ implements Comparable<TimeCard>, Serializable
 //        if(this == other) return 0;
 //        return timeCardComparator.compare(this, other);
     }
+
+    /**
+     * Getter for the billable hours grouped by client, grouping them now if this time card was read from
+     * the default serialized form.
+     * @return billable hours by client account name.
+     */
+    private synchronized Map<String, ClientHours> billableHoursForClient() {
+        if(billableHoursForClient == null) {
+            final Map<String, ClientHours> grouped = new HashMap<>();
+            for(ConsultantTime time : consultingHours) {
+                time.markAdded();
+                if(time.isBillable()) {
+                    addBillableHours(grouped, time);
+                }
+            }
+            billableHoursForClient = grouped;
+        }
+        return billableHoursForClient;
+    }
+    /**
+     * Adds billable time to the group of its client.
+     * @param grouped billable hours by client account name.
+     * @param time billable time to add.
+     */
+    private static void addBillableHours(final Map<String, ClientHours> grouped, final ConsultantTime time) {
+        final ClientHours hours = grouped.computeIfAbsent(time.getAccount().getName(), n -> new ClientHours());
+        hours.entries.add(time);
+        hours.total += time.getHours();
+    }
+    /**
+     * Replaces this time card with its serialization proxy. Streams written before the proxy was
+     * introduced still deserialize through the default form.
+     * @return the serialization proxy.
+     */
+    private Object writeReplace() {
+        return new SerializationProxy(this);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,324 @@
+package com.scg.io;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.scg.domain.Account;
+import com.scg.domain.ClientAccount;
+import com.scg.domain.CompactTimeCard;
+import com.scg.domain.Consultant;
+import com.scg.domain.ConsultantTime;
+import com.scg.domain.NonBillableAccount;
+import com.scg.domain.Skill;
+import com.scg.domain.TimeCard;
+import com.scg.util.Address;
+import com.scg.util.PersonalName;
+import com.scg.util.StateCode;
+
+/**
+ * Decoder that reads the domain objects written by a {@link BinaryEncoder}. Client accounts and
+ * consultants written by reference resolve to the same instance, so a decoded list holds one object
+ * per client and consultant. The decoder is created for the schema version read from the file header
+ * and dispatches on it where the versions differ: version 1 wrote enum constants as ordinals, later
+ * versions write them by name.
+ * @author Adam Spade
+ */
+public final class BinaryDecoder
+extends Object
+{
+    // CONSTANTS \\
+    /**
+     * Cached non-billable account values.
+     */
+    private static final NonBillableAccount[] NON_BILLABLE_ACCOUNTS = NonBillableAccount.values();
+    /**
+     * Cached skill values.
+     */
+    private static final Skill[] SKILLS = Skill.values();
+    /**
+     * Cached state code values.
+     */
+    private static final StateCode[] STATES = StateCode.values();
+
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the source of the encoded bytes.
+     */
+    private final DataInput in;
+    /**
+     * Initializer for the schema version being read.
+     */
+    private final int version;
+    /**
+     * Initializer for the string table.
+     */
+    private final List<String> strings = new ArrayList<>();
+    /**
+     * Initializer for the client account table.
+     */
+    private final List<ClientAccount> clients = new ArrayList<>();
+    /**
+     * Initializer for the consultant table.
+     */
+    private final List<Consultant> consultants = new ArrayList<>();
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a decoder of the current schema version with empty tables.
+     * @param in source of the encoded bytes.
+     */
+    public BinaryDecoder(final DataInput in) {
+        this(in, BinaryFormat.VERSION);
+    }
+    /**
+     * Constructor for a decoder of the given schema version with empty tables.
+     * @param in source of the encoded bytes.
+     * @param version of the schema the bytes were written with.
+     * @throws IllegalArgumentException if the version is not supported.
+     */
+    public BinaryDecoder(final DataInput in, final int version) {
+        if(version < BinaryFormat.MIN_VERSION || version > BinaryFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported format version: " + version);
+        }
+        this.in = in;
+        this.version = version;
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Reads an unsigned variable length integer.
+     * @return the value read.
+     * @throws IOException if the read fails or the value is malformed.
+     */
+    public int readVarInt() throws IOException {
+        int value = 0;
+        for(int shift = 0; shift < 35; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Malformed variable length integer");
+    }
+    /**
+     * Reads the number of items that follow.
+     * @return the count read.
+     * @throws IOException if the read fails or the count is negative.
+     */
+    public int readCount() throws IOException {
+        final int count = readVarInt();
+        if(count < 0) {
+            throw new StreamCorruptedException("Negative count: " + count);
+        }
+        return count;
+    }
+    /**
+     * Reads a signed zig-zag encoded variable length integer.
+     * @return the value read.
+     * @throws IOException if the read fails or the value is malformed.
+     */
+    public int readSignedVarInt() throws IOException {
+        final int raw = readVarInt();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+    /**
+     * Reads a string through the string table.
+     * @return the string read, may be null.
+     * @throws IOException if the read fails or the reference is unknown.
+     */
+    public String readString() throws IOException {
+        final int ref = readVarInt();
+        if(ref == BinaryEncoder.NULL_REF) {
+            return null;
+        }
+        if(ref == BinaryEncoder.NEW_REF) {
+            final String value = in.readUTF();
+            strings.add(value);
+            return value;
+        }
+        return lookup(strings, ref);
+    }
+    /**
+     * Reads an enum constant written by name.
+     * @param type of the enum.
+     * @return the enum constant, may be null.
+     * @throws IOException if the read fails or the name is not a constant of the enum.
+     */
+    public <E extends Enum<E>> E readEnum(final Class<E> type) throws IOException {
+        final String name = readString();
+        if(name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException ex) {
+            throw new StreamCorruptedException("Unknown " + type.getSimpleName() + ": " + name);
+        }
+    }
+    /**
+     * Reads a personal name.
+     * @return the personal name read.
+     * @throws IOException if the read fails.
+     */
+    public PersonalName readPersonalName() throws IOException {
+        final String last = readString();
+        final String first = readString();
+        final String middle = readString();
+        return new PersonalName(last, first, middle);
+    }
+    /**
+     * Reads an address.
+     * @return the address read.
+     * @throws IOException if the read fails.
+     */
+    public Address readAddress() throws IOException {
+        final String street = readString();
+        final String city = readString();
+        final StateCode state;
+        if(version == 1) {
+            final int ordinal = readVarInt();
+            state = (ordinal == 0) ? null : lookup(STATES, ordinal - 1);
+        }
+        else {
+            state = readEnum(StateCode.class);
+        }
+        final String postalCode = readString();
+        return new Address(street, city, state, postalCode);
+    }
+    /**
+     * Reads a client account through the client account table.
+     * @return the client account read, may be null.
+     * @throws IOException if the read fails or the reference is unknown.
+     */
+    public ClientAccount readClientAccount() throws IOException {
+        final int ref = readVarInt();
+        if(ref == BinaryEncoder.NULL_REF) {
+            return null;
+        }
+        if(ref == BinaryEncoder.NEW_REF) {
+            final String name = readString();
+            final PersonalName contact = readPersonalName();
+            final Address address = readAddress();
+            final ClientAccount client = new ClientAccount(name, contact, address);
+            clients.add(client);
+            return client;
+        }
+        return lookup(clients, ref);
+    }
+    /**
+     * Reads either a non-billable account or a client account.
+     * @return the account read.
+     * @throws IOException if the read fails or the account tag is unknown.
+     */
+    public Account readAccount() throws IOException {
+        final int tag = readVarInt();
+        switch(tag) {
+            case BinaryEncoder.NON_BILLABLE_ACCOUNT:
+                return (version == 1) ? lookup(NON_BILLABLE_ACCOUNTS, readVarInt())
+                                      : readEnum(NonBillableAccount.class);
+            case BinaryEncoder.CLIENT_ACCOUNT:
+                return readClientAccount();
+            default:
+                throw new StreamCorruptedException("Unknown account tag: " + tag);
+        }
+    }
+    /**
+     * Reads a consultant through the consultant table.
+     * @return the consultant read.
+     * @throws IOException if the read fails or the reference is unknown.
+     */
+    public Consultant readConsultant() throws IOException {
+        final int ref = readVarInt();
+        if(ref == BinaryEncoder.NEW_REF) {
+            final Consultant consultant = new Consultant(readPersonalName());
+            consultants.add(consultant);
+            return consultant;
+        }
+        return lookup(consultants, ref);
+    }
+    /**
+     * Reads one consultant time entry whose date was written relative to the given epoch day.
+     * @param baseEpochDay epoch day the entry date was written relative to.
+     * @return the consultant time read.
+     * @throws IOException if the read fails.
+     */
+    public ConsultantTime readConsultantTime(final long baseEpochDay) throws IOException {
+        final LocalDate date = LocalDate.ofEpochDay(baseEpochDay + readSignedVarInt());
+        final Account account = readAccount();
+        final Skill skill = (version == 1) ? lookup(SKILLS, readVarInt()) : readEnum(Skill.class);
+        final int hours = readVarInt();
+        try {
+            return new ConsultantTime(date, account, skill, hours);
+        } catch (IllegalArgumentException ex) {
+            throw new StreamCorruptedException("Invalid consultant time: " + ex.getMessage());
+        }
+    }
+    /**
+     * Reads a time card and all of its consultant time entries.
+     * @return the time card read.
+     * @throws IOException if the read fails.
+     */
+    public TimeCard readTimeCard() throws IOException {
+        final Consultant consultant = readConsultant();
+        final long weekStart = readSignedVarInt();
+        final TimeCard timeCard = new TimeCard(consultant, LocalDate.ofEpochDay(weekStart));
+        final int count = readCount();
+        for(int i = 0; i < count; i++) {
+            timeCard.addConsultantTime(readConsultantTime(weekStart));
+        }
+        return timeCard;
+    }
+    /**
+     * Reads a time card written by {@link BinaryEncoder#writeTimeCard} into a compact time card, whose
+     * entries are packed as they are read.
+     * @return the compact time card read.
+     * @throws IOException if the read fails or an entry is too far from the week starting day to pack.
+     */
+    public CompactTimeCard readCompactTimeCard() throws IOException {
+        final Consultant consultant = readConsultant();
+        final long weekStart = readSignedVarInt();
+        final CompactTimeCard timeCard = new CompactTimeCard(consultant, LocalDate.ofEpochDay(weekStart));
+        final int count = readCount();
+        for(int i = 0; i < count; i++) {
+            try {
+                timeCard.addConsultantTime(readConsultantTime(weekStart));
+            } catch (IllegalArgumentException ex) {
+                throw new StreamCorruptedException("Invalid consultant time: " + ex.getMessage());
+            }
+        }
+        return timeCard;
+    }
+
+    /**
+     * Resolves a table reference.
+     * @param table to look the reference up in.
+     * @param ref reference read from the stream.
+     * @return the table entry.
+     * @throws StreamCorruptedException if the reference is not in the table.
+     */
+    private static <T> T lookup(final List<T> table, final int ref) throws StreamCorruptedException {
+        final int index = ref - BinaryEncoder.FIRST_REF;
+        if(index < 0 || index >= table.size()) {
+            throw new StreamCorruptedException("Unknown table reference: " + ref);
+        }
+        return table.get(index);
+    }
+    /**
+     * Resolves an enum ordinal.
+     * @param values of the enum.
+     * @param ordinal read from the stream.
+     * @return the enum constant.
+     * @throws StreamCorruptedException if the ordinal is out of range.
+     */
+    private static <T> T lookup(final T[] values, final int ordinal) throws StreamCorruptedException {
+        if(ordinal < 0 || ordinal >= values.length) {
+            throw new StreamCorruptedException("Unknown ordinal: " + ordinal);
+        }
+        return values[ordinal];
+    }
+}
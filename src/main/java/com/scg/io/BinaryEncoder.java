@@ -0,0 +1,233 @@
+package com.scg.io;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.scg.domain.Account;
+import com.scg.domain.ClientAccount;
+import com.scg.domain.Consultant;
+import com.scg.domain.ConsultantTime;
+import com.scg.domain.NonBillableAccount;
+import com.scg.domain.TimeCard;
+import com.scg.util.Address;
+import com.scg.util.PersonalName;
+
+/**
+ * Encoder that writes the domain objects in the compact binary format. Strings, client accounts and
+ * consultants are written in full the first time they are seen and by table index afterwards, dates
+ * are written as epoch days, enum constants are written by name through the string table and all
+ * counts and hours are written as variable length integers. The encoder always writes the current
+ * {@link BinaryFormat#VERSION} of the schema.
+ * @author Adam Spade
+ */
+public final class BinaryEncoder
+extends Object
+{
+    // CONSTANTS \\
+    /**
+     * Reference tag for a null value.
+     */
+    static final int NULL_REF = 0;
+    /**
+     * Reference tag for a value written in full.
+     */
+    static final int NEW_REF = 1;
+    /**
+     * Offset added to a table index when a value is written by reference.
+     */
+    static final int FIRST_REF = 2;
+    /**
+     * Account tag for a non-billable account.
+     */
+    static final int NON_BILLABLE_ACCOUNT = 1;
+    /**
+     * Account tag for a client account.
+     */
+    static final int CLIENT_ACCOUNT = 2;
+
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the destination of the encoded bytes.
+     */
+    private final DataOutput out;
+    /**
+     * Initializer for the string table.
+     */
+    private final Map<String, Integer> strings = new HashMap<>();
+    /**
+     * Initializer for the client account table.
+     */
+    private final Map<List<Object>, Integer> clients = new HashMap<>();
+    /**
+     * Initializer for the consultant table.
+     */
+    private final Map<PersonalName, Integer> consultants = new HashMap<>();
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for an encoder with empty tables.
+     * @param out destination of the encoded bytes.
+     */
+    public BinaryEncoder(final DataOutput out) {
+        this.out = out;
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Writes an unsigned variable length integer, seven bits per byte.
+     * @param value to write, treated as unsigned.
+     * @throws IOException if the write fails.
+     */
+    public void writeVarInt(final int value) throws IOException {
+        int remaining = value;
+        while((remaining & ~0x7F) != 0) {
+            out.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte(remaining);
+    }
+    /**
+     * Writes a signed variable length integer using zig-zag encoding.
+     * @param value to write.
+     * @throws IOException if the write fails.
+     */
+    public void writeSignedVarInt(final int value) throws IOException {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+    /**
+     * Writes a string through the string table.
+     * @param value string to write, may be null.
+     * @throws IOException if the write fails.
+     */
+    public void writeString(final String value) throws IOException {
+        if(value == null) {
+            writeVarInt(NULL_REF);
+            return;
+        }
+        final Integer index = strings.get(value);
+        if(index != null) {
+            writeVarInt(index + FIRST_REF);
+            return;
+        }
+        strings.put(value, strings.size());
+        writeVarInt(NEW_REF);
+        out.writeUTF(value);
+    }
+    /**
+     * Writes an enum constant by name through the string table, so constants may be added or reordered
+     * without breaking existing files.
+     * @param value enum constant to write, may be null.
+     * @throws IOException if the write fails.
+     */
+    public void writeEnum(final Enum<?> value) throws IOException {
+        writeString(value == null ? null : value.name());
+    }
+    /**
+     * Writes a personal name as last, first and middle name.
+     * @param name to write.
+     * @throws IOException if the write fails.
+     */
+    public void writePersonalName(final PersonalName name) throws IOException {
+        writeString(name.getLastName());
+        writeString(name.getFirstName());
+        writeString(name.getMiddleName());
+    }
+    /**
+     * Writes an address as street, city, state and postal code.
+     * @param address to write.
+     * @throws IOException if the write fails.
+     */
+    public void writeAddress(final Address address) throws IOException {
+        writeString(address.getStreetNumber());
+        writeString(address.getCity());
+        writeEnum(address.getState());
+        writeString(address.getPostalCode());
+    }
+    /**
+     * Writes a client account through the client account table.
+     * @param client account to write, may be null.
+     * @throws IOException if the write fails.
+     */
+    public void writeClientAccount(final ClientAccount client) throws IOException {
+        if(client == null) {
+            writeVarInt(NULL_REF);
+            return;
+        }
+        final List<Object> key = Arrays.asList(client.getName(), client.getContact(), client.getAddress());
+        final Integer index = clients.get(key);
+        if(index != null) {
+            writeVarInt(index + FIRST_REF);
+            return;
+        }
+        clients.put(key, clients.size());
+        writeVarInt(NEW_REF);
+        writeString(client.getName());
+        writePersonalName(client.getContact());
+        writeAddress(client.getAddress());
+    }
+    /**
+     * Writes either a non-billable account or a client account.
+     * @param account to write.
+     * @throws IOException if the write fails or the account type is unknown.
+     */
+    public void writeAccount(final Account account) throws IOException {
+        if(account instanceof NonBillableAccount) {
+            writeVarInt(NON_BILLABLE_ACCOUNT);
+            writeEnum((NonBillableAccount) account);
+        }
+        else if(account instanceof ClientAccount) {
+            writeVarInt(CLIENT_ACCOUNT);
+            writeClientAccount((ClientAccount) account);
+        }
+        else {
+            throw new IOException("Unsupported account type: " + account);
+        }
+    }
+    /**
+     * Writes a consultant through the consultant table.
+     * @param consultant to write.
+     * @throws IOException if the write fails.
+     */
+    public void writeConsultant(final Consultant consultant) throws IOException {
+        final PersonalName name = consultant.getName();
+        final Integer index = consultants.get(name);
+        if(index != null) {
+            writeVarInt(index + FIRST_REF);
+            return;
+        }
+        consultants.put(name, consultants.size());
+        writeVarInt(NEW_REF);
+        writePersonalName(name);
+    }
+    /**
+     * Writes one consultant time entry with its date relative to the given epoch day.
+     * @param time entry to write.
+     * @param baseEpochDay epoch day the entry date is written relative to.
+     * @throws IOException if the write fails.
+     */
+    public void writeConsultantTime(final ConsultantTime time, final long baseEpochDay) throws IOException {
+        writeSignedVarInt(Math.toIntExact(time.getDate().toEpochDay() - baseEpochDay));
+        writeAccount(time.getAccount());
+        writeEnum(time.getSkillType());
+        writeVarInt(time.getHours());
+    }
+    /**
+     * Writes a time card and all of its consultant time entries.
+     * @param timeCard to write.
+     * @throws IOException if the write fails.
+     */
+    public void writeTimeCard(final TimeCard timeCard) throws IOException {
+        final long weekStart = timeCard.getWeekStartingDay().toEpochDay();
+        final List<ConsultantTime> entries = timeCard.getConsultingHours();
+        writeConsultant(timeCard.getConsultant());
+        writeSignedVarInt(Math.toIntExact(weekStart));
+        writeVarInt(entries.size());
+        for(ConsultantTime time : entries) {
+            writeConsultantTime(time, weekStart);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.scg.io;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.scg.domain.ClientAccount;
+import com.scg.domain.CompactTimeCard;
+import com.scg.domain.TimeCard;
+
+/**
+ * Reads and writes client account and time card lists in the compact binary format. Each file starts
+ * with a magic number, the kind of list it holds and the format version, followed by the element count
+ * and the elements encoded by a single {@link BinaryEncoder}.
+ * @author Adam Spade
+ */
+public final class BinaryFormat
+extends Object
+{
+    // CONSTANTS \\
+    /**
+     * Magic number at the start of every binary file, "SCGB".
+     */
+    public static final int MAGIC = 0x53434742;
+    /**
+     * Current format version. Version 2 writes enum constants by name instead of by ordinal.
+     */
+    public static final int VERSION = 2;
+    /**
+     * Oldest format version that can still be read.
+     */
+    public static final int MIN_VERSION = 1;
+    /**
+     * Largest initial capacity given to a list read back, so a damaged count cannot allocate a huge
+     * list before any item is read.
+     */
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+    /**
+     * File kind for a client account list.
+     */
+    static final int CLIENT_LIST = 1;
+    /**
+     * File kind for a time card list.
+     */
+    static final int TIME_CARD_LIST = 2;
+    /**
+     * File kind for a framed time card stream.
+     */
+    static final int TIME_CARD_STREAM = 3;
+    /**
+     * File kind for a columnar time store.
+     */
+    static final int COLUMNAR = 4;
+    /**
+     * File kind for a journal snapshot.
+     */
+    static final int SNAPSHOT = 5;
+    /**
+     * File kind for an indexed time card archive.
+     */
+    static final int ARCHIVE = 6;
+    /**
+     * File kind for a block-compressed time card file.
+     */
+    static final int COMPRESSED = 7;
+    /**
+     * File kind for a base or delta snapshot.
+     */
+    static final int DELTA_SNAPSHOT = 8;
+
+    // CONSTRUCTORS \\
+    /**
+     * Prevent instantiation.
+     */
+    private BinaryFormat() {
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Writes a list of client accounts.
+     * @param out stream to write to, not closed by this method.
+     * @param accounts to write.
+     * @throws IOException if the write fails.
+     */
+    public static void writeClientAccounts(final OutputStream out, final List<ClientAccount> accounts)
+    throws IOException {
+        final DataOutputStream data = new DataOutputStream(out);
+        writeHeader(data, CLIENT_LIST);
+        final BinaryEncoder encoder = new BinaryEncoder(data);
+        encoder.writeVarInt(accounts.size());
+        for(ClientAccount account : accounts) {
+            encoder.writeClientAccount(account);
+        }
+        data.flush();
+    }
+    /**
+     * Reads a list of client accounts.
+     * @param in stream to read from, not closed by this method.
+     * @return the client accounts read.
+     * @throws IOException if the read fails or the stream is not a client account list.
+     */
+    public static List<ClientAccount> readClientAccounts(final InputStream in) throws IOException {
+        final DataInputStream data = new DataInputStream(in);
+        final int version = readHeader(data, CLIENT_LIST);
+        final BinaryDecoder decoder = new BinaryDecoder(data, version);
+        final int count = decoder.readCount();
+        final List<ClientAccount> accounts = new ArrayList<>(Math.min(count, MAX_INITIAL_CAPACITY));
+        for(int i = 0; i < count; i++) {
+            accounts.add(decoder.readClientAccount());
+        }
+        return accounts;
+    }
+    /**
+     * Writes a list of time cards.
+     * @param out stream to write to, not closed by this method.
+     * @param timeCards to write.
+     * @throws IOException if the write fails.
+     */
+    public static void writeTimeCards(final OutputStream out, final List<TimeCard> timeCards)
+    throws IOException {
+        final DataOutputStream data = new DataOutputStream(out);
+        writeHeader(data, TIME_CARD_LIST);
+        final BinaryEncoder encoder = new BinaryEncoder(data);
+        encoder.writeVarInt(timeCards.size());
+        for(TimeCard timeCard : timeCards) {
+            encoder.writeTimeCard(timeCard);
+        }
+        data.flush();
+    }
+    /**
+     * Reads a list of time cards.
+     * @param in stream to read from, not closed by this method.
+     * @return the time cards read.
+     * @throws IOException if the read fails or the stream is not a time card list.
+     */
+    public static List<TimeCard> readTimeCards(final InputStream in) throws IOException {
+        final DataInputStream data = new DataInputStream(in);
+        final int version = readHeader(data, TIME_CARD_LIST);
+        final BinaryDecoder decoder = new BinaryDecoder(data, version);
+        final int count = decoder.readCount();
+        final List<TimeCard> timeCards = new ArrayList<>(Math.min(count, MAX_INITIAL_CAPACITY));
+        for(int i = 0; i < count; i++) {
+            timeCards.add(decoder.readTimeCard());
+        }
+        return timeCards;
+    }
+    /**
+     * Reads a list of time cards as compact time cards, for callers that only total and invoice them.
+     * @param in stream to read from, not closed by this method.
+     * @return the compact time cards read.
+     * @throws IOException if the read fails or the stream is not a time card list.
+     */
+    public static List<CompactTimeCard> readCompactTimeCards(final InputStream in) throws IOException {
+        final DataInputStream data = new DataInputStream(in);
+        final int version = readHeader(data, TIME_CARD_LIST);
+        final BinaryDecoder decoder = new BinaryDecoder(data, version);
+        final int count = decoder.readCount();
+        final List<CompactTimeCard> timeCards = new ArrayList<>(Math.min(count, MAX_INITIAL_CAPACITY));
+        for(int i = 0; i < count; i++) {
+            timeCards.add(decoder.readCompactTimeCard());
+        }
+        return timeCards;
+    }
+
+    /**
+     * Reads the kind and version from the header of a file without checking them.
+     * @param file to read.
+     * @return kind and version, or null if the file is not a binary SCG file.
+     * @throws IOException if the file cannot be read.
+     */
+    static int[] peekHeader(final Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if(in.readInt() != MAGIC) {
+                return null;
+            }
+            return new int[] {in.readUnsignedByte(), in.readUnsignedByte()};
+        } catch (EOFException ex) {
+            return null;
+        }
+    }
+    /**
+     * Writes the file header.
+     * @param out stream to write to.
+     * @param kind of list that follows.
+     * @throws IOException if the write fails.
+     */
+    static void writeHeader(final DataOutputStream out, final int kind) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(kind);
+        out.writeByte(VERSION);
+    }
+    /**
+     * Reads and checks the file header.
+     * @param in stream to read from.
+     * @param kind of list expected to follow.
+     * @return the format version of the file.
+     * @throws IOException if the read fails or the header does not match.
+     */
+    static int readHeader(final DataInputStream in, final int kind) throws IOException {
+        if(in.readInt() != MAGIC) {
+            throw new StreamCorruptedException("Not a binary SCG file");
+        }
+        final int actualKind = in.readUnsignedByte();
+        if(actualKind != kind) {
+            throw new StreamCorruptedException("Unexpected file kind: " + actualKind);
+        }
+        final int version = in.readUnsignedByte();
+        if(version < MIN_VERSION || version > VERSION) {
+            throw new StreamCorruptedException("Unsupported format version: " + version);
+        }
+        return version;
+    }
+}
@@ -0,0 +1,448 @@
+package com.scg.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.scg.domain.Account;
+import com.scg.domain.ClientAccount;
+import com.scg.domain.Consultant;
+import com.scg.domain.ConsultantTime;
+import com.scg.domain.Skill;
+import com.scg.domain.TimeCard;
+import com.scg.util.PersonalName;
+
+/**
+ * Columnar on-disk store of time cards that is read through a memory-mapped file. After the header
+ * and the account and consultant tables, the file holds one column per time card field (consultant id,
+ * week start epoch day, first row and row count) and one column per consultant time field (epoch day,
+ * account id, skill ordinal and hours). Opening a store maps the file, decodes the two small tables and
+ * checks the column bounds, so a truncated file fails to open without reading the rows. Each time card
+ * is checked against the tables and the row count when its {@link MappedTimeCard} view is obtained, and
+ * the view then reads its rows in place. The file stays open until the store is closed.
+ * @author Adam Spade
+ */
+public final class ColumnarTimeStore
+extends Object
+implements Closeable
+{
+    // CONSTANTS \\
+    /**
+     * Cached skill values.
+     */
+    private static final Skill[] SKILLS = Skill.values();
+    /**
+     * Bytes per time card: consultant id, week start, first row and row count.
+     */
+    private static final int CARD_BYTES = 16;
+
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the channel of the mapped file.
+     */
+    private final FileChannel channel;
+    /**
+     * Initializer for the mapped file.
+     */
+    private final ByteBuffer data;
+    /**
+     * Initializer for the account table.
+     */
+    private final Account[] accounts;
+    /**
+     * Initializer for the billable flag of each account.
+     */
+    private final boolean[] billable;
+    /**
+     * Initializer for the consultant table.
+     */
+    private final Consultant[] consultants;
+    /**
+     * Initializer for the cached client account masks, keyed by client name.
+     */
+    private final Map<String, boolean[]> clientMasks = new ConcurrentHashMap<>();
+    /**
+     * Initializer for the number of time cards.
+     */
+    private final int cardCount;
+    /**
+     * Initializer for the number of consultant time rows.
+     */
+    private final int rowCount;
+    /**
+     * Initializer for the offset of the time card columns.
+     */
+    private final int cardOffset;
+    /**
+     * Initializer for the offset of the date column.
+     */
+    private final int dateOffset;
+    /**
+     * Initializer for the offset of the account id column.
+     */
+    private final int accountOffset;
+    /**
+     * Initializer for the offset of the skill ordinal column.
+     */
+    private final int skillOffset;
+    /**
+     * Initializer for the offset of the hours column.
+     */
+    private final int hoursOffset;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a store over a mapped file.
+     * @param channel of the mapped file, closed with the store.
+     * @param data the mapped file.
+     * @throws IOException if the file is not a columnar time store or is damaged.
+     */
+    private ColumnarTimeStore(final FileChannel channel, final ByteBuffer data) throws IOException {
+        this.channel = channel;
+        this.data = data;
+        final byte[] header = new byte[6];
+        data.get(header);
+        final int version = BinaryFormat.readHeader(new DataInputStream(new ByteArrayInputStream(header)),
+                                                    BinaryFormat.COLUMNAR);
+        final int tablesLength = data.getInt();
+        if(tablesLength < 0 || tablesLength > data.remaining()) {
+            throw new StreamCorruptedException("Invalid columnar table length: " + tablesLength);
+        }
+        final byte[] tables = new byte[tablesLength];
+        data.get(tables);
+        final BinaryDecoder decoder = new BinaryDecoder(new DataInputStream(new ByteArrayInputStream(tables)),
+                                                        version);
+        final int accountCount = decoder.readCount();
+        if(accountCount > tablesLength) {
+            throw new StreamCorruptedException("Invalid account table size: " + accountCount);
+        }
+        accounts = new Account[accountCount];
+        billable = new boolean[accounts.length];
+        for(int i = 0; i < accounts.length; i++) {
+            accounts[i] = decoder.readAccount();
+            billable[i] = accounts[i].isBillable();
+        }
+        final int consultantCount = decoder.readCount();
+        if(consultantCount > tablesLength) {
+            throw new StreamCorruptedException("Invalid consultant table size: " + consultantCount);
+        }
+        consultants = new Consultant[consultantCount];
+        for(int i = 0; i < consultants.length; i++) {
+            consultants[i] = decoder.readConsultant();
+        }
+        cardCount = data.getInt();
+        rowCount = data.getInt();
+        if(cardCount < 0 || rowCount < 0) {
+            throw new StreamCorruptedException("Invalid columnar counts: " + cardCount + " cards, "
+                                               + rowCount + " rows");
+        }
+        try {
+            final long rowInts = Math.multiplyExact((long) rowCount, 4L);
+            final long dates = Math.addExact(data.position(), Math.multiplyExact((long) cardCount, CARD_BYTES));
+            final long ids = Math.addExact(dates, rowInts);
+            final long skills = Math.addExact(ids, rowInts);
+            final long hours = Math.addExact(skills, rowCount);
+            if(Math.addExact(hours, rowInts) > data.limit()) {
+                throw new StreamCorruptedException("Columnar store is truncated");
+            }
+            cardOffset = data.position();
+            dateOffset = (int) dates;
+            accountOffset = (int) ids;
+            skillOffset = (int) skills;
+            hoursOffset = (int) hours;
+        } catch (ArithmeticException ex) {
+            throw new StreamCorruptedException("Columnar store column offsets overflow");
+        }
+    }
+
+    // GETTERS & SETTERS \\
+    /**
+     * Getter for the number of time cards.
+     * @return number of time cards in the store.
+     */
+    public int getTimeCardCount() {
+        return cardCount;
+    }
+    /**
+     * Getter for the number of consultant time rows.
+     * @return number of consultant time rows in the store.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+    /**
+     * Getter for a view of one time card, after checking the time card and its rows.
+     * @param index of the time card.
+     * @return view of the time card backed by the mapped columns.
+     * @throws UncheckedIOException with a {@link StreamCorruptedException} if the time card or one of
+     *         its rows holds an id out of range.
+     */
+    public MappedTimeCard getTimeCard(final int index) {
+        if(!channel.isOpen()) {
+            throw new IllegalStateException("Columnar store is closed");
+        }
+        if(index < 0 || index >= cardCount) {
+            throw new IndexOutOfBoundsException("Time card: " + index);
+        }
+        final int offset = cardOffset + index * CARD_BYTES;
+        try {
+            validate(index, offset);
+        } catch (StreamCorruptedException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return new MappedTimeCard(this, consultants[data.getInt(offset)],
+                                  data.getInt(offset + 4), data.getInt(offset + 8), data.getInt(offset + 12));
+    }
+    /**
+     * Getter for views of all time cards.
+     * @return list of time card views, created as they are requested.
+     */
+    public List<MappedTimeCard> getTimeCards() {
+        return new AbstractList<MappedTimeCard>() {
+            @Override
+            public MappedTimeCard get(final int index) {
+                return getTimeCard(index);
+            }
+            @Override
+            public int size() {
+                return cardCount;
+            }
+        };
+    }
+    /**
+     * Getter for the account ids that belong to the billable accounts with the given name.
+     * @param clientName name of the client.
+     * @return flag per account id, true for the accounts of the client.
+     */
+    boolean[] getClientAccountMask(final String clientName) {
+        return clientMasks.computeIfAbsent(clientName, name -> {
+            final boolean[] mask = new boolean[accounts.length];
+            for(int i = 0; i < accounts.length; i++) {
+                mask[i] = billable[i] && accounts[i].getName().equals(name);
+            }
+            return mask;
+        });
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Maps a columnar time store file.
+     * @param file to map.
+     * @return the mapped store.
+     * @throws IOException if the file cannot be mapped or is not a columnar time store.
+     */
+    public static ColumnarTimeStore open(final Path file) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ColumnarTimeStore(channel, mapped);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+    /**
+     * Closes the mapped file. Time card views can no longer be obtained afterwards.
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    /**
+     * Writes a list of time cards as a columnar time store file.
+     * @param file to write.
+     * @param timeCards to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(final Path file, final List<TimeCard> timeCards) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(out, timeCards);
+        }
+    }
+    /**
+     * Writes a list of time cards in the columnar time store layout.
+     * @param out stream to write to, not closed by this method.
+     * @param timeCards to write.
+     * @throws IOException if the write fails.
+     */
+    public static void write(final OutputStream out, final List<TimeCard> timeCards) throws IOException {
+        final Map<Object, Integer> accountIds = new HashMap<>();
+        final List<Account> accountTable = new ArrayList<>();
+        final Map<PersonalName, Integer> consultantIds = new HashMap<>();
+        final List<Consultant> consultantTable = new ArrayList<>();
+        int rows = 0;
+        for(TimeCard timeCard : timeCards) {
+            if(!consultantIds.containsKey(timeCard.getConsultant().getName())) {
+                consultantIds.put(timeCard.getConsultant().getName(), consultantTable.size());
+                consultantTable.add(timeCard.getConsultant());
+            }
+            for(ConsultantTime time : timeCard.getConsultingHours()) {
+                final Object key = accountKey(time.getAccount());
+                if(!accountIds.containsKey(key)) {
+                    accountIds.put(key, accountTable.size());
+                    accountTable.add(time.getAccount());
+                }
+            }
+            rows += timeCard.getConsultingHours().size();
+        }
+
+        final ByteArrayOutputStream tables = new ByteArrayOutputStream();
+        final BinaryEncoder encoder = new BinaryEncoder(new DataOutputStream(tables));
+        encoder.writeVarInt(accountTable.size());
+        for(Account account : accountTable) {
+            encoder.writeAccount(account);
+        }
+        encoder.writeVarInt(consultantTable.size());
+        for(Consultant consultant : consultantTable) {
+            encoder.writeConsultant(consultant);
+        }
+
+        final DataOutputStream data = new DataOutputStream(out);
+        BinaryFormat.writeHeader(data, BinaryFormat.COLUMNAR);
+        data.writeInt(tables.size());
+        tables.writeTo(data);
+        data.writeInt(timeCards.size());
+        data.writeInt(rows);
+        int firstRow = 0;
+        for(TimeCard timeCard : timeCards) {
+            data.writeInt(consultantIds.get(timeCard.getConsultant().getName()));
+            data.writeInt(Math.toIntExact(timeCard.getWeekStartingDay().toEpochDay()));
+            data.writeInt(firstRow);
+            data.writeInt(timeCard.getConsultingHours().size());
+            firstRow += timeCard.getConsultingHours().size();
+        }
+        for(TimeCard timeCard : timeCards) {
+            for(ConsultantTime time : timeCard.getConsultingHours()) {
+                data.writeInt(Math.toIntExact(time.getDate().toEpochDay()));
+            }
+        }
+        for(TimeCard timeCard : timeCards) {
+            for(ConsultantTime time : timeCard.getConsultingHours()) {
+                data.writeInt(accountIds.get(accountKey(time.getAccount())));
+            }
+        }
+        for(TimeCard timeCard : timeCards) {
+            for(ConsultantTime time : timeCard.getConsultingHours()) {
+                data.writeByte(time.getSkillType().ordinal());
+            }
+        }
+        for(TimeCard timeCard : timeCards) {
+            for(ConsultantTime time : timeCard.getConsultingHours()) {
+                data.writeInt(time.getHours());
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Checks a time card's consultant id and row range, and its rows' account ids and skill ordinals,
+     * against the tables and the row count.
+     * @param index of the time card.
+     * @param offset of the time card in the time card columns.
+     * @throws StreamCorruptedException if a column holds an id out of range.
+     */
+    private void validate(final int index, final int offset) throws StreamCorruptedException {
+        final int consultant = data.getInt(offset);
+        if(consultant < 0 || consultant >= consultants.length) {
+            throw new StreamCorruptedException("Time card " + index + " has invalid consultant id " + consultant);
+        }
+        final int firstRow = data.getInt(offset + 8);
+        final int rows = data.getInt(offset + 12);
+        if(firstRow < 0 || rows < 0 || firstRow > rowCount - rows) {
+            throw new StreamCorruptedException("Time card " + index + " has invalid rows " + firstRow + "+" + rows);
+        }
+        for(int row = firstRow; row < firstRow + rows; row++) {
+            final int account = accountId(row);
+            if(account < 0 || account >= accounts.length) {
+                throw new StreamCorruptedException("Row " + row + " has invalid account id " + account);
+            }
+            final int skill = data.get(skillOffset + row);
+            if(skill < 0 || skill >= SKILLS.length) {
+                throw new StreamCorruptedException("Row " + row + " has invalid skill ordinal " + skill);
+            }
+        }
+    }
+    /**
+     * Key an account is stored under in the account table, client accounts are keyed by value.
+     * @param account to key.
+     * @return the key.
+     */
+    private static Object accountKey(final Account account) {
+        if(account instanceof ClientAccount) {
+            final ClientAccount client = (ClientAccount) account;
+            return Arrays.asList(client.getName(), client.getContact(), client.getAddress());
+        }
+        return account;
+    }
+
+    // COLUMN ACCESS \\
+    /**
+     * Epoch day of a row.
+     * @param row index.
+     * @return epoch day.
+     */
+    int date(final int row) {
+        return data.getInt(dateOffset + row * 4);
+    }
+    /**
+     * Account id of a row.
+     * @param row index.
+     * @return account id.
+     */
+    int accountId(final int row) {
+        return data.getInt(accountOffset + row * 4);
+    }
+    /**
+     * Skill of a row.
+     * @param row index.
+     * @return skill.
+     */
+    Skill skill(final int row) {
+        return SKILLS[data.get(skillOffset + row)];
+    }
+    /**
+     * Hours of a row.
+     * @param row index.
+     * @return hours.
+     */
+    int hours(final int row) {
+        return data.getInt(hoursOffset + row * 4);
+    }
+    /**
+     * Account for an account id.
+     * @param accountId of the account.
+     * @return the account.
+     */
+    Account account(final int accountId) {
+        return accounts[accountId];
+    }
+    /**
+     * Billable flag for an account id.
+     * @param accountId of the account.
+     * @return true if the account is billable.
+     */
+    boolean isBillable(final int accountId) {
+        return billable[accountId];
+    }
+}
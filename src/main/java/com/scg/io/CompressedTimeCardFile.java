@@ -0,0 +1,264 @@
+package com.scg.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.scg.domain.TimeCard;
+
+/**
+ * Block-compressed time card file. Time cards are grouped into blocks, each block is encoded with its
+ * own {@link BinaryEncoder} and compressed with a {@link Deflater}, and a block index at the end of the
+ * file records where each block starts and how large it is. Because every block is self-contained,
+ * loading inflates the blocks in parallel on a {@link ForkJoinPool} and then joins them in file order.
+ * Files are read through a memory mapping, and bytes already in memory are decoded in place.
+ * @author Adam Spade
+ */
+public final class CompressedTimeCardFile
+extends Object
+{
+    // CONSTANTS \\
+    /**
+     * Default number of time cards per block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 256;
+    /**
+     * Bytes in the trailer: index offset and magic number.
+     */
+    private static final int TRAILER = 12;
+
+    // CONSTRUCTORS \\
+    /**
+     * Prevent instantiation.
+     */
+    private CompressedTimeCardFile() {
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Writes time cards as a block-compressed file with the default block size.
+     * @param file to write.
+     * @param timeCards to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(final Path file, final List<TimeCard> timeCards) throws IOException {
+        write(file, timeCards, DEFAULT_BLOCK_SIZE);
+    }
+    /**
+     * Writes time cards as a block-compressed file.
+     * @param file to write.
+     * @param timeCards to write.
+     * @param blockSize number of time cards per block.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(final Path file, final List<TimeCard> timeCards, final int blockSize)
+    throws IOException {
+        if(blockSize <= 0) {
+            throw new IllegalArgumentException("block size must be greater than zero");
+        }
+        final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        final byte[] chunk = new byte[8192];
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        final List<long[]> blocks = new ArrayList<>();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            BinaryFormat.writeHeader(out, BinaryFormat.COMPRESSED);
+            long position = out.size();
+            for(int first = 0; first < timeCards.size(); first += blockSize) {
+                final List<TimeCard> block = timeCards.subList(first, Math.min(first + blockSize, timeCards.size()));
+                raw.reset();
+                final BinaryEncoder encoder = new BinaryEncoder(new DataOutputStream(raw));
+                encoder.writeVarInt(block.size());
+                for(TimeCard timeCard : block) {
+                    encoder.writeTimeCard(timeCard);
+                }
+                deflater.reset();
+                deflater.setInput(raw.toByteArray());
+                deflater.finish();
+                long compressed = 0;
+                while(!deflater.finished()) {
+                    final int n = deflater.deflate(chunk);
+                    out.write(chunk, 0, n);
+                    compressed += n;
+                }
+                blocks.add(new long[] {position, compressed, raw.size()});
+                position += compressed;
+            }
+            final BinaryEncoder encoder = new BinaryEncoder(out);
+            encoder.writeVarInt(blocks.size());
+            for(long[] block : blocks) {
+                out.writeLong(block[0]);
+                encoder.writeVarInt((int) block[1]);
+                encoder.writeVarInt((int) block[2]);
+            }
+            out.writeLong(position);
+            out.writeInt(BinaryFormat.MAGIC);
+        } finally {
+            deflater.end();
+        }
+    }
+    /**
+     * Reads a block-compressed file, decoding the blocks on the common fork/join pool.
+     * @param file to read.
+     * @return the time cards in file order.
+     * @throws IOException if the file cannot be read or is not a block-compressed time card file.
+     */
+    public static List<TimeCard> read(final Path file) throws IOException {
+        return read(file, ForkJoinPool.commonPool());
+    }
+    /**
+     * Reads a block-compressed file, decoding the blocks on the given fork/join pool.
+     * @param file to read.
+     * @param pool to decode the blocks on.
+     * @return the time cards in file order.
+     * @throws IOException if the file cannot be read or is not a block-compressed time card file.
+     */
+    public static List<TimeCard> read(final Path file, final ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), pool);
+        }
+    }
+    /**
+     * Decodes the bytes of a block-compressed file, decoding the blocks on the common fork/join pool.
+     * @param bytes of the file.
+     * @return the time cards in file order.
+     * @throws IOException if the bytes are not a block-compressed time card file.
+     */
+    public static List<TimeCard> read(final byte[] bytes) throws IOException {
+        return read(ByteBuffer.wrap(bytes), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Decodes a block-compressed file held in a buffer.
+     * @param data the whole file, read only through absolute reads.
+     * @param pool to decode the blocks on.
+     * @return the time cards in file order.
+     * @throws IOException if the data is not a block-compressed time card file.
+     */
+    private static List<TimeCard> read(final ByteBuffer data, final ForkJoinPool pool) throws IOException {
+        final int version = BinaryFormat.readHeader(
+                new DataInputStream(new ByteArrayInputStream(read(data, 0, 6))), BinaryFormat.COMPRESSED);
+        final long size = data.limit();
+        final ByteBuffer trailer = ByteBuffer.wrap(read(data, size - TRAILER, TRAILER));
+        final long indexOffset = trailer.getLong(0);
+        if(trailer.getInt(8) != BinaryFormat.MAGIC || indexOffset < 0 || indexOffset > size - TRAILER) {
+            throw new StreamCorruptedException("Compressed time card file has no block index");
+        }
+        final DataInputStream index = new DataInputStream(new ByteArrayInputStream(
+                read(data, indexOffset, Math.toIntExact(size - TRAILER - indexOffset))));
+        final BinaryDecoder decoder = new BinaryDecoder(index, version);
+        final long[][] blocks = new long[decoder.readVarInt()][];
+        for(int i = 0; i < blocks.length; i++) {
+            blocks[i] = new long[] {index.readLong(), decoder.readVarInt(), decoder.readVarInt()};
+        }
+        try {
+            return pool.invoke(new DecodeBlocks(data, version, blocks, 0, blocks.length));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+    /**
+     * Copies a range of bytes out of a buffer without moving its position, so tasks can share it.
+     * @param data to read from.
+     * @param position of the first byte.
+     * @param length of the range.
+     * @return the bytes read.
+     * @throws IOException if the range is outside the data.
+     */
+    private static byte[] read(final ByteBuffer data, final long position, final int length)
+    throws IOException {
+        if(position < 0 || length < 0) {
+            throw new StreamCorruptedException("Invalid offset: " + position);
+        }
+        if(position + length > data.limit()) {
+            throw new EOFException("Compressed time card file is truncated");
+        }
+        final byte[] bytes = new byte[length];
+        final ByteBuffer range = data.duplicate();
+        range.position((int) position);
+        range.get(bytes);
+        return bytes;
+    }
+
+    // INNER CLASS \\
+    /**
+     * Task that reads, inflates and decodes a range of blocks, splitting the range until one block is
+     * left and joining the results in block order.
+     */
+    private static final class DecodeBlocks extends RecursiveTask<List<TimeCard>> {
+        private static final long serialVersionUID = 6876990301946249528L;
+        private final transient ByteBuffer data;
+        private final int version;
+        private final long[][] blocks;
+        private final int from;
+        private final int to;
+
+        DecodeBlocks(final ByteBuffer data, final int version, final long[][] blocks,
+                     final int from, final int to) {
+            this.data = data;
+            this.version = version;
+            this.blocks = blocks;
+            this.from = from;
+            this.to = to;
+        }
+        @Override
+        protected List<TimeCard> compute() {
+            if(to - from <= 1) {
+                return (from < to) ? decode(blocks[from]) : new ArrayList<>();
+            }
+            final int middle = (from + to) >>> 1;
+            final DecodeBlocks right = new DecodeBlocks(data, version, blocks, middle, to);
+            right.fork();
+            final List<TimeCard> timeCards = new DecodeBlocks(data, version, blocks, from, middle).compute();
+            timeCards.addAll(right.join());
+            return timeCards;
+        }
+        private List<TimeCard> decode(final long[] block) {
+            final Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(read(data, block[0], (int) block[1]));
+                final byte[] raw = new byte[(int) block[2]];
+                int n = 0;
+                while(n < raw.length && !inflater.finished()) {
+                    final int inflated = inflater.inflate(raw, n, raw.length - n);
+                    if(inflated == 0 && inflater.needsInput()) {
+                        throw new EOFException("Compressed block is truncated");
+                    }
+                    n += inflated;
+                }
+                final BinaryDecoder decoder = new BinaryDecoder(
+                        new DataInputStream(new ByteArrayInputStream(raw, 0, n)), version);
+                final int count = decoder.readVarInt();
+                final List<TimeCard> timeCards = new ArrayList<>(count);
+                for(int i = 0; i < count; i++) {
+                    timeCards.add(decoder.readTimeCard());
+                }
+                return timeCards;
+            } catch (DataFormatException ex) {
+                throw new UncheckedIOException(new StreamCorruptedException("Invalid compressed block: "
+                                                                            + ex.getMessage()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.scg.io;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.scg.domain.ClientAccount;
+import com.scg.domain.TimeCard;
+
+/**
+ * Client accounts and time cards loaded together.
+ * @author Adam Spade
+ */
+public final class Dataset
+extends Object
+{
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the client accounts.
+     */
+    private final List<ClientAccount> clientAccounts;
+    /**
+     * Initializer for the time cards.
+     */
+    private final List<TimeCard> timeCards;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a dataset.
+     * @param clientAccounts of the dataset.
+     * @param timeCards of the dataset.
+     */
+    public Dataset(final List<ClientAccount> clientAccounts, final List<TimeCard> timeCards) {
+        this.clientAccounts = Collections.unmodifiableList(clientAccounts);
+        this.timeCards = Collections.unmodifiableList(timeCards);
+    }
+
+    // GETTERS & SETTERS \\
+    /**
+     * Getter for the client accounts.
+     * @return unmodifiable list of client accounts.
+     */
+    public List<ClientAccount> getClientAccounts() {
+        return clientAccounts;
+    }
+    /**
+     * Getter for the time cards.
+     * @return unmodifiable list of time cards.
+     */
+    public List<TimeCard> getTimeCards() {
+        return timeCards;
+    }
+}
@@ -0,0 +1,179 @@
+package com.scg.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import com.scg.domain.ClientAccount;
+import com.scg.domain.TimeCard;
+
+/**
+ * Loads a client account file and a time card file concurrently. Each file is read on its own task and
+ * decoded and validated on the next stage of its pipeline, so reading one file overlaps decoding the
+ * other, and the dataset is published through a single future once both pipelines complete. Files may
+ * be Java-serialized lists or any of the binary list and stream formats; the format is taken from the
+ * first bytes of each file.
+ * @author Adam Spade
+ */
+public final class DatasetLoader
+extends Object
+{
+    // CONSTANTS \\
+    /**
+     * First two bytes of a Java serialization stream.
+     */
+    private static final int SERIAL_MAGIC = 0xACED;
+
+    // CONSTRUCTORS \\
+    /**
+     * Prevent instantiation.
+     */
+    private DatasetLoader() {
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Loads a client account file and a time card file on the common fork/join pool.
+     * @param clientFile file holding the client accounts.
+     * @param timeCardFile file holding the time cards.
+     * @return future completed with the dataset, or exceptionally with an {@link UncheckedIOException}
+     *         if a file cannot be read or with an {@link IllegalArgumentException} if it holds the wrong
+     *         kind of object.
+     */
+    public static CompletableFuture<Dataset> load(final Path clientFile, final Path timeCardFile) {
+        return load(clientFile, timeCardFile, ForkJoinPool.commonPool());
+    }
+    /**
+     * Loads a client account file and a time card file on the given executor.
+     * @param clientFile file holding the client accounts.
+     * @param timeCardFile file holding the time cards.
+     * @param executor to read, decode and validate the files on.
+     * @return future completed with the dataset, or exceptionally with an {@link UncheckedIOException}
+     *         if a file cannot be read or with an {@link IllegalArgumentException} if it holds the wrong
+     *         kind of object.
+     */
+    public static CompletableFuture<Dataset> load(final Path clientFile, final Path timeCardFile,
+                                                  final Executor executor) {
+        final CompletableFuture<List<ClientAccount>> clients =
+                CompletableFuture.supplyAsync(() -> readAllBytes(clientFile), executor)
+                                 .thenApplyAsync(bytes -> decodeClientAccounts(clientFile, bytes), executor);
+        final CompletableFuture<List<TimeCard>> timeCards =
+                CompletableFuture.supplyAsync(() -> readAllBytes(timeCardFile), executor)
+                                 .thenApplyAsync(bytes -> decodeTimeCards(timeCardFile, bytes), executor);
+        return clients.thenCombine(timeCards, Dataset::new);
+    }
+
+    /**
+     * Reads the whole of a file.
+     * @param file to read.
+     * @return the bytes of the file.
+     * @throws UncheckedIOException if the file cannot be read.
+     */
+    private static byte[] readAllBytes(final Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    /**
+     * Decodes and validates a client account file.
+     * @param file the bytes were read from.
+     * @param bytes of the file.
+     * @return the client accounts.
+     * @throws UncheckedIOException if the bytes cannot be decoded.
+     * @throws IllegalArgumentException if the file does not hold client accounts.
+     */
+    private static List<ClientAccount> decodeClientAccounts(final Path file, final byte[] bytes) {
+        try {
+            if(isSerialized(bytes)) {
+                return checkedList(deserialize(bytes), ClientAccount.class, "Not Client Account List.");
+            }
+            return BinaryFormat.readClientAccounts(new ByteArrayInputStream(bytes));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(file.toString(), ex);
+        }
+    }
+    /**
+     * Decodes and validates a time card file.
+     * @param file the bytes were read from.
+     * @param bytes of the file.
+     * @return the time cards.
+     * @throws UncheckedIOException if the bytes cannot be decoded.
+     * @throws IllegalArgumentException if the file does not hold time cards.
+     */
+    private static List<TimeCard> decodeTimeCards(final Path file, final byte[] bytes) {
+        try {
+            if(isSerialized(bytes)) {
+                return checkedList(deserialize(bytes), TimeCard.class, "Not Time Card List.");
+            }
+            final int kind = (bytes.length > 4) ? bytes[4] : -1;
+            switch(kind) {
+                case BinaryFormat.TIME_CARD_LIST:
+                    return BinaryFormat.readTimeCards(new ByteArrayInputStream(bytes));
+                case BinaryFormat.TIME_CARD_STREAM:
+                    try (TimeCardReader reader = new TimeCardReader(new ByteArrayInputStream(bytes))) {
+                        return reader.stream().collect(Collectors.toList());
+                    }
+                case BinaryFormat.COMPRESSED:
+                    return CompressedTimeCardFile.read(bytes);
+                default:
+                    throw new StreamCorruptedException("Not a time card list or stream: " + file);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(file.toString(), ex);
+        }
+    }
+    /**
+     * Determines if bytes start with the Java serialization magic number.
+     * @param bytes to check.
+     * @return true if the bytes are a serialization stream.
+     */
+    private static boolean isSerialized(final byte[] bytes) {
+        return bytes.length >= 2 && ((bytes[0] & 0xFF) << 8 | (bytes[1] & 0xFF)) == SERIAL_MAGIC;
+    }
+    /**
+     * Reads the first object of a serialization stream.
+     * @param bytes of the stream.
+     * @return the object read.
+     * @throws IOException if the object cannot be read or its class is unknown.
+     */
+    private static Object deserialize(final byte[] bytes) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (ClassNotFoundException ex) {
+            throw new StreamCorruptedException("Unknown class in serialized file: " + ex.getMessage());
+        }
+    }
+    /**
+     * Checks that an object is a list holding only elements of the given type.
+     * @param value to check.
+     * @param type of the elements.
+     * @param message of the exception thrown if the check fails.
+     * @return a list of the elements.
+     * @throws IllegalArgumentException if the value is not such a list.
+     */
+    private static <T> List<T> checkedList(final Object value, final Class<T> type, final String message) {
+        if(!(value instanceof List<?>)) {
+            throw new IllegalArgumentException(message);
+        }
+        final List<T> list = new ArrayList<>(((List<?>) value).size());
+        for(Object element : (List<?>) value) {
+            if(!type.isInstance(element)) {
+                throw new IllegalArgumentException(message);
+            }
+            list.add(type.cast(element));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,426 @@
+package com.scg.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.scg.domain.ClientAccount;
+import com.scg.domain.ConsultantTime;
+import com.scg.domain.TimeCard;
+
+/**
+ * Snapshot store that saves client accounts and time cards as a base snapshot followed by delta
+ * snapshots. Once the saved state is known, from a load or an earlier save, each save writes only the
+ * client accounts and time cards that were added, changed or removed since the previous save, and
+ * loading reads the base and merges the deltas over it in order. A save on a store that does not know
+ * the saved state, or whose delta count has reached a limit, writes a new base instead. Every base has a
+ * generation number that its deltas carry, so deltas left behind by an earlier base are ignored.
+ * @author Adam Spade
+ */
+public final class DeltaSnapshotStore
+extends Object
+{
+    // CONSTANTS \\
+    /**
+     * Default number of deltas written before the next save writes a new base.
+     */
+    public static final int DEFAULT_MAX_DELTAS = 16;
+    /**
+     * Suffix of the base snapshot file.
+     */
+    private static final String BASE_SUFFIX = ".base";
+    /**
+     * Infix of the delta snapshot files, followed by the delta number.
+     */
+    private static final String DELTA_INFIX = ".delta.";
+
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the directory holding the snapshot files.
+     */
+    private final Path directory;
+    /**
+     * Initializer for the name the snapshot files start with.
+     */
+    private final String name;
+    /**
+     * Initializer for the number of deltas written before a new base.
+     */
+    private final int maxDeltas;
+    /**
+     * Initializer for the encoded form of each saved client account, keyed by client name.
+     */
+    private final Map<String, byte[]> savedClients = new HashMap<>();
+    /**
+     * Initializer for the encoded form of each saved time card, keyed by consultant name and week.
+     */
+    private final Map<List<Object>, byte[]> savedTimeCards = new HashMap<>();
+    /**
+     * Initializer for the generation of the base on disk, or 0 if there is no base yet.
+     */
+    private int generation;
+    /**
+     * Initializer for the number of the last delta of the current base.
+     */
+    private int lastDelta;
+    /**
+     * Initializer for the flag set once the saved state is known.
+     */
+    private boolean loaded;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a store with the default delta limit.
+     * @param directory holding the snapshot files.
+     * @param name the snapshot files start with.
+     */
+    public DeltaSnapshotStore(final Path directory, final String name) {
+        this(directory, name, DEFAULT_MAX_DELTAS);
+    }
+    /**
+     * Constructor for a store.
+     * @param directory holding the snapshot files.
+     * @param name the snapshot files start with.
+     * @param maxDeltas number of deltas written before the next save writes a new base.
+     */
+    public DeltaSnapshotStore(final Path directory, final String name, final int maxDeltas) {
+        if(maxDeltas < 0) {
+            throw new IllegalArgumentException("maxDeltas must not be negative");
+        }
+        this.directory = directory;
+        this.name = name;
+        this.maxDeltas = maxDeltas;
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Loads the base snapshot and merges every delta of its generation over it. A client account or time
+     * card in a delta replaces the earlier one with the same client name, or consultant and week, in
+     * place, and a removal in a delta drops it. Time billed to a client account is then pointed at the
+     * merged account, so a change saved with the account alone reaches the time cards billing it.
+     * @return the merged client accounts and time cards, empty if nothing has been saved.
+     * @throws IOException if a snapshot file cannot be read.
+     */
+    public synchronized Dataset load() throws IOException {
+        final Map<String, ClientAccount> clients = new LinkedHashMap<>();
+        final Map<List<Object>, TimeCard> timeCards = new LinkedHashMap<>();
+        generation = 0;
+        lastDelta = 0;
+        final Path base = directory.resolve(name + BASE_SUFFIX);
+        if(Files.exists(base)) {
+            generation = readSnapshot(base, clients, timeCards);
+            for(int delta : deltaNumbers()) {
+                if(readGeneration(deltaFile(delta)) == generation) {
+                    readSnapshot(deltaFile(delta), clients, timeCards);
+                    lastDelta = delta;
+                }
+            }
+        }
+        final List<TimeCard> merged = new ArrayList<>(timeCards.size());
+        for(TimeCard timeCard : timeCards.values()) {
+            merged.add(relink(timeCard, clients));
+        }
+        savedClients.clear();
+        savedTimeCards.clear();
+        remember(new ArrayList<>(clients.values()), merged);
+        loaded = true;
+        return new Dataset(new ArrayList<>(clients.values()), merged);
+    }
+    /**
+     * Saves the client accounts and time cards. A store that has neither loaded nor saved, or whose
+     * delta limit is reached, writes a new base; every other save writes a delta holding only what was
+     * added, changed or removed since the previous save, and writes nothing if nothing changed.
+     * @param clientAccounts to save.
+     * @param timeCards to save.
+     * @return number of client accounts and time cards written or removed.
+     * @throws IOException if a snapshot file cannot be written.
+     */
+    public synchronized int save(final List<ClientAccount> clientAccounts, final List<TimeCard> timeCards)
+    throws IOException {
+        if(!loaded || generation == 0 || lastDelta >= maxDeltas) {
+            return saveBase(clientAccounts, timeCards);
+        }
+
+        final Map<String, byte[]> clients = new HashMap<>();
+        final List<ClientAccount> changedClients = new ArrayList<>();
+        for(ClientAccount client : clientAccounts) {
+            final byte[] encoded = encode(client);
+            clients.put(client.getName(), encoded);
+            if(!Arrays.equals(encoded, savedClients.get(client.getName()))) {
+                changedClients.add(client);
+            }
+        }
+        final Map<List<Object>, byte[]> cards = new HashMap<>();
+        final List<TimeCard> changedTimeCards = new ArrayList<>();
+        for(TimeCard timeCard : timeCards) {
+            final byte[] encoded = encode(timeCard);
+            final List<Object> key = key(timeCard);
+            cards.put(key, encoded);
+            if(!Arrays.equals(encoded, savedTimeCards.get(key))) {
+                changedTimeCards.add(timeCard);
+            }
+        }
+        final List<String> removedClients = new ArrayList<>(savedClients.keySet());
+        removedClients.removeAll(clients.keySet());
+        final List<List<Object>> removedTimeCards = new ArrayList<>(savedTimeCards.keySet());
+        removedTimeCards.removeAll(cards.keySet());
+        final int written = changedClients.size() + changedTimeCards.size() + removedClients.size()
+                            + removedTimeCards.size();
+        if(written == 0) {
+            return 0;
+        }
+        writeSnapshot(deltaFile(lastDelta + 1), generation, changedClients, changedTimeCards, removedClients,
+                      removedTimeCards);
+        lastDelta++;
+        savedClients.clear();
+        savedClients.putAll(clients);
+        savedTimeCards.clear();
+        savedTimeCards.putAll(cards);
+        return written;
+    }
+
+    /**
+     * Writes a new base of the next generation, then removes the deltas of earlier generations. A crash
+     * before they are removed leaves them on disk, where loading ignores them.
+     * @param clientAccounts to save.
+     * @param timeCards to save.
+     * @return number of client accounts and time cards written.
+     * @throws IOException if the base cannot be written.
+     */
+    private int saveBase(final List<ClientAccount> clientAccounts, final List<TimeCard> timeCards)
+    throws IOException {
+        final Path base = directory.resolve(name + BASE_SUFFIX);
+        final int previous = loaded ? generation : (Files.exists(base) ? readGeneration(base) : 0);
+        writeSnapshot(base, previous + 1, clientAccounts, timeCards, Collections.<String>emptyList(),
+                      Collections.<List<Object>>emptyList());
+        generation = previous + 1;
+        lastDelta = 0;
+        loaded = true;
+        for(int delta : deltaNumbers()) {
+            Files.deleteIfExists(deltaFile(delta));
+        }
+        savedClients.clear();
+        savedTimeCards.clear();
+        remember(clientAccounts, timeCards);
+        return clientAccounts.size() + timeCards.size();
+    }
+    /**
+     * Records the saved state of client accounts and time cards.
+     * @param clientAccounts that were saved.
+     * @param timeCards that were saved.
+     * @throws IOException if a client account or time card cannot be encoded.
+     */
+    private void remember(final List<ClientAccount> clientAccounts, final List<TimeCard> timeCards)
+    throws IOException {
+        for(ClientAccount client : clientAccounts) {
+            savedClients.put(client.getName(), encode(client));
+        }
+        for(TimeCard timeCard : timeCards) {
+            savedTimeCards.put(key(timeCard), encode(timeCard));
+        }
+    }
+    /**
+     * Writes one snapshot file through a temporary file that is moved into place.
+     * @param file to write.
+     * @param generation of the base the snapshot belongs to.
+     * @param clientAccounts to write.
+     * @param timeCards to write.
+     * @param removedClients names of the client accounts to remove.
+     * @param removedTimeCards keys of the time cards to remove.
+     * @throws IOException if the file cannot be written.
+     */
+    private static void writeSnapshot(final Path file, final int generation, final List<ClientAccount> clientAccounts,
+                                      final List<TimeCard> timeCards, final List<String> removedClients,
+                                      final List<List<Object>> removedTimeCards) throws IOException {
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            BinaryFormat.writeHeader(out, BinaryFormat.DELTA_SNAPSHOT);
+            final BinaryEncoder encoder = new BinaryEncoder(out);
+            encoder.writeVarInt(generation);
+            encoder.writeVarInt(clientAccounts.size());
+            for(ClientAccount client : clientAccounts) {
+                encoder.writeClientAccount(client);
+            }
+            encoder.writeVarInt(timeCards.size());
+            for(TimeCard timeCard : timeCards) {
+                encoder.writeTimeCard(timeCard);
+            }
+            encoder.writeVarInt(removedClients.size());
+            for(String client : removedClients) {
+                encoder.writeString(client);
+            }
+            encoder.writeVarInt(removedTimeCards.size());
+            for(List<Object> key : removedTimeCards) {
+                encoder.writeString((String) key.get(0));
+                encoder.writeSignedVarInt(Math.toIntExact(((LocalDate) key.get(1)).toEpochDay()));
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    /**
+     * Reads one snapshot file and merges it into the maps.
+     * @param file to read.
+     * @param clients merged so far, keyed by client name.
+     * @param timeCards merged so far, keyed by consultant name and week.
+     * @return generation of the base the snapshot belongs to.
+     * @throws IOException if the file cannot be read.
+     */
+    private static int readSnapshot(final Path file, final Map<String, ClientAccount> clients,
+                                    final Map<List<Object>, TimeCard> timeCards) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            final DataInputStream data = new DataInputStream(in);
+            final int version = BinaryFormat.readHeader(data, BinaryFormat.DELTA_SNAPSHOT);
+            final BinaryDecoder decoder = new BinaryDecoder(data, version);
+            final int generation = decoder.readVarInt();
+            final int clientCount = decoder.readVarInt();
+            for(int i = 0; i < clientCount; i++) {
+                final ClientAccount client = decoder.readClientAccount();
+                clients.put(client.getName(), client);
+            }
+            final int timeCardCount = decoder.readVarInt();
+            for(int i = 0; i < timeCardCount; i++) {
+                final TimeCard timeCard = decoder.readTimeCard();
+                timeCards.put(key(timeCard), timeCard);
+            }
+            final int removedClientCount = decoder.readVarInt();
+            for(int i = 0; i < removedClientCount; i++) {
+                clients.remove(decoder.readString());
+            }
+            final int removedTimeCardCount = decoder.readVarInt();
+            for(int i = 0; i < removedTimeCardCount; i++) {
+                final String consultant = decoder.readString();
+                timeCards.remove(Arrays.asList(consultant, LocalDate.ofEpochDay(decoder.readSignedVarInt())));
+            }
+            return generation;
+        }
+    }
+    /**
+     * Points the billable time of a time card at the merged client accounts. A card read from an earlier
+     * snapshot than its client account is rebuilt, since time on a card cannot be changed; a card whose
+     * time already bills the merged accounts, or clients no longer saved, is returned as it is.
+     * @param timeCard to relink.
+     * @param clients merged client accounts, keyed by client name.
+     * @return the time card billing the merged client accounts.
+     */
+    private static TimeCard relink(final TimeCard timeCard, final Map<String, ClientAccount> clients) {
+        boolean stale = false;
+        for(ConsultantTime time : timeCard.getConsultingHours()) {
+            final ClientAccount client = clients.get(time.getAccount().getName());
+            if(time.isBillable() && client != null && client != time.getAccount()) {
+                stale = true;
+                break;
+            }
+        }
+        if(!stale) {
+            return timeCard;
+        }
+        final TimeCard relinked = new TimeCard(timeCard.getConsultant(), timeCard.getWeekStartingDay());
+        for(ConsultantTime time : timeCard.getConsultingHours()) {
+            final ClientAccount client = time.isBillable() ? clients.get(time.getAccount().getName()) : null;
+            relinked.addConsultantTime(new ConsultantTime(time.getDate(),
+                                                          (client == null) ? time.getAccount() : client,
+                                                          time.getSkillType(), time.getHours()));
+        }
+        return relinked;
+    }
+    /**
+     * Reads the generation of a snapshot file without reading its contents.
+     * @param file to read.
+     * @return generation of the base the snapshot belongs to.
+     * @throws IOException if the file cannot be read.
+     */
+    private static int readGeneration(final Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            final DataInputStream data = new DataInputStream(in);
+            final int version = BinaryFormat.readHeader(data, BinaryFormat.DELTA_SNAPSHOT);
+            return new BinaryDecoder(data, version).readVarInt();
+        }
+    }
+    /**
+     * Lists the numbers of the delta files on disk in ascending order.
+     * @return the delta numbers.
+     * @throws IOException if the directory cannot be listed.
+     */
+    private List<Integer> deltaNumbers() throws IOException {
+        final List<Integer> deltas = new ArrayList<>();
+        if(!Files.isDirectory(directory)) {
+            return deltas;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, name + DELTA_INFIX + "*")) {
+            for(Path file : files) {
+                final String suffix = file.getFileName().toString().substring(name.length() + DELTA_INFIX.length());
+                try {
+                    deltas.add(Integer.parseInt(suffix));
+                } catch (NumberFormatException ex) {
+                    continue;
+                }
+            }
+        }
+        Collections.sort(deltas);
+        return deltas;
+    }
+    /**
+     * Path of a delta file.
+     * @param delta number of the delta.
+     * @return the path.
+     */
+    private Path deltaFile(final int delta) {
+        return directory.resolve(name + DELTA_INFIX + delta);
+    }
+    /**
+     * Key a time card is merged under.
+     * @param timeCard to key.
+     * @return consultant name and week starting day.
+     */
+    private static List<Object> key(final TimeCard timeCard) {
+        return Arrays.asList(timeCard.getConsultant().getName().toString(), timeCard.getWeekStartingDay());
+    }
+    /**
+     * Encodes a client account on its own, the full value a saved account is compared by.
+     * @param client to encode.
+     * @return the encoded bytes.
+     * @throws IOException if the account cannot be encoded.
+     */
+    private static byte[] encode(final ClientAccount client) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new BinaryEncoder(new DataOutputStream(bytes)).writeClientAccount(client);
+        return bytes.toByteArray();
+    }
+    /**
+     * Encodes the entries of a time card, the full value a saved time card is compared by. Accounts are
+     * encoded by name, since a change to a client account is saved with the account itself.
+     * @param timeCard to encode.
+     * @return the encoded bytes.
+     * @throws IOException if the time card cannot be encoded.
+     */
+    private static byte[] encode(final TimeCard timeCard) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final BinaryEncoder encoder = new BinaryEncoder(new DataOutputStream(bytes));
+        encoder.writeVarInt(timeCard.getConsultingHours().size());
+        for(ConsultantTime time : timeCard.getConsultingHours()) {
+            encoder.writeSignedVarInt(Math.toIntExact(time.getDate().toEpochDay()));
+            encoder.writeVarInt(time.isBillable() ? BinaryEncoder.CLIENT_ACCOUNT
+                                                  : BinaryEncoder.NON_BILLABLE_ACCOUNT);
+            encoder.writeString(time.getAccount().getName());
+            encoder.writeEnum(time.getSkillType());
+            encoder.writeVarInt(time.getHours());
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,244 @@
+package com.scg.io;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import com.scg.domain.Invoice;
+
+/**
+ * Writes invoice reports straight to a byte channel in ISO-8859-1. Reports are rendered into a ring of
+ * reused byte buffers, encoding each character as it is appended, and the ring is drained only when it
+ * fills up or the writer is flushed. A gathering channel, such as a {@code FileChannel}, receives the
+ * whole ring in a single write call, so a month of invoices costs a handful of writes rather than one
+ * per line. Characters outside ISO-8859-1 are written as {@code '?'}.
+ * @author Adam Spade
+ */
+public final class InvoiceChannelWriter
+extends Object
+implements Appendable, Closeable, Flushable
+{
+    // CONSTANTS \\
+    /**
+     * Default size in bytes of each buffer in the ring.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    /**
+     * Default number of buffers in the ring.
+     */
+    public static final int DEFAULT_BUFFER_COUNT = 8;
+    /**
+     * Byte written for characters outside ISO-8859-1.
+     */
+    private static final byte REPLACEMENT = '?';
+    /**
+     * Highest character value in ISO-8859-1.
+     */
+    private static final char MAX_CHAR = '\u00FF';
+
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the destination channel.
+     */
+    private final WritableByteChannel channel;
+    /**
+     * Initializer for the ring of reused buffers.
+     */
+    private final ByteBuffer[] buffers;
+    /**
+     * Initializer for the index of the buffer being filled.
+     */
+    private int current;
+    /**
+     * Initializer for the closed flag.
+     */
+    private boolean closed;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a writer with the default ring of buffers.
+     * @param channel destination channel, closed when this writer is closed.
+     */
+    public InvoiceChannelWriter(final WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_COUNT);
+    }
+    /**
+     * Constructor for a writer with a ring of the given size.
+     * @param channel destination channel, closed when this writer is closed.
+     * @param bufferSize size in bytes of each buffer.
+     * @param bufferCount number of buffers in the ring.
+     */
+    public InvoiceChannelWriter(final WritableByteChannel channel, final int bufferSize, final int bufferCount) {
+        if(bufferSize < 1 || bufferCount < 1) {
+            throw new IllegalArgumentException("buffer size and count must be positive");
+        }
+        this.channel = channel;
+        this.buffers = new ByteBuffer[bufferCount];
+        for(int i = 0; i < bufferCount; i++) {
+            buffers[i] = ByteBuffer.allocateDirect(bufferSize);
+        }
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Writes the report of an invoice.
+     * @param invoice to write.
+     * @throws IOException if the invoice cannot be rendered or the channel cannot be written.
+     */
+    public void write(final Invoice invoice) throws IOException {
+        invoice.writeReport(this);
+    }
+    /**
+     * Writes the reports of several invoices and flushes them to the channel.
+     * @param invoices to write.
+     * @throws IOException if an invoice cannot be rendered or the channel cannot be written.
+     */
+    public void writeAll(final Iterable<Invoice> invoices) throws IOException {
+        for(Invoice invoice : invoices) {
+            write(invoice);
+        }
+        flush();
+    }
+    /**
+     * Appends a character sequence.
+     * @param csq to append, "null" if null.
+     * @return this writer.
+     * @throws IOException if the channel cannot be written or this writer is closed.
+     */
+    @Override
+    public InvoiceChannelWriter append(final CharSequence csq) throws IOException {
+        final CharSequence text = (csq == null) ? "null" : csq;
+        return append(text, 0, text.length());
+    }
+    /**
+     * Appends part of a character sequence.
+     * @param csq to append from, "null" if null.
+     * @param start index of the first character, inclusive.
+     * @param end index of the last character, exclusive.
+     * @return this writer.
+     * @throws IOException if the channel cannot be written or this writer is closed.
+     */
+    @Override
+    public InvoiceChannelWriter append(final CharSequence csq, final int start, final int end) throws IOException {
+        final CharSequence text = (csq == null) ? "null" : csq;
+        if(start < 0 || start > end || end > text.length()) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + text.length());
+        }
+        ensureOpen();
+        ByteBuffer buffer = buffers[current];
+        for(int i = start; i < end; i++) {
+            if(!buffer.hasRemaining()) {
+                buffer = next();
+            }
+            final char c = text.charAt(i);
+            if(c <= MAX_CHAR) {
+                buffer.put((byte) c);
+            } else {
+                buffer.put(REPLACEMENT);
+                if(Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    i++;
+                }
+            }
+        }
+        return this;
+    }
+    /**
+     * Appends a character.
+     * @param c to append.
+     * @return this writer.
+     * @throws IOException if the channel cannot be written or this writer is closed.
+     */
+    @Override
+    public InvoiceChannelWriter append(final char c) throws IOException {
+        ensureOpen();
+        ByteBuffer buffer = buffers[current];
+        if(!buffer.hasRemaining()) {
+            buffer = next();
+        }
+        buffer.put((c <= MAX_CHAR) ? (byte) c : REPLACEMENT);
+        return this;
+    }
+    /**
+     * Writes every buffered byte to the channel.
+     * @throws IOException if the channel cannot be written.
+     */
+    @Override
+    public void flush() throws IOException {
+        if(closed) {
+            return;
+        }
+        drain();
+    }
+    /**
+     * Flushes the buffered bytes and closes the channel.
+     * @throws IOException if the write or close fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if(closed) {
+            return;
+        }
+        try {
+            drain();
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    /**
+     * Moves to the next buffer in the ring, draining the ring first if every buffer is full.
+     * @return the buffer to fill.
+     * @throws IOException if the channel cannot be written.
+     */
+    private ByteBuffer next() throws IOException {
+        if(current + 1 < buffers.length) {
+            current++;
+        } else {
+            drain();
+        }
+        return buffers[current];
+    }
+    /**
+     * Writes the filled buffers to the channel, gathering them into one write where the channel allows,
+     * and resets the ring.
+     * @throws IOException if the channel cannot be written.
+     */
+    private void drain() throws IOException {
+        final int count = current + 1;
+        for(int i = 0; i < count; i++) {
+            buffers[i].flip();
+        }
+        try {
+            if(channel instanceof GatheringByteChannel) {
+                final GatheringByteChannel gathering = (GatheringByteChannel) channel;
+                while(buffers[current].hasRemaining()) {
+                    gathering.write(buffers, 0, count);
+                }
+            } else {
+                for(int i = 0; i < count; i++) {
+                    while(buffers[i].hasRemaining()) {
+                        channel.write(buffers[i]);
+                    }
+                }
+            }
+        } finally {
+            for(int i = 0; i < count; i++) {
+                buffers[i].clear();
+            }
+            current = 0;
+        }
+    }
+    /**
+     * Checks that this writer is open.
+     * @throws IOException if this writer is closed.
+     */
+    private void ensureOpen() throws IOException {
+        if(closed) {
+            throw new IOException("Invoice channel writer is closed");
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.scg.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.scg.domain.ClientAccount;
+import com.scg.domain.TimeCard;
+
+/**
+ * Migrates legacy data files to the current binary format. Java-serialized client account and time card
+ * files are streamed into a client account list and a framed time card stream, with each time card
+ * written as soon as it is read, and binary files written with an older format version are rewritten
+ * with the current one. The kind and version of a file are taken from its first bytes, so a directory of
+ * archives is upgraded in one pass without deserializing files that are already current.
+ * @author Adam Spade
+ */
+public final class LegacyMigrator
+extends Object
+{
+    // CONSTANTS \\
+    /**
+     * Extension of Java-serialized files.
+     */
+    private static final String SER_EXTENSION = ".ser";
+    /**
+     * Extension of migrated binary files.
+     */
+    private static final String BIN_EXTENSION = ".bin";
+
+    // CONSTRUCTORS \\
+    /**
+     * Prevent instantiation.
+     */
+    private LegacyMigrator() {
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Migrates every legacy file in a directory. Each Java-serialized ".ser" file is written next to
+     * itself as a ".bin" file, and each ".bin" file with an older format version is rewritten in place.
+     * Files that are already current are left untouched. A file that cannot be migrated does not stop
+     * the others; once every file has been tried, the failures are reported together.
+     * @param directory to migrate.
+     * @return number of files written.
+     * @throws IOException if the directory cannot be listed or any file could not be migrated, with the
+     *         failure of each such file suppressed in it.
+     */
+    public static int migrateDirectory(final Path directory) throws IOException {
+        final Map<Path, IOException> failures = new TreeMap<>();
+        final int migrated = migrateDirectory(directory, failures);
+        if(!failures.isEmpty()) {
+            final IOException ex = new IOException("Migrated " + migrated + " files in " + directory
+                                                   + " but could not migrate " + failures.keySet());
+            for(IOException failure : failures.values()) {
+                ex.addSuppressed(failure);
+            }
+            throw ex;
+        }
+        return migrated;
+    }
+    /**
+     * Migrates every legacy file in a directory as {@link #migrateDirectory(Path)} does, skipping the
+     * files that cannot be migrated and recording why. A skipped file is left as it was.
+     * @param directory to migrate.
+     * @param failures receiving the failure of each skipped file, by file.
+     * @return number of files written.
+     * @throws IOException if the directory cannot be listed.
+     */
+    public static int migrateDirectory(final Path directory, final Map<Path, IOException> failures)
+            throws IOException {
+        int migrated = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for(Path file : files) {
+                if(!Files.isRegularFile(file)) {
+                    continue;
+                }
+                try {
+                    if(migrateFile(file)) {
+                        migrated++;
+                    }
+                } catch (IOException ex) {
+                    failures.put(file, ex);
+                } catch (RuntimeException ex) {
+                    failures.put(file, new IOException("Cannot migrate " + file, ex));
+                }
+            }
+        }
+        return migrated;
+    }
+    /**
+     * Migrates a Java-serialized file holding client accounts or time cards, either as lists or as
+     * individual objects. Client accounts are written as a client account list and time cards as a
+     * framed time card stream.
+     * @param source Java-serialized file.
+     * @param target binary file to write.
+     * @return number of objects migrated, or -1 if the file holds neither client accounts nor time cards.
+     * @throws IOException if a file cannot be read or written.
+     */
+    public static int migrateSerialized(final Path source, final Path target) throws IOException {
+        final List<ClientAccount> clients = new ArrayList<>();
+        final Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        TimeCardWriter writer = null;
+        int count = 0;
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            for(Object value = readObject(in); value != null; value = readObject(in)) {
+                final Collection<?> values = (value instanceof Collection)
+                                             ? (Collection<?>) value : Collections.singleton(value);
+                for(Object element : values) {
+                    if(element instanceof TimeCard && clients.isEmpty()) {
+                        if(writer == null) {
+                            writer = new TimeCardWriter(new BufferedOutputStream(Files.newOutputStream(temp)));
+                        }
+                        writer.write((TimeCard) element);
+                    }
+                    else if(element instanceof ClientAccount && writer == null) {
+                        clients.add((ClientAccount) element);
+                    }
+                    else {
+                        throw new StreamCorruptedException("Unexpected object in " + source + ": "
+                                                           + (element == null ? null : element.getClass()));
+                    }
+                    count++;
+                }
+            }
+            if(writer != null) {
+                writer.close();
+            }
+            else if(!clients.isEmpty()) {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                    BinaryFormat.writeClientAccounts(out, clients);
+                }
+            }
+            else {
+                return -1;
+            }
+        } catch (IOException | RuntimeException ex) {
+            if(writer != null) {
+                writer.close();
+            }
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+    /**
+     * Rewrites a client account list, time card list or framed time card stream written with an older
+     * format version in the current version. Time card streams are upgraded one time card at a time.
+     * @param file to upgrade in place.
+     * @return true if the file was rewritten, false if it is current or not an upgradable binary file.
+     * @throws IOException if the file cannot be read or written.
+     */
+    public static boolean upgrade(final Path file) throws IOException {
+        final int[] header = BinaryFormat.peekHeader(file);
+        if(header == null || header[1] >= BinaryFormat.VERSION) {
+            return false;
+        }
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            switch(header[0]) {
+                case BinaryFormat.CLIENT_LIST:
+                    final List<ClientAccount> clients;
+                    try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                        clients = BinaryFormat.readClientAccounts(in);
+                    }
+                    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                        BinaryFormat.writeClientAccounts(out, clients);
+                    }
+                    break;
+                case BinaryFormat.TIME_CARD_LIST:
+                    final List<TimeCard> timeCards;
+                    try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                        timeCards = BinaryFormat.readTimeCards(in);
+                    }
+                    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                        BinaryFormat.writeTimeCards(out, timeCards);
+                    }
+                    break;
+                case BinaryFormat.TIME_CARD_STREAM:
+                    try (TimeCardReader reader = new TimeCardReader(
+                                new BufferedInputStream(Files.newInputStream(file)));
+                         TimeCardWriter writer = new TimeCardWriter(
+                                new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                        while(reader.hasNext()) {
+                            writer.write(reader.next());
+                        }
+                    }
+                    break;
+                default:
+                    return false;
+            }
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    /**
+     * Migrates one file of a directory by its extension.
+     * @param file to migrate.
+     * @return true if a file was written.
+     * @throws IOException if the file cannot be read or written.
+     */
+    private static boolean migrateFile(final Path file) throws IOException {
+        final String name = file.getFileName().toString();
+        if(name.endsWith(SER_EXTENSION)) {
+            final Path target = file.resolveSibling(
+                    name.substring(0, name.length() - SER_EXTENSION.length()) + BIN_EXTENSION);
+            return migrateSerialized(file, target) >= 0;
+        }
+        return name.endsWith(BIN_EXTENSION) && upgrade(file);
+    }
+    /**
+     * Reads the next top-level object of a serialization stream.
+     * @param in stream to read from.
+     * @return the object read, or null at the end of the stream.
+     * @throws IOException if the object cannot be read or its class is unknown.
+     */
+    private static Object readObject(final ObjectInputStream in) throws IOException {
+        try {
+            return in.readObject();
+        } catch (EOFException ex) {
+            return null;
+        } catch (ClassNotFoundException ex) {
+            throw new StreamCorruptedException("Unknown class in serialized file: " + ex.getMessage());
+        }
+    }
+}
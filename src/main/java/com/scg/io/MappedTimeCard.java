@@ -0,0 +1,174 @@
+package com.scg.io;
+
+import java.time.LocalDate;
+
+import com.scg.domain.Consultant;
+import com.scg.domain.ConsultantTime;
+import com.scg.domain.Invoice;
+import com.scg.domain.InvoiceLineItem;
+import com.scg.domain.TimeCard;
+
+/**
+ * View of one time card in a {@link ColumnarTimeStore}, backed by a slice of the store's columns.
+ * Totals and invoice extraction scan the primitive columns directly; consultant time objects are only
+ * created by {@link #toTimeCard()}.
+ * @author Adam Spade
+ */
+public final class MappedTimeCard
+extends Object
+{
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the store holding the columns.
+     */
+    private final ColumnarTimeStore store;
+    /**
+     * Initializer for the consultant.
+     */
+    private final Consultant consultant;
+    /**
+     * Initializer for the epoch day of the week starting day.
+     */
+    private final int weekStartingDay;
+    /**
+     * Initializer for the first row of the slice.
+     */
+    private final int firstRow;
+    /**
+     * Initializer for the number of rows in the slice.
+     */
+    private final int rowCount;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a view over a slice of the store's columns.
+     * @param store holding the columns.
+     * @param consultant of the time card.
+     * @param weekStartingDay epoch day of the week starting day.
+     * @param firstRow first row of the slice.
+     * @param rowCount number of rows in the slice.
+     */
+    MappedTimeCard(final ColumnarTimeStore store, final Consultant consultant,
+                   final int weekStartingDay, final int firstRow, final int rowCount) {
+        this.store = store;
+        this.consultant = consultant;
+        this.weekStartingDay = weekStartingDay;
+        this.firstRow = firstRow;
+        this.rowCount = rowCount;
+    }
+
+    // GETTERS & SETTERS \\
+    /**
+     * Getter for consultant.
+     * @return consultant of the time card.
+     */
+    public Consultant getConsultant() {
+        return consultant;
+    }
+    /**
+     * Getter for starting day of week.
+     * @return week starting day.
+     */
+    public LocalDate getWeekStartingDay() {
+        return LocalDate.ofEpochDay(weekStartingDay);
+    }
+    /**
+     * Getter for the number of consultant time entries.
+     * @return number of entries on the time card.
+     */
+    public int getEntryCount() {
+        return rowCount;
+    }
+    /**
+     * Getter for total billable hours.
+     * @return sum of the billable hours.
+     */
+    public int getTotalBillableHours() {
+        int total = 0;
+        for(int row = firstRow; row < firstRow + rowCount; row++) {
+            if(store.isBillable(store.accountId(row))) {
+                total += store.hours(row);
+            }
+        }
+        return total;
+    }
+    /**
+     * Getter for total non-billable hours.
+     * @return sum of the non-billable hours.
+     */
+    public int getTotalNonBillableHours() {
+        int total = 0;
+        for(int row = firstRow; row < firstRow + rowCount; row++) {
+            if(!store.isBillable(store.accountId(row))) {
+                total += store.hours(row);
+            }
+        }
+        return total;
+    }
+    /**
+     * Getter for total hours.
+     * @return sum of all hours.
+     */
+    public int getTotalHours() {
+        int total = 0;
+        for(int row = firstRow; row < firstRow + rowCount; row++) {
+            total += store.hours(row);
+        }
+        return total;
+    }
+    /**
+     * Getter for the billable hours recorded for a client.
+     * @param clientName name of client.
+     * @return sum of the billable hours for the client.
+     */
+    public int getTotalBillableHoursForClient(final String clientName) {
+        final boolean[] client = store.getClientAccountMask(clientName);
+        int total = 0;
+        for(int row = firstRow; row < firstRow + rowCount; row++) {
+            if(client[store.accountId(row)]) {
+                total += store.hours(row);
+            }
+        }
+        return total;
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Adds a line item to the invoice for every billable entry for the invoice's client in the
+     * invoice's month. Only the matching rows allocate.
+     * @param invoice to add the line items to.
+     */
+    public void extractLineItems(final Invoice invoice) {
+        final boolean[] client = store.getClientAccountMask(invoice.getClientAccount().getName());
+        final LocalDate start = invoice.getStartDate();
+        final long first = start.toEpochDay();
+        final long last = start.plusMonths(1).toEpochDay() - 1;
+        for(int row = firstRow; row < firstRow + rowCount; row++) {
+            final int date = store.date(row);
+            if(client[store.accountId(row)] && date >= first && date <= last) {
+                invoice.addLineItem(new InvoiceLineItem(LocalDate.ofEpochDay(date), consultant,
+                                                        store.skill(row), store.hours(row)));
+            }
+        }
+    }
+    /**
+     * Materializes this view as a time card.
+     * @return time card holding a consultant time for every row of the slice.
+     */
+    public TimeCard toTimeCard() {
+        final TimeCard timeCard = new TimeCard(consultant, getWeekStartingDay());
+        for(int row = firstRow; row < firstRow + rowCount; row++) {
+            timeCard.addConsultantTime(new ConsultantTime(LocalDate.ofEpochDay(store.date(row)),
+                    store.account(store.accountId(row)), store.skill(row), store.hours(row)));
+        }
+        return timeCard;
+    }
+    /**
+     * Creates as string with consultant name and work week starting day.
+     * @return string with consultant name and starting day of work week.
+     */
+    @Override
+    public String toString() {
+        return String.format("Consultant: %s Week Starting: %s", consultant, getWeekStartingDay());
+    }
+}
@@ -0,0 +1,199 @@
+package com.scg.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.scg.domain.Consultant;
+import com.scg.domain.TimeCard;
+import com.scg.util.PersonalName;
+
+/**
+ * Random access reader for an indexed time card archive written by a {@link TimeCardArchiveWriter}.
+ * Opening the archive reads only the footer index; each lookup by consultant and week starting day
+ * then reads just the records it returns.
+ * @author Adam Spade
+ */
+public final class TimeCardArchive
+extends Object
+implements Closeable
+{
+    // CONSTANTS \\
+    /**
+     * Bytes in the trailer: footer offset and magic number.
+     */
+    private static final int TRAILER = 12;
+
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the archive channel.
+     */
+    private final FileChannel channel;
+    /**
+     * Initializer for the format version of the archive.
+     */
+    private final int version;
+    /**
+     * Initializer for the index of record locations by consultant name and week starting epoch day.
+     */
+    private final Map<PersonalName, NavigableMap<Long, List<long[]>>> index = new HashMap<>();
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a reader over an open archive channel.
+     * @param channel of the archive file.
+     * @throws IOException if the footer index cannot be read.
+     */
+    private TimeCardArchive(final FileChannel channel) throws IOException {
+        this.channel = channel;
+        final ByteBuffer header = read(0, 6);
+        version = BinaryFormat.readHeader(new DataInputStream(new ByteArrayInputStream(header.array())),
+                                          BinaryFormat.ARCHIVE);
+        final long size = channel.size();
+        final ByteBuffer trailer = read(size - TRAILER, TRAILER);
+        final long footer = trailer.getLong(0);
+        if(trailer.getInt(8) != BinaryFormat.MAGIC || footer < 0 || footer > size - TRAILER) {
+            throw new StreamCorruptedException("Time card archive has no footer");
+        }
+        final ByteBuffer footerBytes = read(footer, Math.toIntExact(size - TRAILER - footer));
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(footerBytes.array()));
+        final BinaryDecoder decoder = new BinaryDecoder(in, version);
+        final int count = decoder.readVarInt();
+        for(int i = 0; i < count; i++) {
+            final PersonalName name = decoder.readConsultant().getName();
+            final long week = decoder.readSignedVarInt();
+            final long offset = in.readLong();
+            final long length = decoder.readVarInt();
+            index.computeIfAbsent(name, n -> new TreeMap<>())
+                 .computeIfAbsent(week, w -> new ArrayList<>(1))
+                 .add(new long[] {offset, length});
+        }
+    }
+
+    // GETTERS & SETTERS \\
+    /**
+     * Getter for the names of the consultants in the archive.
+     * @return unmodifiable set of consultant names.
+     */
+    public Set<PersonalName> getConsultantNames() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+    /**
+     * Getter for the time cards of a consultant for one week.
+     * @param consultant whose time cards are being retrieved.
+     * @param weekStartingDay of the time cards.
+     * @return the matching time cards, empty if there are none.
+     * @throws IOException if a record cannot be read.
+     */
+    public List<TimeCard> getTimeCards(final Consultant consultant, final LocalDate weekStartingDay)
+    throws IOException {
+        return getTimeCards(consultant, weekStartingDay, weekStartingDay);
+    }
+    /**
+     * Getter for the time cards of a consultant whose week starts within a range of days.
+     * @param consultant whose time cards are being retrieved.
+     * @param firstWeek earliest week starting day, inclusive.
+     * @param lastWeek latest week starting day, inclusive.
+     * @return the matching time cards in week order, empty if there are none.
+     * @throws IOException if a record cannot be read.
+     */
+    public List<TimeCard> getTimeCards(final Consultant consultant, final LocalDate firstWeek,
+                                       final LocalDate lastWeek) throws IOException {
+        final NavigableMap<Long, List<long[]>> weeks = index.get(consultant.getName());
+        if(weeks == null) {
+            return Collections.emptyList();
+        }
+        return readAll(weeks.subMap(firstWeek.toEpochDay(), true, lastWeek.toEpochDay(), true));
+    }
+    /**
+     * Getter for all time cards of a consultant.
+     * @param consultant whose time cards are being retrieved.
+     * @return the consultant's time cards in week order, empty if there are none.
+     * @throws IOException if a record cannot be read.
+     */
+    public List<TimeCard> getTimeCards(final Consultant consultant) throws IOException {
+        final NavigableMap<Long, List<long[]>> weeks = index.get(consultant.getName());
+        if(weeks == null) {
+            return Collections.emptyList();
+        }
+        return readAll(weeks);
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Opens an archive file and reads its footer index.
+     * @param file of the archive.
+     * @return the archive reader.
+     * @throws IOException if the file cannot be opened or is not a time card archive.
+     */
+    public static TimeCardArchive open(final Path file) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new TimeCardArchive(channel);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+    /**
+     * Closes the archive file.
+     * @throws IOException if the close fails.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads the records at the given locations.
+     * @param locations of the records keyed by week.
+     * @return the decoded time cards.
+     * @throws IOException if a record cannot be read.
+     */
+    private List<TimeCard> readAll(final Map<Long, List<long[]>> locations) throws IOException {
+        final List<TimeCard> timeCards = new ArrayList<>();
+        for(List<long[]> records : locations.values()) {
+            for(long[] record : records) {
+                final ByteBuffer bytes = read(record[0], (int) record[1]);
+                timeCards.add(new BinaryDecoder(new DataInputStream(new ByteArrayInputStream(bytes.array())),
+                                                version).readTimeCard());
+            }
+        }
+        return timeCards;
+    }
+    /**
+     * Reads a range of bytes from the archive.
+     * @param position of the first byte.
+     * @param length of the range.
+     * @return buffer holding the bytes.
+     * @throws IOException if the range cannot be read.
+     */
+    private ByteBuffer read(final long position, final int length) throws IOException {
+        if(position < 0) {
+            throw new StreamCorruptedException("Invalid archive offset: " + position);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while(buffer.hasRemaining()) {
+            if(channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Time card archive is truncated");
+            }
+        }
+        return buffer;
+    }
+}
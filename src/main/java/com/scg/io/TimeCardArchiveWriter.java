@@ -0,0 +1,118 @@
+package com.scg.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.scg.domain.Consultant;
+import com.scg.domain.TimeCard;
+
+/**
+ * Writes an indexed time card archive that a {@link TimeCardArchive} can read one record at a time.
+ * Each time card is written as a self-contained record, and closing the writer appends a footer index
+ * mapping every consultant and week starting day to the offset and length of its record, followed by
+ * the offset of the footer itself.
+ * @author Adam Spade
+ */
+public final class TimeCardArchiveWriter
+extends Object
+implements Closeable
+{
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the archive file.
+     */
+    private final DataOutputStream out;
+    /**
+     * Initializer for the reusable record buffer.
+     */
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    /**
+     * Initializer for the consultant of each record.
+     */
+    private final List<Consultant> consultants = new ArrayList<>();
+    /**
+     * Initializer for the week starting epoch day of each record.
+     */
+    private final List<Long> weeks = new ArrayList<>();
+    /**
+     * Initializer for the offset of each record.
+     */
+    private final List<Long> offsets = new ArrayList<>();
+    /**
+     * Initializer for the length of each record.
+     */
+    private final List<Integer> lengths = new ArrayList<>();
+    /**
+     * Initializer for the number of bytes written so far.
+     */
+    private long position;
+    /**
+     * Initializer for the closed flag.
+     */
+    private boolean closed;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a writer that creates the archive file and writes its header.
+     * @param file to write the archive to.
+     * @throws IOException if the file cannot be created.
+     */
+    public TimeCardArchiveWriter(final Path file) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        BinaryFormat.writeHeader(out, BinaryFormat.ARCHIVE);
+        this.position = out.size();
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Writes one time card as a self-contained record.
+     * @param timeCard to write.
+     * @throws IOException if the write fails or this writer is closed.
+     */
+    public void write(final TimeCard timeCard) throws IOException {
+        if(closed) {
+            throw new IOException("Time card archive writer is closed");
+        }
+        record.reset();
+        new BinaryEncoder(new DataOutputStream(record)).writeTimeCard(timeCard);
+        consultants.add(timeCard.getConsultant());
+        weeks.add(timeCard.getWeekStartingDay().toEpochDay());
+        offsets.add(position);
+        lengths.add(record.size());
+        record.writeTo(out);
+        position += record.size();
+    }
+    /**
+     * Writes the footer index and closes the archive file.
+     * @throws IOException if the footer cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if(closed) {
+            return;
+        }
+        closed = true;
+        try {
+            final long footer = position;
+            final BinaryEncoder encoder = new BinaryEncoder(out);
+            encoder.writeVarInt(consultants.size());
+            for(int i = 0; i < consultants.size(); i++) {
+                encoder.writeConsultant(consultants.get(i));
+                encoder.writeSignedVarInt(Math.toIntExact(weeks.get(i)));
+                out.writeLong(offsets.get(i));
+                encoder.writeVarInt(lengths.get(i));
+            }
+            out.writeLong(footer);
+            out.writeInt(BinaryFormat.MAGIC);
+        } finally {
+            out.close();
+        }
+    }
+}
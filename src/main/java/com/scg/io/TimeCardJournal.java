@@ -0,0 +1,451 @@
+package com.scg.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import com.scg.domain.Consultant;
+import com.scg.domain.ConsultantTime;
+import com.scg.domain.TimeCard;
+
+/**
+ * Append-only write-ahead journal for consultant time capture. Every consultant time added through the
+ * journal is appended as one small checksummed record, tagged with its format version, naming its time
+ * card, and the file is forced to disk once per batch of records. Compaction writes the time cards to a
+ * snapshot file, tagged with the sequence number of the last record it contains, and empties the
+ * journal. Opening a journal loads the snapshot and replays the newer records on top of it, discarding a
+ * torn record at the end of the file; a damaged record followed by more data fails the open instead, so
+ * the records after it are never thrown away.
+ * @author Adam Spade
+ */
+public final class TimeCardJournal
+extends Object
+implements Closeable
+{
+    // CONSTANTS \\
+    /**
+     * Default number of records appended between forces to disk.
+     */
+    public static final int DEFAULT_SYNC_INTERVAL = 32;
+    /**
+     * Default number of records appended between compactions.
+     */
+    public static final int DEFAULT_COMPACTION_INTERVAL = 10000;
+    /**
+     * Bytes in a record header: payload length and checksum.
+     */
+    private static final int RECORD_HEADER = 8;
+
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the snapshot file.
+     */
+    private final Path snapshot;
+    /**
+     * Initializer for the journal file.
+     */
+    private final Path journal;
+    /**
+     * Initializer for the number of records between forces to disk.
+     */
+    private final int syncInterval;
+    /**
+     * Initializer for the number of records between compactions.
+     */
+    private final int compactionInterval;
+    /**
+     * Initializer for the time cards in capture order.
+     */
+    private final List<TimeCard> timeCards = new ArrayList<>();
+    /**
+     * Initializer for the time cards keyed by consultant name and week starting day.
+     */
+    private final Map<List<Object>, TimeCard> cardsByKey = new HashMap<>();
+    /**
+     * Initializer for the reusable record buffer.
+     */
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    /**
+     * Initializer for the checksum of each record.
+     */
+    private final CRC32 crc = new CRC32();
+    /**
+     * Initializer for the journal channel.
+     */
+    private FileChannel channel;
+    /**
+     * Initializer for the sequence number of the last record.
+     */
+    private long sequence;
+    /**
+     * Initializer for the records appended since the last force to disk.
+     */
+    private int unsynced;
+    /**
+     * Initializer for the records appended since the last compaction.
+     */
+    private int uncompacted;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a journal, recovering the time cards from the snapshot and journal files.
+     * @param snapshot file the journal is compacted into.
+     * @param journal file the records are appended to.
+     * @param syncInterval number of records appended between forces to disk.
+     * @param compactionInterval number of records appended between compactions.
+     * @throws IOException if the files cannot be read or the journal cannot be opened.
+     */
+    public TimeCardJournal(final Path snapshot, final Path journal,
+                           final int syncInterval, final int compactionInterval) throws IOException {
+        if(syncInterval <= 0 || compactionInterval <= 0) {
+            throw new IllegalArgumentException("intervals must be greater than zero");
+        }
+        this.snapshot = snapshot;
+        this.journal = journal;
+        this.syncInterval = syncInterval;
+        this.compactionInterval = compactionInterval;
+        recover();
+    }
+    /**
+     * Constructor for a journal with the default sync and compaction intervals.
+     * @param snapshot file the journal is compacted into.
+     * @param journal file the records are appended to.
+     * @throws IOException if the files cannot be read or the journal cannot be opened.
+     */
+    public TimeCardJournal(final Path snapshot, final Path journal) throws IOException {
+        this(snapshot, journal, DEFAULT_SYNC_INTERVAL, DEFAULT_COMPACTION_INTERVAL);
+    }
+
+    // GETTERS & SETTERS \\
+    /**
+     * Getter for the recovered and captured time cards.
+     * @return unmodifiable view of the time cards.
+     */
+    public synchronized List<TimeCard> getTimeCards() {
+        return Collections.unmodifiableList(timeCards);
+    }
+    /**
+     * Getter for the time card of a consultant for a week, creating it if it does not exist yet.
+     * @param consultant of the time card.
+     * @param weekStartingDay of the time card.
+     * @return the journaled time card.
+     */
+    public synchronized TimeCard getTimeCard(final Consultant consultant, final LocalDate weekStartingDay) {
+        final List<Object> key = Arrays.asList(consultant.getName(), weekStartingDay);
+        TimeCard timeCard = cardsByKey.get(key);
+        if(timeCard == null) {
+            timeCard = new TimeCard(consultant, weekStartingDay);
+            cardsByKey.put(key, timeCard);
+            timeCards.add(timeCard);
+        }
+        return timeCard;
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Appends a consultant time to the journal and then adds it to its time card.
+     * @param consultant of the time card.
+     * @param weekStartingDay of the time card.
+     * @param consultantTime to add.
+     * @return the time card the consultant time was added to.
+     * @throws IOException if the record cannot be appended.
+     */
+    public synchronized TimeCard addConsultantTime(final Consultant consultant, final LocalDate weekStartingDay,
+                                                   final ConsultantTime consultantTime) throws IOException {
+        final TimeCard timeCard = getTimeCard(consultant, weekStartingDay);
+        append(timeCard, consultantTime);
+        timeCard.addConsultantTime(consultantTime);
+        if(++uncompacted >= compactionInterval) {
+            compact();
+        }
+        return timeCard;
+    }
+    /**
+     * Appends a consultant time to the journal and then adds it to the time card.
+     * @param timeCard to add the consultant time to.
+     * @param consultantTime to add.
+     * @return the journaled time card the consultant time was added to.
+     * @throws IOException if the record cannot be appended.
+     */
+    public TimeCard addConsultantTime(final TimeCard timeCard, final ConsultantTime consultantTime)
+    throws IOException {
+        return addConsultantTime(timeCard.getConsultant(), timeCard.getWeekStartingDay(), consultantTime);
+    }
+    /**
+     * Forces every appended record to disk.
+     * @throws IOException if the force fails.
+     */
+    public synchronized void sync() throws IOException {
+        if(unsynced > 0) {
+            channel.force(false);
+            unsynced = 0;
+        }
+    }
+    /**
+     * Writes every time card to the snapshot file and empties the journal. The snapshot is written to a
+     * temporary file and moved into place, so a crash leaves either the old or the new snapshot.
+     * @throws IOException if the snapshot cannot be written or the journal cannot be truncated.
+     */
+    public synchronized void compact() throws IOException {
+        sync();
+        final Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final OutputStream stream = new BufferedOutputStream(Channels.newOutputStream(out));
+            final DataOutputStream data = new DataOutputStream(stream);
+            BinaryFormat.writeHeader(data, BinaryFormat.SNAPSHOT);
+            data.writeLong(sequence);
+            final TimeCardWriter writer = new TimeCardWriter(new NonClosingOutputStream(data));
+            for(TimeCard timeCard : timeCards) {
+                writer.write(timeCard);
+            }
+            writer.close();
+            data.flush();
+            out.force(true);
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel.truncate(0);
+        channel.force(true);
+        uncompacted = 0;
+    }
+    /**
+     * Forces the appended records to disk and closes the journal.
+     * @throws IOException if the force or close fails.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if(channel.isOpen()) {
+            try {
+                sync();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Appends one record, forcing the journal to disk at the end of each batch.
+     * @param timeCard the consultant time belongs to.
+     * @param consultantTime to record.
+     * @throws IOException if the append fails.
+     */
+    private void append(final TimeCard timeCard, final ConsultantTime consultantTime) throws IOException {
+        final long weekStart = timeCard.getWeekStartingDay().toEpochDay();
+        record.reset();
+        final DataOutputStream data = new DataOutputStream(record);
+        data.writeLong(0L);
+        data.writeByte(BinaryFormat.VERSION);
+        data.writeLong(sequence + 1);
+        final BinaryEncoder encoder = new BinaryEncoder(data);
+        encoder.writeConsultant(timeCard.getConsultant());
+        encoder.writeSignedVarInt(Math.toIntExact(weekStart));
+        encoder.writeConsultantTime(consultantTime, weekStart);
+        final ByteBuffer buffer = ByteBuffer.wrap(record.toByteArray());
+        crc.reset();
+        crc.update(buffer.array(), RECORD_HEADER, buffer.limit() - RECORD_HEADER);
+        buffer.putInt(0, buffer.limit() - RECORD_HEADER);
+        buffer.putInt(4, (int) crc.getValue());
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        sequence++;
+        if(++unsynced >= syncInterval) {
+            sync();
+        }
+    }
+    /**
+     * Loads the snapshot, replays the journal records newer than it and opens the journal for
+     * appending, truncating a torn record at its end. The journal is closed again if recovery fails.
+     * @throws IOException if the files cannot be read, a record other than the last is damaged, or the
+     * journal cannot be opened.
+     */
+    private void recover() throws IOException {
+        if(Files.exists(snapshot)) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(snapshot))) {
+                final DataInputStream data = new DataInputStream(in);
+                BinaryFormat.readHeader(data, BinaryFormat.SNAPSHOT);
+                sequence = data.readLong();
+                final TimeCardReader reader = new TimeCardReader(data);
+                while(reader.hasNext()) {
+                    final TimeCard timeCard = reader.next();
+                    cardsByKey.put(Arrays.asList(timeCard.getConsultant().getName(),
+                                                 timeCard.getWeekStartingDay()), timeCard);
+                    timeCards.add(timeCard);
+                }
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        }
+        channel = FileChannel.open(journal, StandardOpenOption.CREATE,
+                                   StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final long position = replayJournal();
+            channel.truncate(position);
+            channel.position(position);
+        } catch (IOException | RuntimeException ex) {
+            try {
+                channel.close();
+            } catch (IOException closeEx) {
+                ex.addSuppressed(closeEx);
+            }
+            throw ex;
+        }
+    }
+    /**
+     * Replays the journal records up to the end of the file or a torn record at its end.
+     * @return position of the end of the last whole record.
+     * @throws StreamCorruptedException if a damaged record is followed by more data.
+     * @throws IOException if the journal cannot be read.
+     */
+    private long replayJournal() throws IOException {
+        final long size = channel.size();
+        long position = 0;
+        final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        while(position < size) {
+            header.clear();
+            if(position + RECORD_HEADER > size) {
+                break;
+            }
+            readFully(header, position);
+            final int length = header.getInt(0);
+            if(length <= 0) {
+                if(isZeroFilled(position)) {
+                    break;
+                }
+                throw corrupt(position, "bad record length " + length);
+            }
+            if(position + RECORD_HEADER + length > size) {
+                break;
+            }
+            final ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + RECORD_HEADER);
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if((int) crc.getValue() != header.getInt(4)) {
+                if(position + RECORD_HEADER + length == size) {
+                    break;
+                }
+                throw corrupt(position, "checksum mismatch");
+            }
+            replay(payload.array());
+            position += RECORD_HEADER + length;
+            uncompacted++;
+        }
+        return position;
+    }
+    /**
+     * Reads the journal into a buffer until it is full.
+     * @param buffer to fill.
+     * @param position in the journal to read from.
+     * @throws IOException if the journal ends before the buffer is full.
+     */
+    private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        while(buffer.hasRemaining()) {
+            if(channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Journal " + journal + " ends at " + (position + buffer.position()));
+            }
+        }
+    }
+    /**
+     * Checks whether the journal holds only zero bytes from a position to its end, as a file extended by
+     * a crash before its last record was written does.
+     * @param position to check from.
+     * @return true if every byte from the position on is zero.
+     * @throws IOException if the journal cannot be read.
+     */
+    private boolean isZeroFilled(final long position) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long next = position;
+        while(true) {
+            buffer.clear();
+            final int read = channel.read(buffer, next);
+            if(read < 0) {
+                return true;
+            }
+            for(int i = 0; i < read; i++) {
+                if(buffer.get(i) != 0) {
+                    return false;
+                }
+            }
+            next += read;
+        }
+    }
+    /**
+     * Creates the exception for a damaged record that is not at the end of the journal.
+     * @param position of the record.
+     * @param problem found in the record.
+     * @return the exception.
+     */
+    private StreamCorruptedException corrupt(final long position, final String problem) {
+        return new StreamCorruptedException("Journal " + journal + " is damaged at offset " + position + ": "
+                                            + problem + ", with more records after it");
+    }
+    /**
+     * Replays one journal record if it is newer than the snapshot.
+     * @param payload of the record.
+     * @throws IOException if the record is malformed.
+     */
+    private void replay(final byte[] payload) throws IOException {
+        final DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload));
+        final int version = data.readUnsignedByte();
+        final long recordSequence = data.readLong();
+        if(recordSequence <= sequence) {
+            return;
+        }
+        final BinaryDecoder decoder;
+        try {
+            decoder = new BinaryDecoder(data, version);
+        } catch (IllegalArgumentException ex) {
+            throw new StreamCorruptedException(ex.getMessage());
+        }
+        final Consultant consultant = decoder.readConsultant();
+        final long weekStart = decoder.readSignedVarInt();
+        final ConsultantTime consultantTime = decoder.readConsultantTime(weekStart);
+        getTimeCard(consultant, LocalDate.ofEpochDay(weekStart)).addConsultantTime(consultantTime);
+        sequence = recordSequence;
+    }
+
+    // INNER CLASS \\
+    /**
+     * Output stream that flushes instead of closing the stream it wraps.
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(final OutputStream out) {
+            super(out);
+        }
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+        }
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.scg.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.scg.domain.TimeCard;
+
+/**
+ * Reads time cards one at a time from a framed time card stream written by a {@link TimeCardWriter}.
+ * Only the frame currently being decoded is held in memory. Read failures are reported by the
+ * iterator methods as {@link UncheckedIOException}, including a stream that ends without the empty
+ * frame a writer closes it with.
+ * @author Adam Spade
+ */
+public final class TimeCardReader
+extends Object
+implements Iterator<TimeCard>, Closeable
+{
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the source stream.
+     */
+    private final DataInputStream in;
+    /**
+     * Initializer for the decoder used for the frame lengths.
+     */
+    private final BinaryDecoder lengthDecoder;
+    /**
+     * Initializer for the reusable frame buffer.
+     */
+    private final FrameInputStream frame = new FrameInputStream();
+    /**
+     * Initializer for the decoder, whose tables are shared by every frame in the stream.
+     */
+    private final BinaryDecoder decoder;
+    /**
+     * Initializer for the time card decoded ahead by hasNext.
+     */
+    private TimeCard next;
+    /**
+     * Initializer for the end of stream flag.
+     */
+    private boolean finished;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a reader that checks the stream header immediately.
+     * @param in source stream, closed when this reader is closed.
+     * @throws IOException if the header cannot be read or is not a time card stream header.
+     */
+    public TimeCardReader(final InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        final int version = BinaryFormat.readHeader(this.in, BinaryFormat.TIME_CARD_STREAM);
+        this.lengthDecoder = new BinaryDecoder(this.in, version);
+        this.decoder = new BinaryDecoder(new DataInputStream(frame), version);
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Determines if another time card is available, decoding it if necessary.
+     * @return true if another time card is available.
+     * @throws UncheckedIOException if the next frame cannot be read.
+     */
+    @Override
+    public boolean hasNext() {
+        if(next == null && !finished) {
+            try {
+                next = readFrame();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            finished = next == null;
+        }
+        return next != null;
+    }
+    /**
+     * Returns the next time card.
+     * @return the next time card.
+     * @throws NoSuchElementException if the stream has no more time cards.
+     */
+    @Override
+    public TimeCard next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final TimeCard timeCard = next;
+        next = null;
+        return timeCard;
+    }
+    /**
+     * Returns a sequential stream over the remaining time cards, closing this reader when the stream
+     * is closed.
+     * @return stream of the remaining time cards.
+     */
+    public Stream<TimeCard> stream() {
+        final Spliterator<TimeCard> spliterator = Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+    /**
+     * Closes the source stream.
+     * @throws IOException if the close fails.
+     */
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        next = null;
+        in.close();
+    }
+
+    /**
+     * Reads and decodes the next frame.
+     * @return the decoded time card, or null at the end of the stream.
+     * @throws IOException if the frame cannot be read or is malformed, or the stream is truncated.
+     */
+    private TimeCard readFrame() throws IOException {
+        final int length;
+        try {
+            length = lengthDecoder.readVarInt();
+        } catch (EOFException ex) {
+            throw new EOFException("Time card stream ends without its terminating frame");
+        }
+        if(length == 0) {
+            return null;
+        }
+        if(length < 0) {
+            throw new StreamCorruptedException("Invalid frame length: " + length);
+        }
+        frame.fill(in, length);
+        final TimeCard timeCard = decoder.readTimeCard();
+        if(frame.available() != 0) {
+            throw new StreamCorruptedException("Frame has " + frame.available() + " trailing bytes");
+        }
+        return timeCard;
+    }
+
+    // INNER CLASS \\
+    /**
+     * Byte array input stream whose buffer is reused for each frame.
+     */
+    private static final class FrameInputStream extends ByteArrayInputStream {
+        FrameInputStream() {
+            super(new byte[256]);
+        }
+        void fill(final DataInputStream source, final int length) throws IOException {
+            if(buf.length < length) {
+                buf = new byte[Math.max(length, buf.length * 2)];
+            }
+            source.readFully(buf, 0, length);
+            pos = 0;
+            count = length;
+            mark = 0;
+        }
+    }
+}
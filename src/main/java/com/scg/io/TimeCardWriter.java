@@ -0,0 +1,108 @@
+package com.scg.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.scg.domain.TimeCard;
+
+/**
+ * Writes time cards one at a time to a framed time card stream. Every time card is written as a
+ * length-prefixed frame and the stream is terminated by an empty frame, so a {@link TimeCardReader}
+ * can decode the cards one at a time without holding the whole list in memory. A write that fails
+ * leaves the encoder tables out of step with the stream, so the writer then rejects every further write
+ * and closes without the terminating frame.
+ * @author Adam Spade
+ */
+public final class TimeCardWriter
+extends Object
+implements Closeable, Flushable
+{
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the destination stream.
+     */
+    private final DataOutputStream out;
+    /**
+     * Initializer for the reusable frame buffer.
+     */
+    private final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+    /**
+     * Initializer for the encoder, whose tables are shared by every frame in the stream.
+     */
+    private final BinaryEncoder encoder = new BinaryEncoder(new DataOutputStream(frame));
+    /**
+     * Initializer for the encoder used for the frame lengths.
+     */
+    private final BinaryEncoder lengthEncoder;
+    /**
+     * Initializer for the closed flag.
+     */
+    private boolean closed;
+    /**
+     * Initializer for the flag set once a write has failed.
+     */
+    private boolean failed;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a writer that writes the stream header immediately.
+     * @param out destination stream, closed when this writer is closed.
+     * @throws IOException if the header cannot be written.
+     */
+    public TimeCardWriter(final OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.lengthEncoder = new BinaryEncoder(this.out);
+        BinaryFormat.writeHeader(this.out, BinaryFormat.TIME_CARD_STREAM);
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Writes one time card as a frame.
+     * @param timeCard to write.
+     * @throws IOException if the write fails, an earlier write failed or this writer is closed.
+     */
+    public void write(final TimeCard timeCard) throws IOException {
+        if(closed) {
+            throw new IOException("Time card writer is closed");
+        }
+        if(failed) {
+            throw new IOException("Time card writer failed on an earlier write");
+        }
+        failed = true;
+        frame.reset();
+        encoder.writeTimeCard(timeCard);
+        lengthEncoder.writeVarInt(frame.size());
+        frame.writeTo(out);
+        failed = false;
+    }
+    /**
+     * Flushes the destination stream.
+     * @throws IOException if the flush fails.
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+    /**
+     * Writes the terminating empty frame, unless a write failed, and closes the destination stream.
+     * @throws IOException if the write or close fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if(closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if(!failed) {
+                lengthEncoder.writeVarInt(0);
+            }
+        } finally {
+            out.close();
+        }
+    }
+}
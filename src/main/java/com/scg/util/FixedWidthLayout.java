@@ -0,0 +1,476 @@
+package com.scg.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DateFormatSymbols;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IllegalFormatException;
+import java.util.List;
+import java.util.Locale;
+import java.util.UnknownFormatConversionException;
+
+/**
+ * Fixed column text layout compiled once from a {@link java.util.Formatter} style pattern and then
+ * rendered any number of times without parsing. The supported subset is what the reports use: padded
+ * text ({@code %s}), integers ({@code %d}), two-decimal currency with optional grouping
+ * ({@code %,10.2f}), the date parts {@code %tm %td %tY %tB %tb}, {@code %n} and {@code %%}, with
+ * explicit argument indexes, left justification and widths. Numbers and dates are written digit by
+ * digit into the destination, and the output is the same as {@code String.format} with the default
+ * format locale at the time the layout was compiled. One conversion is not in the formatter:
+ * {@code %,10.2m} writes an integer holding a fixed-point amount scaled by ten to the precision, such
+ * as a long number of cents, exactly as {@code %,10.2f} would write the unscaled amount. Layouts are
+ * immutable and safe to share between threads.
+ * @author Adam Spade
+ */
+public final class FixedWidthLayout
+extends Object
+{
+    // CONSTANTS \\
+    /**
+     * Field kind for literal text.
+     */
+    private static final int LITERAL = 0;
+    /**
+     * Field kind for a value written with its string form.
+     */
+    private static final int TEXT = 1;
+    /**
+     * Field kind for an integer.
+     */
+    private static final int INTEGER = 2;
+    /**
+     * Field kind for a fixed-point decimal.
+     */
+    private static final int DECIMAL = 3;
+    /**
+     * Field kind for the two digit month of a date.
+     */
+    private static final int MONTH = 4;
+    /**
+     * Field kind for the two digit day of a date.
+     */
+    private static final int DAY = 5;
+    /**
+     * Field kind for the four digit year of a date.
+     */
+    private static final int YEAR = 6;
+    /**
+     * Field kind for the full month name of a date.
+     */
+    private static final int MONTH_NAME = 7;
+    /**
+     * Field kind for the abbreviated month name of a date.
+     */
+    private static final int SHORT_MONTH_NAME = 8;
+    /**
+     * Field kind for an integer holding a fixed-point decimal.
+     */
+    private static final int FIXED_POINT = 9;
+    /**
+     * Powers of ten that fit in a long.
+     */
+    private static final long[] POWERS_OF_TEN = new long[19];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for(int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the kind of each field.
+     */
+    private final int[] kinds;
+    /**
+     * Initializer for the argument index of each field, or the literal index for literal fields.
+     */
+    private final int[] arguments;
+    /**
+     * Initializer for the minimum width of each field, 0 for none.
+     */
+    private final int[] widths;
+    /**
+     * Initializer for the precision of each field, -1 for none.
+     */
+    private final int[] precisions;
+    /**
+     * Initializer for the left justification flag of each field.
+     */
+    private final boolean[] leftJustified;
+    /**
+     * Initializer for the grouping flag of each field.
+     */
+    private final boolean[] grouped;
+    /**
+     * Initializer for the literal text of the layout.
+     */
+    private final String[] literals;
+    /**
+     * Initializer for the number of arguments the layout uses.
+     */
+    private final int argumentCount;
+    /**
+     * Initializer for the full month names.
+     */
+    private final String[] monthNames;
+    /**
+     * Initializer for the abbreviated month names.
+     */
+    private final String[] shortMonthNames;
+    /**
+     * Initializer for the zero digit.
+     */
+    private final char zero;
+    /**
+     * Initializer for the grouping separator.
+     */
+    private final char groupingSeparator;
+    /**
+     * Initializer for the decimal separator.
+     */
+    private final char decimalSeparator;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for a layout compiled from a pattern.
+     * @param pattern to compile.
+     * @param locale whose digits, separators and month names are used.
+     */
+    private FixedWidthLayout(final String pattern, final Locale locale) {
+        final List<int[]> fields = new ArrayList<>();
+        final List<String> text = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        int ordinary = 0;
+        int maxArgument = 0;
+        int i = 0;
+        while(i < pattern.length()) {
+            final char c = pattern.charAt(i++);
+            if(c != '%') {
+                literal.append(c);
+                continue;
+            }
+            int start = i;
+            int index = 0;
+            while(i < pattern.length() && Character.isDigit(pattern.charAt(i))) {
+                i++;
+            }
+            if(i < pattern.length() && pattern.charAt(i) == '$' && i > start) {
+                index = Integer.parseInt(pattern.substring(start, i));
+                start = ++i;
+            }
+            else {
+                i = start;
+            }
+            boolean left = false;
+            boolean grouping = false;
+            for(; i < pattern.length() && (pattern.charAt(i) == '-' || pattern.charAt(i) == ','); i++) {
+                left |= pattern.charAt(i) == '-';
+                grouping |= pattern.charAt(i) == ',';
+            }
+            start = i;
+            while(i < pattern.length() && Character.isDigit(pattern.charAt(i))) {
+                i++;
+            }
+            final int width = (i > start) ? Integer.parseInt(pattern.substring(start, i)) : 0;
+            int precision = -1;
+            if(i < pattern.length() && pattern.charAt(i) == '.') {
+                start = ++i;
+                while(i < pattern.length() && Character.isDigit(pattern.charAt(i))) {
+                    i++;
+                }
+                precision = Integer.parseInt(pattern.substring(start, i));
+            }
+            if(i >= pattern.length()) {
+                throw new UnknownFormatConversionException("%");
+            }
+            final char conversion = pattern.charAt(i++);
+            final int kind;
+            switch(conversion) {
+                case 'n':
+                    literal.append(System.lineSeparator());
+                    continue;
+                case '%':
+                    literal.append('%');
+                    continue;
+                case 's':
+                    kind = TEXT;
+                    break;
+                case 'd':
+                    kind = INTEGER;
+                    break;
+                case 'f':
+                    kind = DECIMAL;
+                    break;
+                case 'm':
+                    kind = FIXED_POINT;
+                    break;
+                case 't':
+                    if(i >= pattern.length()) {
+                        throw new UnknownFormatConversionException("t");
+                    }
+                    kind = dateKind(pattern.charAt(i++));
+                    break;
+                default:
+                    throw new UnknownFormatConversionException(String.valueOf(conversion));
+            }
+            if(literal.length() > 0) {
+                fields.add(new int[] {LITERAL, text.size(), 0, -1, 0, 0});
+                text.add(literal.toString());
+                literal.setLength(0);
+            }
+            final int argument = (index > 0) ? index - 1 : ordinary++;
+            maxArgument = Math.max(maxArgument, argument + 1);
+            fields.add(new int[] {kind, argument, width, (kind == DECIMAL && precision < 0) ? 6 : precision,
+                                  left ? 1 : 0, grouping ? 1 : 0});
+        }
+        if(literal.length() > 0) {
+            fields.add(new int[] {LITERAL, text.size(), 0, -1, 0, 0});
+            text.add(literal.toString());
+        }
+        kinds = new int[fields.size()];
+        arguments = new int[fields.size()];
+        widths = new int[fields.size()];
+        precisions = new int[fields.size()];
+        leftJustified = new boolean[fields.size()];
+        grouped = new boolean[fields.size()];
+        for(int f = 0; f < fields.size(); f++) {
+            final int[] field = fields.get(f);
+            kinds[f] = field[0];
+            arguments[f] = field[1];
+            widths[f] = field[2];
+            precisions[f] = field[3];
+            leftJustified[f] = field[4] != 0;
+            grouped[f] = field[5] != 0;
+        }
+        literals = text.toArray(new String[text.size()]);
+        argumentCount = maxArgument;
+        final DateFormatSymbols dateSymbols = DateFormatSymbols.getInstance(locale);
+        monthNames = dateSymbols.getMonths();
+        shortMonthNames = dateSymbols.getShortMonths();
+        final DecimalFormatSymbols decimalSymbols = DecimalFormatSymbols.getInstance(locale);
+        zero = decimalSymbols.getZeroDigit();
+        groupingSeparator = decimalSymbols.getGroupingSeparator();
+        decimalSeparator = decimalSymbols.getDecimalSeparator();
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Compiles a pattern for the default format locale.
+     * @param pattern to compile.
+     * @return the compiled layout.
+     * @throws IllegalFormatException if the pattern uses a conversion that is not supported.
+     */
+    public static FixedWidthLayout compile(final String pattern) {
+        return new FixedWidthLayout(pattern, Locale.getDefault(Locale.Category.FORMAT));
+    }
+    /**
+     * Renders the layout with the given arguments to a destination. Rendering skips the pattern
+     * parsing and intermediate strings of {@code String.format}, but it is not free of allocation:
+     * primitive arguments are boxed into the argument array, and floating-point decimals are rounded
+     * through a {@code BigDecimal}. Fixed-point integers are the cheapest amounts to render.
+     * @param out destination to append to.
+     * @param args values of the fields.
+     * @return the destination.
+     * @throws IOException if the destination cannot be written.
+     */
+    public <A extends Appendable> A appendTo(final A out, final Object... args) throws IOException {
+        if(args.length < argumentCount) {
+            throw new IllegalArgumentException("Layout needs " + argumentCount + " arguments, got "
+                                               + args.length);
+        }
+        for(int f = 0; f < kinds.length; f++) {
+            final Object value = (kinds[f] == LITERAL) ? null : args[arguments[f]];
+            switch(kinds[f]) {
+                case LITERAL:
+                    out.append(literals[arguments[f]]);
+                    break;
+                case TEXT:
+                    appendText(out, f, value);
+                    break;
+                case INTEGER:
+                    appendInteger(out, f, ((Number) value).longValue());
+                    break;
+                case DECIMAL:
+                    appendDecimal(out, f, (Number) value);
+                    break;
+                case FIXED_POINT:
+                    appendFixedPoint(out, f, ((Number) value).longValue());
+                    break;
+                case MONTH:
+                    appendNumber(out, f, ((LocalDate) value).getMonthValue(), -2, false);
+                    break;
+                case DAY:
+                    appendNumber(out, f, ((LocalDate) value).getDayOfMonth(), -2, false);
+                    break;
+                case YEAR:
+                    appendNumber(out, f, ((LocalDate) value).getYear(), -4, ((LocalDate) value).getYear() < 0);
+                    break;
+                case MONTH_NAME:
+                    appendText(out, f, monthNames[((LocalDate) value).getMonthValue() - 1]);
+                    break;
+                default:
+                    appendText(out, f, shortMonthNames[((LocalDate) value).getMonthValue() - 1]);
+                    break;
+            }
+        }
+        return out;
+    }
+    /**
+     * Renders the layout with the given arguments as a string.
+     * @param args values of the fields.
+     * @return the rendered text.
+     */
+    public String format(final Object... args) {
+        try {
+            return appendTo(new StringBuilder(), args).toString();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Maps a date conversion suffix to its field kind.
+     * @param suffix following the 't'.
+     * @return the field kind.
+     */
+    private static int dateKind(final char suffix) {
+        switch(suffix) {
+            case 'm':
+                return MONTH;
+            case 'd':
+                return DAY;
+            case 'Y':
+                return YEAR;
+            case 'B':
+                return MONTH_NAME;
+            case 'b':
+                return SHORT_MONTH_NAME;
+            default:
+                throw new UnknownFormatConversionException("t" + suffix);
+        }
+    }
+    /**
+     * Writes a value's string form padded to the field width.
+     * @param out destination.
+     * @param f field index.
+     * @param value to write.
+     * @throws IOException if the destination cannot be written.
+     */
+    private void appendText(final Appendable out, final int f, final Object value) throws IOException {
+        CharSequence text = (value instanceof CharSequence) ? (CharSequence) value : String.valueOf(value);
+        if(precisions[f] >= 0 && text.length() > precisions[f]) {
+            text = text.subSequence(0, precisions[f]);
+        }
+        final int padding = widths[f] - text.length();
+        if(!leftJustified[f]) {
+            pad(out, padding);
+        }
+        out.append(text);
+        if(leftJustified[f]) {
+            pad(out, padding);
+        }
+    }
+    /**
+     * Writes an integer value.
+     * @param out destination.
+     * @param f field index.
+     * @param value to write.
+     * @throws IOException if the destination cannot be written.
+     */
+    private void appendInteger(final Appendable out, final int f, final long value) throws IOException {
+        appendNumber(out, f, value, 0, value < 0);
+    }
+    /**
+     * Writes a decimal value rounded half up to the field precision.
+     * @param out destination.
+     * @param f field index.
+     * @param value to write.
+     * @throws IOException if the destination cannot be written.
+     */
+    private void appendDecimal(final Appendable out, final int f, final Number value) throws IOException {
+        final int scale = precisions[f];
+        if((value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
+           && scale < POWERS_OF_TEN.length) {
+            final long scaled = Math.multiplyExact(value.longValue(), POWERS_OF_TEN[scale]);
+            appendNumber(out, f, scaled, scale, scaled < 0);
+        }
+        else {
+            final double number = value.doubleValue();
+            final long scaled = BigDecimal.valueOf(Math.abs(number)).setScale(scale, RoundingMode.HALF_UP)
+                                          .unscaledValue().longValueExact();
+            appendNumber(out, f, scaled, scale, Double.compare(number, 0.0) < 0);
+        }
+    }
+    /**
+     * Writes an integer holding a decimal scaled by ten to the field precision.
+     * @param out destination.
+     * @param f field index.
+     * @param value to write, already scaled.
+     * @throws IOException if the destination cannot be written.
+     */
+    private void appendFixedPoint(final Appendable out, final int f, final long value) throws IOException {
+        appendNumber(out, f, value, Math.max(precisions[f], 0), value < 0);
+    }
+    /**
+     * Writes a number padded to the field width. A positive scale writes that many fraction digits
+     * after a decimal separator; a negative scale zero-pads the number to that many digits.
+     * @param out destination.
+     * @param f field index.
+     * @param value to write, scaled by ten to the scale if the scale is positive.
+     * @param scale fraction digits, or minus the zero-padded digit count.
+     * @param negative true to write a minus sign, which rounded decimals need even when zero.
+     * @throws IOException if the destination cannot be written.
+     */
+    private void appendNumber(final Appendable out, final int f, final long value, final int scale,
+                              final boolean negative) throws IOException {
+        int digits = 1;
+        while(digits < POWERS_OF_TEN.length && Math.abs(value / POWERS_OF_TEN[digits]) > 0) {
+            digits++;
+        }
+        if(scale > 0) {
+            digits = Math.max(digits, scale + 1);
+        }
+        else if(scale < 0) {
+            digits = Math.max(digits, -scale);
+        }
+        final int integerDigits = (scale > 0) ? digits - scale : digits;
+        final int separators = grouped[f] ? (integerDigits - 1) / 3 : 0;
+        final int length = (negative ? 1 : 0) + digits + separators + (scale > 0 ? 1 : 0);
+        final int padding = widths[f] - length;
+        if(!leftJustified[f]) {
+            pad(out, padding);
+        }
+        if(negative) {
+            out.append('-');
+        }
+        for(int d = digits - 1; d >= 0; d--) {
+            out.append((char) (zero + Math.abs(value / POWERS_OF_TEN[d] % 10)));
+            final int position = (scale > 0) ? d - scale : d;
+            if(position > 0 && separators > 0 && position % 3 == 0) {
+                out.append(groupingSeparator);
+            }
+            else if(scale > 0 && d == scale) {
+                out.append(decimalSeparator);
+            }
+        }
+        if(leftJustified[f]) {
+            pad(out, padding);
+        }
+    }
+    /**
+     * Writes spaces.
+     * @param out destination.
+     * @param count number of spaces, nothing if not positive.
+     * @throws IOException if the destination cannot be written.
+     */
+    private static void pad(final Appendable out, final int count) throws IOException {
+        for(int i = 0; i < count; i++) {
+            out.append(' ');
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.scg.util;
+
+import java.io.IOException;
+
+/**
+ * Exact money arithmetic on amounts held as a {@code long} number of cents. Amounts are plain
+ * primitives, so pricing and totalling allocate nothing, and every operation fails with an
+ * {@link ArithmeticException} instead of silently wrapping when the result does not fit in a long.
+ * Amounts are formatted as two-decimal fixed point with grouping, the same text as
+ * {@code String.format("%,.2f", cents / 100.0)}, without going through a double.
+ * @author Adam Spade
+ */
+public final class Money
+extends Object
+{
+    // CONSTANTS \\
+    /**
+     * Number of cents in one whole currency unit.
+     */
+    public static final long CENTS_PER_UNIT = 100;
+    /**
+     * Zero amount.
+     */
+    public static final long ZERO = 0;
+
+    // FORMATTERS \\
+    /**
+     * Layout of a grouped amount with two fraction digits.
+     */
+    private static final FixedWidthLayout AMOUNT = FixedWidthLayout.compile("%,.2m");
+
+    // CONSTRUCTORS \\
+    /**
+     * Prevent instantiation.
+     */
+    private Money() {
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Amount of a number of whole currency units.
+     * @param units whole currency units.
+     * @return the amount in cents.
+     * @throws ArithmeticException if the amount overflows.
+     */
+    public static long ofUnits(final long units) {
+        return Math.multiplyExact(units, CENTS_PER_UNIT);
+    }
+    /**
+     * Whole currency units of an amount, truncating any cents.
+     * @param cents amount.
+     * @return whole currency units.
+     */
+    public static long toUnits(final long cents) {
+        return cents / CENTS_PER_UNIT;
+    }
+    /**
+     * Sum of two amounts.
+     * @param cents first amount.
+     * @param other second amount.
+     * @return the sum in cents.
+     * @throws ArithmeticException if the sum overflows.
+     */
+    public static long plus(final long cents, final long other) {
+        return Math.addExact(cents, other);
+    }
+    /**
+     * Amount multiplied by a quantity, such as an hourly rate by a number of hours.
+     * @param cents amount.
+     * @param quantity to multiply by.
+     * @return the product in cents.
+     * @throws ArithmeticException if the product overflows.
+     */
+    public static long times(final long cents, final long quantity) {
+        return Math.multiplyExact(cents, quantity);
+    }
+    /**
+     * Writes an amount as grouped two-decimal fixed point.
+     * @param out destination to append to.
+     * @param cents amount.
+     * @return the destination.
+     * @throws IOException if the destination cannot be written.
+     */
+    public static <A extends Appendable> A appendTo(final A out, final long cents) throws IOException {
+        return AMOUNT.appendTo(out, cents);
+    }
+    /**
+     * Formats an amount as grouped two-decimal fixed point.
+     * @param cents amount.
+     * @return the formatted amount.
+     */
+    public static String toString(final long cents) {
+        return AMOUNT.format(cents);
+    }
+}
@@ -0,0 +1,158 @@
+package com.scg.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.scg.domain.Consultant;
+import com.scg.domain.ConsultantTime;
+import com.scg.domain.ConsultantTimeListener;
+import com.scg.domain.TimeCard;
+
+/**
+ * Index of time cards by consultant, by week and by client, answering the {@link TimeCardListUtil}
+ * filters without scanning every card. Cards are hashed by consultant, sorted by the day their week
+ * starts in a {@link WeekIndex}, and posted under the name of every account they bill time to. The
+ * index follows the cards added to it, so time recorded on an indexed card afterwards is posted to its
+ * client straight away. Lookups return the matching cards in the order they were added to the index,
+ * the same order the list filters return them in.
+ * @author Adam Spade
+ */
+public final class TimeCardIndex
+extends Object
+implements ConsultantTimeListener
+{
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the position of each indexed card, by card identity.
+     */
+    private final Map<TimeCard, Integer> positions = new IdentityHashMap<>();
+    /**
+     * Initializer for the cards of each consultant, in position order.
+     */
+    private final Map<Consultant, List<TimeCard>> byConsultant = new HashMap<>();
+    /**
+     * Initializer for the cards sorted by week starting day, added in position order.
+     */
+    private final WeekIndex byWeek = new WeekIndex();
+    /**
+     * Initializer for the cards billing time to each account name, keyed by position.
+     */
+    private final Map<String, NavigableMap<Integer, TimeCard>> byClient = new HashMap<>();
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for an empty index.
+     */
+    public TimeCardIndex() {
+    }
+    /**
+     * Constructor for an index of the given cards.
+     * @param timeCards to index.
+     */
+    public TimeCardIndex(final Collection<TimeCard> timeCards) {
+        addAll(timeCards);
+    }
+
+    // GETTERS & SETTERS \\
+    /**
+     * Getter for the time cards of a consultant.
+     * @param consultant whose time cards are being retrieved.
+     * @return the time cards of the consultant.
+     */
+    public synchronized List<TimeCard> getTimeCardsForConsultant(final Consultant consultant) {
+        final List<TimeCard> timeCards = byConsultant.get(consultant);
+        return (timeCards == null) ? new ArrayList<>() : new ArrayList<>(timeCards);
+    }
+    /**
+     * Getter for the time cards whose week overlaps a date range.
+     * @param dateRange the time cards are being pulled from.
+     * @return the time cards from the date range.
+     */
+    public synchronized List<TimeCard> getTimeCardsForDateRange(final DateRange dateRange) {
+        return byWeek.getTimeCardsForDateRangeInAddOrder(dateRange);
+    }
+    /**
+     * Getter for the time cards billing time to a client.
+     * @param clientName name of the client account.
+     * @return the time cards billing the client.
+     */
+    public synchronized List<TimeCard> getTimeCardsForClient(final String clientName) {
+        final NavigableMap<Integer, TimeCard> timeCards = byClient.get(clientName);
+        return (timeCards == null) ? new ArrayList<>() : new ArrayList<>(timeCards.values());
+    }
+    /**
+     * Getter for the number of indexed time cards.
+     * @return number of time cards.
+     */
+    public synchronized int size() {
+        return positions.size();
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Adds a time card to the index and follows the time recorded on it from now on. The time already
+     * on the card and the subscription are taken together under the card's lock, so time recorded on
+     * another thread while the card is being added is posted either way. A card already in the index is
+     * not added again.
+     * @param timeCard to add.
+     */
+    public synchronized void add(final TimeCard timeCard) {
+        if(positions.containsKey(timeCard)) {
+            return;
+        }
+        final Integer position = positions.size();
+        positions.put(timeCard, position);
+        byConsultant.computeIfAbsent(timeCard.getConsultant(), c -> new ArrayList<>()).add(timeCard);
+        byWeek.add(timeCard);
+        for(ConsultantTime time : timeCard.subscribe(this)) {
+            post(timeCard, position, time);
+        }
+    }
+    /**
+     * Adds several time cards to the index.
+     * @param timeCards to add.
+     */
+    public synchronized void addAll(final Collection<TimeCard> timeCards) {
+        for(TimeCard timeCard : timeCards) {
+            add(timeCard);
+        }
+    }
+    /**
+     * Posts time recorded on an indexed card to its client.
+     * @param timeCard the time was added to.
+     * @param consultantTime that was added.
+     */
+    @Override
+    public synchronized void consultantTimeAdded(final TimeCard timeCard, final ConsultantTime consultantTime) {
+        final Integer position = positions.get(timeCard);
+        if(position != null) {
+            post(timeCard, position, consultantTime);
+        }
+    }
+    /**
+     * Stops following the time cards in the index. Time recorded on them afterwards is not posted.
+     */
+    public synchronized void untrackAll() {
+        for(TimeCard timeCard : positions.keySet()) {
+            timeCard.removeConsultantTimeListener(this);
+        }
+    }
+
+    /**
+     * Posts a card under the account of one consultant time if the time is billable.
+     * @param timeCard holding the time.
+     * @param position of the card.
+     * @param time to post.
+     */
+    private void post(final TimeCard timeCard, final Integer position, final ConsultantTime time) {
+        if(time.isBillable()) {
+            byClient.computeIfAbsent(time.getAccount().getName(), n -> new TreeMap<>()).put(position, timeCard);
+        }
+    }
+}
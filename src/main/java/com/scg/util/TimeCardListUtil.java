@@ -1,6 +1,5 @@
 package com.scg.util;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -13,11 +12,6 @@ import com.scg.domain.TimeCard;
  */
 public final class TimeCardListUtil 
 {
-    /**
-     * New TimeCardConsultantComparator object initializer.
-     */
-    private static final TimeCardConsultantComparator tCardConsComptor = new TimeCardConsultantComparator();
-    
     // GETTERS & SETTERS \\
     /**
      * Getter for retrieving the time cards of a consultant.
@@ -32,32 +26,52 @@ public final class TimeCardListUtil
                         .collect(Collectors.toList());
     }
     /**
-     * Getter for retrieving the time cards within a specific date range.
+     * Getter for retrieving the time cards whose week overlaps a specific date range.
      * @param timeCards that fall within the given date range.
      * @param dateRange that the time cards are being pulled from.
      * @return time cards from the desired date range.
      */
     public static List<TimeCard> getTimeCardsForDateRange(final List<TimeCard> timeCards, final DateRange dateRange) {
         return timeCards.stream()
-                        .filter(tcard -> dateRange.isInRange(tcard.getWeekStartingDay()) || 
-                                dateRange.isInRange(tcard.getWeekStartingDay()
-                        .plusDays(6)))
+                        .filter(tcard -> !tcard.getWeekStartingDay().isAfter(dateRange.getEndDate()) && 
+                                !tcard.getWeekStartingDay().plusDays(6)
+                        .isBefore(dateRange.getStartDate()))
                         .collect(Collectors.toList());
     }   
     
+    /**
+     * Getter for retrieving the time cards of a consultant from an index, without scanning every card.
+     * @param index of the time cards.
+     * @param consultant the consultant whose time cards are being retrieved.
+     * @return the time cards for the desired consultant.
+     */
+    public static List<TimeCard> getTimeCardsForConsultant(final TimeCardIndex index, final Consultant consultant) {
+        return index.getTimeCardsForConsultant(consultant);
+    }
+    /**
+     * Getter for retrieving the time cards within a specific date range from an index, without scanning
+     * every card.
+     * @param index of the time cards.
+     * @param dateRange that the time cards are being pulled from.
+     * @return time cards from the desired date range.
+     */
+    public static List<TimeCard> getTimeCardsForDateRange(final TimeCardIndex index, final DateRange dateRange) {
+        return index.getTimeCardsForDateRange(dateRange);
+    }
+    
     // ADDITIONAL METHODS \\
     /**
-     * Method for sorting the time cards by date.
+     * Method for sorting the time cards by date, in the natural order of time cards.
      * @param timeCards that will be sorted by date.
      */
     public static void sortByStartDate(List<TimeCard> timeCards) {
-        Collections.sort(timeCards);
+        TimeCardSorter.sortByStartDate(timeCards);
     }
     /**
-     * Method for sorting the consultants by name.
+     * Method for sorting the consultants by name, in the order of {@link TimeCardConsultantComparator}.
      * @param timeCards that will be sorted for the named consultant.
      */
     public static void sortByConsultantName(List<TimeCard> timeCards) {
-        Collections.sort(timeCards, tCardConsComptor);
+        TimeCardSorter.sortByConsultantName(timeCards);
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.scg.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.scg.domain.TimeCard;
+
+/**
+ * Sorts time cards on keys computed once per card rather than once per comparison. Each consultant
+ * name is ranked once among the distinct names on the list, and each card's week, name rank and hour
+ * totals are packed into two longs, so comparing cards is two primitive comparisons with no getter
+ * chains, name comparisons or boxing. Lists of at least {@link #PARALLEL_THRESHOLD} cards are sorted
+ * with {@link Arrays#parallelSort(Object[], Comparator)}. The sorts are stable and give the same order
+ * as {@link TimeCard#compareTo(TimeCard)} and {@link TimeCardConsultantComparator}.
+ * @author Adam Spade
+ */
+public final class TimeCardSorter
+extends Object
+{
+    // CONSTANTS \\
+    /**
+     * Smallest list sorted in parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 8192;
+    /**
+     * Order of the keys, first by the primary key and then by the secondary key.
+     */
+    private static final Comparator<Key> KEY_ORDER = (first, second) -> {
+        final int diff = Long.compare(first.primary, second.primary);
+        return (diff != 0) ? diff : Long.compare(first.secondary, second.secondary);
+    };
+
+    // CONSTRUCTORS \\
+    /**
+     * Prevent instantiation.
+     */
+    private TimeCardSorter() {
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Sorts time cards by week starting day, consultant name, billable hours and non-billable hours,
+     * the order of {@link TimeCard#compareTo(TimeCard)}.
+     * @param timeCards to sort in place.
+     */
+    public static void sortByStartDate(final List<TimeCard> timeCards) {
+        sort(timeCards, false);
+    }
+    /**
+     * Sorts time cards by consultant name, week starting day, billable hours and non-billable hours,
+     * the order of {@link TimeCardConsultantComparator}.
+     * @param timeCards to sort in place.
+     */
+    public static void sortByConsultantName(final List<TimeCard> timeCards) {
+        sort(timeCards, true);
+    }
+
+    /**
+     * Builds the keys of the time cards, sorts them and writes the cards back in key order.
+     * @param timeCards to sort in place.
+     * @param consultantFirst true to order by consultant before week, false for week before consultant.
+     */
+    private static void sort(final List<TimeCard> timeCards, final boolean consultantFirst) {
+        final TimeCard[] cards = timeCards.toArray(new TimeCard[timeCards.size()]);
+        final Map<PersonalName, Integer> ranks = new TreeMap<>();
+        for(TimeCard timeCard : cards) {
+            ranks.put(timeCard.getConsultant().getName(), 0);
+        }
+        int rank = 0;
+        for(Map.Entry<PersonalName, Integer> entry : ranks.entrySet()) {
+            entry.setValue(rank++);
+        }
+        final Key[] keys = new Key[cards.length];
+        for(int i = 0; i < cards.length; i++) {
+            final TimeCard timeCard = cards[i];
+            final int week = Math.toIntExact(timeCard.getWeekStartingDay().toEpochDay());
+            final int name = ranks.get(timeCard.getConsultant().getName());
+            keys[i] = new Key(timeCard,
+                              consultantFirst ? pack(name, week) : pack(week, name),
+                              pack(timeCard.getTotalBillableHours(), timeCard.getTotalNonBillableHours()));
+        }
+        if(keys.length >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSort(keys, KEY_ORDER);
+        }
+        else {
+            Arrays.sort(keys, KEY_ORDER);
+        }
+        final ListIterator<TimeCard> sorted = timeCards.listIterator();
+        for(Key key : keys) {
+            sorted.next();
+            sorted.set(key.timeCard);
+        }
+    }
+    /**
+     * Packs two ints into a long that orders by the first and then by the second.
+     * @param high first value.
+     * @param low second value.
+     * @return the packed key.
+     */
+    private static long pack(final int high, final int low) {
+        return ((long) high << Integer.SIZE) | ((low ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    // INNER CLASS \\
+    /**
+     * Time card with its precomputed sort keys.
+     */
+    private static final class Key {
+        private final TimeCard timeCard;
+        private final long primary;
+        private final long secondary;
+
+        Key(final TimeCard timeCard, final long primary, final long secondary) {
+            this.timeCard = timeCard;
+            this.primary = primary;
+            this.secondary = secondary;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.scg.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import com.scg.domain.TimeCard;
+
+/**
+ * Time cards sorted by the epoch day their week starts. The days are kept in a primitive array beside
+ * the cards, so a date range query is two binary searches for the ends of a contiguous slice of weeks,
+ * and returns the cards of every week that overlaps the range. Cards starting the same week keep the
+ * order they were added in. Adding a card always appends it; cards added out of week order are sorted
+ * once, by the next query, so loading n cards in any order costs one O(n log n) sort. Each card also
+ * keeps its add sequence number, so a query can return its slice in the order the cards were added.
+ * Queries may sort the index, so it is not synchronized even for readers.
+ * @author Adam Spade
+ */
+public final class WeekIndex
+extends Object
+{
+    // CONSTANTS \\
+    /**
+     * Days from the first to the last day of a week.
+     */
+    private static final long LAST_DAY_OF_WEEK = 6;
+    /**
+     * Initial capacity of the index.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    // MEMBER VARIABLES \\
+    /**
+     * Initializer for the epoch day of each card's week start, in ascending order once sorted.
+     */
+    private long[] days = new long[INITIAL_CAPACITY];
+    /**
+     * Initializer for the cards, parallel to the days.
+     */
+    private TimeCard[] cards = new TimeCard[INITIAL_CAPACITY];
+    /**
+     * Initializer for the add sequence number of each card, parallel to the days.
+     */
+    private int[] sequence = new int[INITIAL_CAPACITY];
+    /**
+     * Initializer for the number of cards.
+     */
+    private int size;
+    /**
+     * Initializer for whether the days are in ascending order.
+     */
+    private boolean sorted = true;
+
+    // CONSTRUCTORS \\
+    /**
+     * Constructor for an empty index.
+     */
+    public WeekIndex() {
+    }
+    /**
+     * Constructor for an index of the given cards.
+     * @param timeCards to index.
+     */
+    public WeekIndex(final Collection<TimeCard> timeCards) {
+        days = new long[Math.max(INITIAL_CAPACITY, timeCards.size())];
+        cards = new TimeCard[days.length];
+        sequence = new int[days.length];
+        for(TimeCard timeCard : timeCards) {
+            add(timeCard);
+        }
+        sort();
+    }
+
+    // GETTERS & SETTERS \\
+    /**
+     * Getter for the number of indexed cards.
+     * @return number of cards.
+     */
+    public int size() {
+        return size;
+    }
+    /**
+     * Getter for the cards of every week that overlaps a date range, that is every week starting no later
+     * than the end of the range and ending no earlier than its start.
+     * @param dateRange to query.
+     * @return the cards, by week.
+     */
+    public List<TimeCard> getTimeCardsForDateRange(final DateRange dateRange) {
+        return getTimeCardsForDateRange(dateRange.getStartDate(), dateRange.getEndDate());
+    }
+    /**
+     * Getter for the cards of every week that overlaps the days between two dates.
+     * @param start first day, inclusive.
+     * @param end last day, inclusive.
+     * @return the cards, by week.
+     */
+    public List<TimeCard> getTimeCardsForDateRange(final LocalDate start, final LocalDate end) {
+        return getTimeCardsForWeeks(start.toEpochDay() - LAST_DAY_OF_WEEK, end.toEpochDay());
+    }
+    /**
+     * Getter for the cards of the weeks starting between two epoch days.
+     * @param fromDay first week start, inclusive.
+     * @param toDay last week start, inclusive.
+     * @return the cards, by week.
+     */
+    public List<TimeCard> getTimeCardsForWeeks(final long fromDay, final long toDay) {
+        if(fromDay > toDay) {
+            return new ArrayList<>();
+        }
+        sort();
+        final int from = firstAfter(fromDay - 1);
+        final int to = firstAfter(toDay);
+        return new ArrayList<>(Arrays.asList(cards).subList(from, to));
+    }
+    /**
+     * Getter for the cards of every week that overlaps a date range, in the order they were added.
+     * @param dateRange to query.
+     * @return the cards, in add order.
+     */
+    public List<TimeCard> getTimeCardsForDateRangeInAddOrder(final DateRange dateRange) {
+        final long fromDay = dateRange.getStartDate().toEpochDay() - LAST_DAY_OF_WEEK;
+        final long toDay = dateRange.getEndDate().toEpochDay();
+        if(fromDay > toDay) {
+            return new ArrayList<>();
+        }
+        sort();
+        final int from = firstAfter(fromDay - 1);
+        final int to = firstAfter(toDay);
+        final long[] order = new long[to - from];
+        for(int i = from; i < to; i++) {
+            order[i - from] = ((long) sequence[i] << Integer.SIZE) | i;
+        }
+        Arrays.sort(order);
+        final List<TimeCard> timeCards = new ArrayList<>(order.length);
+        for(long slot : order) {
+            timeCards.add(cards[(int) slot]);
+        }
+        return timeCards;
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Adds a card after any card starting the same week.
+     * @param timeCard to add.
+     */
+    public void add(final TimeCard timeCard) {
+        final long day = timeCard.getWeekStartingDay().toEpochDay();
+        if(size == days.length) {
+            days = Arrays.copyOf(days, size * 2);
+            cards = Arrays.copyOf(cards, size * 2);
+            sequence = Arrays.copyOf(sequence, size * 2);
+        }
+        if(size > 0 && days[size - 1] > day) {
+            sorted = false;
+        }
+        days[size] = day;
+        cards[size] = timeCard;
+        sequence[size] = size;
+        size++;
+    }
+
+    /**
+     * Sorts the cards by week if any were added out of order. Each card's day and slot are packed into
+     * one long, so a primitive sort orders the cards by week and keeps cards of the same week in slot
+     * order, which is the order they were added in.
+     */
+    private void sort() {
+        if(sorted) {
+            return;
+        }
+        final long[] order = new long[size];
+        for(int i = 0; i < size; i++) {
+            order[i] = ((long) Math.toIntExact(days[i]) << Integer.SIZE) | i;
+        }
+        Arrays.sort(order);
+        final TimeCard[] unsortedCards = Arrays.copyOf(cards, size);
+        final int[] unsortedSequence = Arrays.copyOf(sequence, size);
+        for(int i = 0; i < size; i++) {
+            days[i] = order[i] >> Integer.SIZE;
+            cards[i] = unsortedCards[(int) order[i]];
+            sequence[i] = unsortedSequence[(int) order[i]];
+        }
+        sorted = true;
+    }
+    /**
+     * Binary search for the first card whose week starts after a day.
+     * @param day to search past.
+     * @return index of the first later card, or the size if there is none.
+     */
+    private int firstAfter(final long day) {
+        int low = 0;
+        int high = size;
+        while(low < high) {
+            final int middle = (low + high) >>> 1;
+            if(days[middle] <= day) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
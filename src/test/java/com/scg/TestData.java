@@ -0,0 +1,182 @@
+package com.scg;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.scg.domain.Account;
+import com.scg.domain.ClientAccount;
+import com.scg.domain.Consultant;
+import com.scg.domain.ConsultantTime;
+import com.scg.domain.Invoice;
+import com.scg.domain.NonBillableAccount;
+import com.scg.domain.Skill;
+import com.scg.domain.TimeCard;
+import com.scg.util.Address;
+import com.scg.util.PersonalName;
+import com.scg.util.StateCode;
+
+/**
+ * Fixtures shared by the tests: a few clients and consultants, a small fixed set of time cards that
+ * cross a month end, and seeded random time cards for the equivalence tests. Time cards and invoices
+ * have no equals, so they are compared through their reports.
+ * @author Adam Spade
+ */
+public final class TestData
+extends Object
+{
+    // CONSTRUCTORS \\
+    /**
+     * Prevent instantiation.
+     */
+    private TestData() {
+    }
+
+    // ADDITIONAL METHODS \\
+    /**
+     * Creates the client accounts.
+     * @return three clients, each with its own contact and address.
+     */
+    public static List<ClientAccount> clients() {
+        return new ArrayList<>(Arrays.asList(
+                new ClientAccount("Acme Industries", new PersonalName("Coyote", "Wiley", "NMN"),
+                                  new Address("1616 Index Ct.", "Redmond", StateCode.WA, "98055")),
+                new ClientAccount("FooBar Enterprises", new PersonalName("Sam", "Yosemite", "NMN"),
+                                  new Address("1024 Kilobyte Dr.", "Silicone Gulch", StateCode.CA, "94105")),
+                new ClientAccount("Widget Works", new PersonalName("Bunny", "Bugs"),
+                                  new Address("42 Sprocket Way", "Tacoma", StateCode.WA, "98402"))));
+    }
+    /**
+     * Creates the consultants.
+     * @return three consultants.
+     */
+    public static List<Consultant> consultants() {
+        return new ArrayList<>(Arrays.asList(new Consultant(new PersonalName("Coder", "Carl", "Q")),
+                                             new Consultant(new PersonalName("Architect", "Anne")),
+                                             new Consultant(new PersonalName("Tester", "Tom", "T"))));
+    }
+    /**
+     * Creates a fixed set of time cards for the given clients, for the weeks from February 20 to
+     * March 13, 2017. The week of February 27 crosses into March.
+     * @param clients billed by the time cards, at least two.
+     * @return the time cards.
+     */
+    public static List<TimeCard> timeCards(final List<ClientAccount> clients) {
+        final List<Consultant> consultants = consultants();
+        final List<TimeCard> timeCards = new ArrayList<>();
+        final LocalDate firstWeek = LocalDate.of(2017, 2, 20);
+        for(int week = 0; week < 4; week++) {
+            final LocalDate weekStart = firstWeek.plusWeeks(week);
+            for(int c = 0; c < consultants.size(); c++) {
+                final TimeCard timeCard = new TimeCard(consultants.get(c), weekStart);
+                for(int day = 0; day < 5; day++) {
+                    final LocalDate date = weekStart.plusDays(day);
+                    final ClientAccount client = clients.get((week + c + day) % clients.size());
+                    timeCard.addConsultantTime(new ConsultantTime(date, client, Skill.values()[c], 6 + c));
+                }
+                timeCard.addConsultantTime(new ConsultantTime(weekStart.plusDays(c),
+                                                              NonBillableAccount.BUSINESS_DEVELOPMENT,
+                                                              Skill.UNKNOWN_SKILL, 2));
+                timeCards.add(timeCard);
+            }
+        }
+        return timeCards;
+    }
+    /**
+     * Creates seeded random time cards for the given clients. Consultants and weeks repeat, so cards
+     * tie on every sort key but the hours.
+     * @param clients billed by the time cards.
+     * @param count number of time cards.
+     * @param seed of the random values.
+     * @return the time cards.
+     */
+    public static List<TimeCard> randomTimeCards(final List<ClientAccount> clients, final int count,
+                                                 final long seed) {
+        final Random random = new Random(seed);
+        final List<Consultant> consultants = consultants();
+        final List<Account> accounts = new ArrayList<>(clients);
+        accounts.addAll(Arrays.asList(NonBillableAccount.values()));
+        final List<TimeCard> timeCards = new ArrayList<>(count);
+        final LocalDate firstWeek = LocalDate.of(2016, 11, 7);
+        for(int i = 0; i < count; i++) {
+            final LocalDate weekStart = firstWeek.plusWeeks(random.nextInt(26));
+            final TimeCard timeCard = new TimeCard(consultants.get(random.nextInt(consultants.size())), weekStart);
+            for(int entries = random.nextInt(6); entries > 0; entries--) {
+                timeCard.addConsultantTime(new ConsultantTime(weekStart.plusDays(random.nextInt(7)),
+                                                              accounts.get(random.nextInt(accounts.size())),
+                                                              Skill.values()[random.nextInt(Skill.values().length)],
+                                                              1 + random.nextInt(8)));
+            }
+            timeCards.add(timeCard);
+        }
+        return timeCards;
+    }
+    /**
+     * Getter for the reports of time cards.
+     * @param timeCards to report.
+     * @return the reports, one after another.
+     */
+    public static String reports(final List<TimeCard> timeCards) {
+        final StringBuilder reports = new StringBuilder();
+        for(TimeCard timeCard : timeCards) {
+            reports.append(timeCard.toReportString());
+        }
+        return reports.toString();
+    }
+    /**
+     * Getter for the reports of invoices.
+     * @param invoices to report.
+     * @return the reports, one after another.
+     */
+    public static String invoiceReports(final List<Invoice> invoices) {
+        final StringBuilder reports = new StringBuilder();
+        try {
+            for(Invoice invoice : invoices) {
+                reports.append(invoice.toReportString());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return reports.toString();
+    }
+    /**
+     * Getter for the months the time cards record time in.
+     * @param timeCards to scan.
+     * @return the months, in order.
+     */
+    public static Set<YearMonth> months(final List<TimeCard> timeCards) {
+        final Set<YearMonth> months = new TreeSet<>();
+        for(TimeCard timeCard : timeCards) {
+            for(ConsultantTime time : timeCard.getConsultingHours()) {
+                months.add(YearMonth.from(time.getDate()));
+            }
+        }
+        return months;
+    }
+    /**
+     * Builds the invoices of a month one client at a time, extracting every time card for each.
+     * @param clients to invoice.
+     * @param timeCards to invoice.
+     * @param month of the invoices.
+     * @return one invoice per client, in client order.
+     */
+    public static List<Invoice> loopInvoices(final List<ClientAccount> clients, final List<TimeCard> timeCards,
+                                            final YearMonth month) {
+        final List<Invoice> invoices = new ArrayList<>();
+        for(ClientAccount client : clients) {
+            final Invoice invoice = new Invoice(client, month.getMonth(), month.getYear());
+            for(TimeCard timeCard : timeCards) {
+                invoice.extractLineItems(timeCard);
+            }
+            invoices.add(invoice);
+        }
+        return invoices;
+    }
+}
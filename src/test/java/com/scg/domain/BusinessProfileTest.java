@@ -0,0 +1,164 @@
+package com.scg.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of loading the business profile and of reloading a watched profile file.
+ * @author Adam Spade
+ */
+public final class BusinessProfileTest
+extends Object
+{
+    /**
+     * Milliseconds to wait for a watched file to be reloaded.
+     */
+    private static final long RELOAD_TIMEOUT = 30_000;
+    /**
+     * Initializer for the profile current before the test.
+     */
+    private BusinessProfile previous;
+    /**
+     * Initializer for the directory of the watched file.
+     */
+    private Path directory;
+
+    /**
+     * Saves the current profile and creates the directory of the watched file.
+     * @throws IOException if the profile cannot be loaded or the directory cannot be created.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        previous = BusinessProfile.current();
+        directory = Files.createTempDirectory("profile");
+    }
+    /**
+     * Restores the current profile and deletes the directory of the watched file.
+     * @throws IOException if the directory cannot be deleted.
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        BusinessProfile.setCurrent(previous);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for(Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * A profile holds every business key and renders its header once.
+     * @throws IOException if the profile cannot be loaded.
+     */
+    @Test
+    public void loadReadsEveryKey() throws IOException {
+        final BusinessProfile profile = BusinessProfile.load(
+                new ByteArrayInputStream(properties("Acme Consulting", true).getBytes(StandardCharsets.ISO_8859_1)));
+        assertEquals("Acme Consulting", profile.getName());
+        assertEquals("98101", profile.getZip());
+        assertEquals(String.format("Acme Consulting%n1 Main St.%nSeattle, WA 98101%n"), profile.getHeader());
+    }
+    /**
+     * A profile missing a business key fails to load.
+     */
+    @Test
+    public void missingKeyFails() {
+        assertThrows(IOException.class, () -> BusinessProfile.load(
+                new ByteArrayInputStream(properties("Acme Consulting", false).getBytes(StandardCharsets.ISO_8859_1))));
+    }
+    /**
+     * A watched file is current once watched and again after every change.
+     * @throws IOException if the file cannot be written or watched.
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    public void watchReloadsChangedFile() throws IOException, InterruptedException {
+        final Path file = write("First Consulting", true);
+        try (BusinessProfile.Watch watch = BusinessProfile.watch(file)) {
+            assertEquals("First Consulting", BusinessProfile.current().getName());
+            write("Second Consulting", true);
+            awaitTrue(() -> name().equals("Second Consulting"));
+            assertNull(watch.getLastError());
+        }
+    }
+    /**
+     * A change that leaves the file without a business key is reported and keeps the previous
+     * profile current, until the file is fixed.
+     * @throws IOException if the file cannot be written or watched.
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    public void failedReloadKeepsProfile() throws IOException, InterruptedException {
+        final Path file = write("Kept Consulting", true);
+        try (BusinessProfile.Watch watch = BusinessProfile.watch(file)) {
+            final BusinessProfile kept = BusinessProfile.current();
+            write("Broken Consulting", false);
+            awaitTrue(() -> watch.getLastError() != null);
+            assertSame(kept, BusinessProfile.current());
+            write("Fixed Consulting", true);
+            awaitTrue(() -> name().equals("Fixed Consulting"));
+            awaitTrue(() -> watch.getLastError() == null);
+        }
+    }
+
+    /**
+     * Creates the text of a properties file.
+     * @param name of the business.
+     * @param complete false to leave out the zip code.
+     * @return the properties text.
+     */
+    private static String properties(final String name, final boolean complete) {
+        return "business.name=" + name + "\nbusiness.street=1 Main St.\nbusiness.city=Seattle\n"
+               + "business.state=WA\n" + (complete ? "business.zip=98101\n" : "");
+    }
+    /**
+     * Writes the watched properties file.
+     * @param name of the business.
+     * @param complete false to leave out the zip code.
+     * @return the file.
+     * @throws IOException if the file cannot be written.
+     */
+    private Path write(final String name, final boolean complete) throws IOException {
+        return Files.write(directory.resolve(BusinessProfile.PROPERTIES_FILE),
+                           properties(name, complete).getBytes(StandardCharsets.ISO_8859_1));
+    }
+    /**
+     * Getter for the name of the current profile.
+     * @return the business name.
+     */
+    private static String name() {
+        try {
+            return BusinessProfile.current().getName();
+        } catch (IOException ex) {
+            throw new AssertionError(ex);
+        }
+    }
+    /**
+     * Waits for a condition to hold.
+     * @param condition to wait for.
+     * @throws InterruptedException if the wait is interrupted.
+     */
+    private static void awaitTrue(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + RELOAD_TIMEOUT;
+        while(!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,136 @@
+package com.scg.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+import com.scg.util.Address;
+import com.scg.util.PersonalName;
+import com.scg.util.StateCode;
+
+/**
+ * Tests that deserialized consultants and client accounts resolve to one canonical instance each, and
+ * that a canonical instance whose values change is replaced.
+ * @author Adam Spade
+ */
+public final class CanonicalInstancesTest
+extends Object
+{
+    /**
+     * The first instance looked up with some values is returned for every later one with those values.
+     */
+    @Test
+    public void internsByValue() {
+        final ClientAccount client = client("Interned Inc.");
+        assertSame(client, CanonicalInstances.of(client));
+        assertSame(client, CanonicalInstances.of(client("Interned Inc.")));
+        assertSame(client, CanonicalInstances.of((Account) client("Interned Inc.")));
+        final ClientAccount other = client("Other Interned Inc.");
+        assertSame(other, CanonicalInstances.of(other));
+        assertSame(NonBillableAccount.VACATION, CanonicalInstances.of(NonBillableAccount.VACATION));
+        final Consultant consultant = new Consultant(new PersonalName("Interned", "Ida", "I"));
+        assertSame(consultant, CanonicalInstances.of(consultant));
+        assertSame(consultant, CanonicalInstances.of(new Consultant(new PersonalName("Interned", "Ida", "I"))));
+    }
+    /**
+     * A canonical instance changed after it was registered is replaced by the next instance looked up
+     * with its old values.
+     */
+    @Test
+    public void changedInstanceIsReplaced() {
+        final ClientAccount client = client("Relocated Inc.");
+        assertSame(client, CanonicalInstances.of(client));
+        client.setAddress(new Address("9 Moved St.", "Seattle", StateCode.WA, "98101"));
+        final ClientAccount replacement = client("Relocated Inc.");
+        assertSame(replacement, CanonicalInstances.of(replacement));
+        assertSame(replacement, CanonicalInstances.of(client("Relocated Inc.")));
+        assertNotSame(client, CanonicalInstances.of(client("Relocated Inc.")));
+    }
+    /**
+     * Client accounts and time cards deserialized from separate files share one instance per client
+     * and consultant, through the serialization proxies.
+     * @throws IOException if serialization fails.
+     * @throws ClassNotFoundException if a serialized class cannot be found.
+     */
+    @Test
+    public void separateFilesShareInstances() throws IOException, ClassNotFoundException {
+        final List<ClientAccount> clients = TestData.clients();
+        final List<TimeCard> timeCards = TestData.timeCards(clients);
+        final byte[] clientFile = serialize(clients);
+        final byte[] timeCardFile = serialize(timeCards);
+        final List<ClientAccount> readClients = deserialize(clientFile);
+        final List<TimeCard> readTimeCards = deserialize(timeCardFile);
+        final List<TimeCard> readAgain = deserialize(timeCardFile);
+        assertEquals(clients.toString(), readClients.toString());
+        assertEquals(TestData.reports(timeCards), TestData.reports(readTimeCards));
+        for(int i = 0; i < readTimeCards.size(); i++) {
+            assertSame(readTimeCards.get(i).getConsultant(), readAgain.get(i).getConsultant());
+            for(ConsultantTime time : readTimeCards.get(i).getConsultingHours()) {
+                if(time.getAccount() instanceof ClientAccount) {
+                    assertSame(find(readClients, time.getAccount().getName()), time.getAccount());
+                }
+            }
+        }
+        assertSame(readTimeCards.get(0).getConsultant(), readTimeCards.get(3).getConsultant());
+    }
+
+    /**
+     * Creates a client account with fixed contact and address.
+     * @param name of the client.
+     * @return a new client account.
+     */
+    private static ClientAccount client(final String name) {
+        return new ClientAccount(name, new PersonalName("Contact", "Carol"),
+                                 new Address("1 Main St.", "Tacoma", StateCode.WA, "98402"));
+    }
+    /**
+     * Finds a client account by name.
+     * @param clients to search.
+     * @param name of the client.
+     * @return the first client with the name.
+     */
+    private static ClientAccount find(final List<ClientAccount> clients, final String name) {
+        for(ClientAccount client : clients) {
+            if(client.getName().equals(name)) {
+                return client;
+            }
+        }
+        throw new AssertionError("No client " + name);
+    }
+    /**
+     * Serializes an object.
+     * @param object to serialize.
+     * @return the serialized bytes.
+     * @throws IOException if serialization fails.
+     */
+    private static byte[] serialize(final Object object) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+    /**
+     * Deserializes an object.
+     * @param bytes to deserialize.
+     * @return the object read.
+     * @throws IOException if deserialization fails.
+     * @throws ClassNotFoundException if a serialized class cannot be found.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T deserialize(final byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (T) in.readObject();
+        }
+    }
+}
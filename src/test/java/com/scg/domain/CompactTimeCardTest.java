@@ -0,0 +1,100 @@
+package com.scg.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+
+/**
+ * Tests that a {@link CompactTimeCard} holds the same time as the {@link TimeCard} it packs.
+ * @author Adam Spade
+ */
+public final class CompactTimeCardTest
+extends Object
+{
+    /**
+     * Initializer for the clients billed.
+     */
+    private final List<ClientAccount> clients = TestData.clients();
+    /**
+     * Initializer for the time cards packed, which cross month ends and bill every kind of account.
+     */
+    private final List<TimeCard> timeCards = TestData.randomTimeCards(clients, 200, 23L);
+
+    /**
+     * Packing a time card and materializing it again gives the same report and the same accounts.
+     */
+    @Test
+    public void timeCardRoundTrip() {
+        final List<TimeCard> read = new ArrayList<>();
+        for(TimeCard timeCard : timeCards) {
+            final TimeCard roundTrip = CompactTimeCard.of(timeCard).toTimeCard();
+            for(int i = 0; i < timeCard.getConsultingHours().size(); i++) {
+                assertSame(timeCard.getConsultingHours().get(i).getAccount(),
+                           roundTrip.getConsultingHours().get(i).getAccount());
+            }
+            read.add(roundTrip);
+        }
+        assertEquals(TestData.reports(timeCards), TestData.reports(read));
+    }
+    /**
+     * Totals, entry counts and client hours match the time card.
+     */
+    @Test
+    public void totalsMatchTimeCard() {
+        for(TimeCard timeCard : timeCards) {
+            final CompactTimeCard compact = CompactTimeCard.of(timeCard);
+            assertEquals(timeCard.getConsultingHours().size(), compact.getEntryCount());
+            assertEquals(timeCard.getTotalBillableHours(), compact.getTotalBillableHours());
+            assertEquals(timeCard.getTotalNonBillableHours(), compact.getTotalNonBillableHours());
+            assertEquals(timeCard.getTotalHours(), compact.getTotalHours());
+            for(ClientAccount client : clients) {
+                assertEquals(timeCard.getBillableHoursForClient(client.getName()).size(),
+                             compact.getBillableHoursForClient(client.getName()).size());
+            }
+        }
+    }
+    /**
+     * Invoices extracted from the compact cards match the ones extracted from the time cards.
+     */
+    @Test
+    public void extractLineItemsMatchesTimeCard() {
+        final List<CompactTimeCard> compacts = new ArrayList<>();
+        for(TimeCard timeCard : timeCards) {
+            compacts.add(CompactTimeCard.of(timeCard));
+        }
+        for(YearMonth month : TestData.months(timeCards)) {
+            final List<Invoice> invoices = new ArrayList<>();
+            for(ClientAccount client : clients) {
+                final Invoice invoice = new Invoice(client, month.getMonth(), month.getYear());
+                for(CompactTimeCard compact : compacts) {
+                    compact.extractLineItems(invoice);
+                }
+                invoices.add(invoice);
+            }
+            assertEquals(TestData.invoiceReports(TestData.loopInvoices(clients, timeCards, month)),
+                         TestData.invoiceReports(invoices), month.toString());
+        }
+    }
+    /**
+     * Time too far from the week to pack as a byte day offset is rejected.
+     */
+    @Test
+    public void distantDateIsRejected() {
+        final CompactTimeCard compact = new CompactTimeCard(TestData.consultants().get(0), LocalDate.of(2017, 3, 6));
+        compact.addConsultantTime(new ConsultantTime(LocalDate.of(2017, 3, 6).plusDays(127), clients.get(0),
+                                                     Skill.SOFTWARE_ENGINEER, 1));
+        assertThrows(IllegalArgumentException.class,
+                     () -> compact.addConsultantTime(new ConsultantTime(LocalDate.of(2017, 3, 6).plusDays(128),
+                                                                        clients.get(0), Skill.SOFTWARE_ENGINEER, 1)));
+        assertEquals(1, compact.getEntryCount());
+    }
+}
@@ -0,0 +1,79 @@
+package com.scg.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+
+/**
+ * Tests that {@link InvoiceEngine} produces the invoices of the per-client extraction loop.
+ * @author Adam Spade
+ */
+public final class InvoiceEngineTest
+extends Object
+{
+    /**
+     * Every month's invoices match the loop for the fixed time cards.
+     */
+    @Test
+    public void matchesLoopForFixedTimeCards() {
+        final List<ClientAccount> clients = TestData.clients();
+        assertMatchesLoop(clients, TestData.timeCards(clients));
+    }
+    /**
+     * Every month's invoices match the loop for random time cards.
+     */
+    @Test
+    public void matchesLoopForRandomTimeCards() {
+        final List<ClientAccount> clients = TestData.clients();
+        assertMatchesLoop(clients, TestData.randomTimeCards(clients, 500, 11L));
+    }
+    /**
+     * Clients listed more than once each get their own invoice.
+     */
+    @Test
+    public void matchesLoopForRepeatedClients() {
+        final List<ClientAccount> clients = TestData.clients();
+        final List<TimeCard> timeCards = TestData.timeCards(clients);
+        clients.addAll(TestData.clients());
+        assertMatchesLoop(clients, timeCards);
+    }
+    /**
+     * Time cards accepted one at a time after invoices were read show up in the next read.
+     */
+    @Test
+    public void matchesLoopAfterIncrementalAdds() {
+        final List<ClientAccount> clients = TestData.clients();
+        final List<TimeCard> timeCards = TestData.randomTimeCards(clients, 200, 12L);
+        final InvoiceEngine engine = new InvoiceEngine(clients).addAll(timeCards.subList(0, 100));
+        final YearMonth month = YearMonth.of(2017, 1);
+        engine.getInvoices(month.getMonth(), month.getYear());
+        for(TimeCard timeCard : timeCards.subList(100, 200)) {
+            engine.accept(timeCard);
+        }
+        assertEquals(TestData.invoiceReports(TestData.loopInvoices(clients, timeCards, month)),
+                     TestData.invoiceReports(engine.getInvoices(month.getMonth(), month.getYear())));
+    }
+
+    /**
+     * Checks the engine's invoices against the loop for every month with time.
+     * @param clients to invoice.
+     * @param timeCards to invoice.
+     */
+    private static void assertMatchesLoop(final List<ClientAccount> clients, final List<TimeCard> timeCards) {
+        final InvoiceEngine engine = new InvoiceEngine(clients).addAll(timeCards);
+        final Set<YearMonth> months = TestData.months(timeCards);
+        assertTrue(months.size() > 1);
+        for(YearMonth month : months) {
+            assertEquals(TestData.invoiceReports(TestData.loopInvoices(clients, timeCards, month)),
+                         TestData.invoiceReports(engine.getInvoices(month.getMonth(), month.getYear())),
+                         month.toString());
+        }
+    }
+}
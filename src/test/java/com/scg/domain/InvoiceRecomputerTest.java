@@ -0,0 +1,156 @@
+package com.scg.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+
+/**
+ * Tests that {@link InvoiceRecomputer} keeps the invoices of the per-client extraction loop as time
+ * cards arrive and are corrected, and reports each change as a multiset difference of line items.
+ * @author Adam Spade
+ */
+public final class InvoiceRecomputerTest
+extends Object
+{
+    /**
+     * Initializer for the invoiced clients.
+     */
+    private final List<ClientAccount> clients = TestData.clients();
+    /**
+     * Initializer for the ingested time cards.
+     */
+    private final List<TimeCard> timeCards = TestData.timeCards(clients);
+
+    /**
+     * The first ingest amends every invoice with time from nothing, adding all of its line items.
+     */
+    @Test
+    public void firstIngestAddsEveryLineItem() {
+        final InvoiceRecomputer recomputer = new InvoiceRecomputer(clients);
+        final List<InvoiceAmendment> amendments = recomputer.ingest(timeCards);
+        assertEquals(clients.size() * TestData.months(timeCards).size(), amendments.size());
+        for(InvoiceAmendment amendment : amendments) {
+            assertEquals(0, amendment.getPreviousInvoice().getLineItemCount());
+            assertTrue(amendment.getRemovedLineItems().isEmpty());
+            assertEquals(amendment.getRevisedInvoice().getLineItems(), amendment.getAddedLineItems());
+            assertEquals(amendment.getRevisedInvoice().getTotalHours(), amendment.getHoursDelta());
+        }
+        assertMatchesLoop(recomputer);
+        assertTrue(recomputer.ingest(TestData.timeCards(clients)).isEmpty());
+        assertEquals(timeCards.size(), recomputer.getTimeCardCount());
+    }
+    /**
+     * A corrected card replaces the original and amends only the invoices either of them bills.
+     */
+    @Test
+    public void correctionAmendsOnlyItsInvoices() {
+        final InvoiceRecomputer recomputer = new InvoiceRecomputer(clients);
+        recomputer.ingest(timeCards);
+        final TimeCard original = timeCards.get(4);
+        final ConsultantTime changed = original.getConsultingHours().get(1);
+        final TimeCard corrected = new TimeCard(original.getConsultant(), original.getWeekStartingDay());
+        for(ConsultantTime time : original.getConsultingHours()) {
+            corrected.addConsultantTime(new ConsultantTime(time.getDate(), time.getAccount(), time.getSkillType(),
+                                                           time.getHours() + ((time == changed) ? 3 : 0)));
+        }
+        timeCards.set(4, corrected);
+        final List<InvoiceAmendment> amendments = recomputer.ingest(corrected);
+        assertEquals(1, amendments.size());
+        final InvoiceAmendment amendment = amendments.get(0);
+        assertEquals(changed.getAccount(), amendment.getClientAccount());
+        assertEquals(YearMonth.from(changed.getDate()).atDay(1), amendment.getStartDate());
+        assertEquals(1, amendment.getRemovedLineItems().size());
+        assertEquals(changed.getHours(), amendment.getRemovedLineItems().get(0).getHours());
+        assertEquals(1, amendment.getAddedLineItems().size());
+        assertEquals(changed.getHours() + 3, amendment.getAddedLineItems().get(0).getHours());
+        assertEquals(3, amendment.getHoursDelta());
+        assertEquals(3 * changed.getSkillType().getRateCents(), amendment.getChargesDeltaCents());
+        assertEquals(timeCards.size(), recomputer.getTimeCardCount());
+        assertMatchesLoop(recomputer);
+    }
+    /**
+     * Line items repeated on an invoice are added and removed one copy at a time.
+     */
+    @Test
+    public void repeatedLineItemsAreCountedAsMultiset() {
+        final InvoiceRecomputer recomputer = new InvoiceRecomputer(clients);
+        final Consultant consultant = TestData.consultants().get(0);
+        final LocalDate week = LocalDate.of(2017, 3, 6);
+        recomputer.ingest(card(consultant, week, 3));
+        final List<InvoiceAmendment> fewer = recomputer.ingest(card(consultant, week, 1));
+        assertEquals(1, fewer.size());
+        assertEquals(2, fewer.get(0).getRemovedLineItems().size());
+        assertTrue(fewer.get(0).getAddedLineItems().isEmpty());
+        assertEquals(-8, fewer.get(0).getHoursDelta());
+        final List<InvoiceAmendment> more = recomputer.ingest(card(consultant, week, 2));
+        assertEquals(1, more.get(0).getAddedLineItems().size());
+        assertTrue(more.get(0).getRemovedLineItems().isEmpty());
+        assertEquals(2, recomputer.getInvoice(clients.get(0), week.getMonth(), week.getYear()).getLineItemCount());
+    }
+    /**
+     * A correction that takes all of a client's time away empties its invoice.
+     */
+    @Test
+    public void correctionCanEmptyInvoice() {
+        final InvoiceRecomputer recomputer = new InvoiceRecomputer(clients);
+        final Consultant consultant = TestData.consultants().get(0);
+        final LocalDate week = LocalDate.of(2017, 3, 6);
+        recomputer.ingest(card(consultant, week, 2));
+        final TimeCard vacation = new TimeCard(consultant, week);
+        vacation.addConsultantTime(new ConsultantTime(week, NonBillableAccount.VACATION, Skill.UNKNOWN_SKILL, 8));
+        final List<InvoiceAmendment> amendments = recomputer.ingest(Collections.singletonList(vacation));
+        assertEquals(1, amendments.size());
+        assertEquals(0, amendments.get(0).getRevisedInvoice().getLineItemCount());
+        assertEquals(0, recomputer.getInvoice(clients.get(0), week.getMonth(), week.getYear()).getLineItemCount());
+    }
+
+    /**
+     * Creates a card billing the first client the same four hours several times on one day.
+     * @param consultant of the card.
+     * @param week starting day of the card.
+     * @param copies of the entry.
+     * @return the card.
+     */
+    private TimeCard card(final Consultant consultant, final LocalDate week, final int copies) {
+        final TimeCard timeCard = new TimeCard(consultant, week);
+        for(int i = 0; i < copies; i++) {
+            timeCard.addConsultantTime(new ConsultantTime(week, clients.get(0), Skill.SOFTWARE_ENGINEER, 4));
+        }
+        return timeCard;
+    }
+    /**
+     * Checks the issued invoices against the loop over the current time cards, for every month.
+     * @param recomputer holding the issued invoices.
+     */
+    private void assertMatchesLoop(final InvoiceRecomputer recomputer) {
+        for(YearMonth month : TestData.months(timeCards)) {
+            assertEquals(TestData.invoiceReports(TestData.loopInvoices(clients, timeCards, month)),
+                         TestData.invoiceReports(recomputer.getInvoices(month.getMonth(), month.getYear())),
+                         month.toString());
+        }
+        assertEquals(new ArrayList<>(Arrays.asList(0, 0, 0)), lineItemCounts(recomputer, YearMonth.of(2016, 1)));
+    }
+    /**
+     * Getter for the line item counts of every client's invoice for a month.
+     * @param recomputer holding the issued invoices.
+     * @param month of the invoices.
+     * @return line item count per client.
+     */
+    private static List<Integer> lineItemCounts(final InvoiceRecomputer recomputer, final YearMonth month) {
+        final List<Integer> counts = new ArrayList<>();
+        for(Invoice invoice : recomputer.getInvoices(month.getMonth(), month.getYear())) {
+            counts.add(invoice.getLineItemCount());
+        }
+        return counts;
+    }
+}
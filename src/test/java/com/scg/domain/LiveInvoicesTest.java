@@ -0,0 +1,98 @@
+package com.scg.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+
+/**
+ * Tests that {@link LiveInvoices} keeps the invoices of the per-client extraction loop as time is
+ * recorded on tracked time cards, including time recorded while the cards are being tracked.
+ * @author Adam Spade
+ */
+public final class LiveInvoicesTest
+extends Object
+{
+    /**
+     * Month of the invoices.
+     */
+    private static final YearMonth MARCH = YearMonth.of(2017, 3);
+
+    /**
+     * Running totals and page counts match the loop after every consultant time added.
+     */
+    @Test
+    public void runningTotalsMatchLoop() {
+        final List<ClientAccount> clients = TestData.clients();
+        final List<TimeCard> timeCards = TestData.timeCards(clients);
+        final LiveInvoices live = new LiveInvoices(clients);
+        for(TimeCard timeCard : timeCards) {
+            live.track(timeCard);
+        }
+        assertMatchesLoop(clients, timeCards, live);
+        final TimeCard timeCard = timeCards.get(timeCards.size() - 1);
+        final Random random = new Random(16L);
+        for(int i = 0; i < 60; i++) {
+            timeCard.addConsultantTime(new ConsultantTime(LocalDate.of(2017, 3, 13 + random.nextInt(7)),
+                                                          clients.get(random.nextInt(clients.size())),
+                                                          Skill.SOFTWARE_TESTER, 1 + random.nextInt(8)));
+            assertMatchesLoop(clients, timeCards, live);
+        }
+        assertTrue(live.getInvoices(MARCH.getMonth(), MARCH.getYear()).get(0).getPageCount() > 1);
+    }
+    /**
+     * Time recorded on other threads while the cards are being tracked is counted exactly once.
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    public void concurrentAddsWhileTracking() throws InterruptedException {
+        final List<ClientAccount> clients = TestData.clients();
+        for(int round = 0; round < 20; round++) {
+            final List<TimeCard> timeCards = TestData.timeCards(clients);
+            final TimeCard timeCard = timeCards.get(round % timeCards.size());
+            final LiveInvoices live = new LiveInvoices(clients);
+            final Thread adder = new Thread(() -> {
+                for(int i = 0; i < 20000; i++) {
+                    timeCard.addConsultantTime(new ConsultantTime(LocalDate.of(2017, 3, 1 + i % 31),
+                                                                  clients.get(i % clients.size()),
+                                                                  Skill.SYSTEM_ARCHITECT, 1 + i % 8));
+                }
+            });
+            adder.start();
+            while(timeCard.getConsultingHours().size() < 1000) {
+                Thread.yield();
+            }
+            for(TimeCard tracked : timeCards) {
+                live.track(tracked);
+            }
+            adder.join();
+            assertMatchesLoop(clients, timeCards, live);
+        }
+    }
+
+    /**
+     * Checks the live invoices' totals, line item counts and page counts against the loop.
+     * @param clients invoiced.
+     * @param timeCards tracked.
+     * @param live invoices.
+     */
+    private static void assertMatchesLoop(final List<ClientAccount> clients, final List<TimeCard> timeCards,
+                                          final LiveInvoices live) {
+        final List<Invoice> expected = TestData.loopInvoices(clients, timeCards, MARCH);
+        final List<Invoice> actual = live.getInvoices(MARCH.getMonth(), MARCH.getYear());
+        assertEquals(expected.size(), actual.size());
+        for(int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getTotalHours(), actual.get(i).getTotalHours());
+            assertEquals(expected.get(i).getTotalChargesCents(), actual.get(i).getTotalChargesCents());
+            assertEquals(expected.get(i).getLineItemCount(), actual.get(i).getLineItemCount());
+            assertEquals(expected.get(i).getPageCount(), actual.get(i).getPageCount());
+        }
+    }
+}
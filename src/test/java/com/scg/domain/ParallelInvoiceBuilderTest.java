@@ -0,0 +1,83 @@
+package com.scg.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+
+/**
+ * Tests that {@link ParallelInvoiceBuilder} builds and renders the invoices of the per-client
+ * extraction loop at any parallelism.
+ * @author Adam Spade
+ */
+public final class ParallelInvoiceBuilderTest
+extends Object
+{
+    /**
+     * Parallelism levels to build at.
+     */
+    private static final int[] PARALLELISM = {1, 3, 8};
+
+    /**
+     * Built invoices match the loop for every month, with enough clients and time cards to split.
+     */
+    @Test
+    public void buildMatchesLoop() {
+        final List<ClientAccount> clients = manyClients();
+        final List<TimeCard> timeCards = TestData.randomTimeCards(clients, 1000, 21L);
+        for(int parallelism : PARALLELISM) {
+            final ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                for(YearMonth month : TestData.months(timeCards)) {
+                    final ParallelInvoiceBuilder builder = new ParallelInvoiceBuilder(clients, timeCards,
+                                                                                      month.getMonth(),
+                                                                                      month.getYear());
+                    assertEquals(TestData.invoiceReports(TestData.loopInvoices(clients, timeCards, month)),
+                                 TestData.invoiceReports(builder.build(pool)), month + " at " + parallelism);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+    /**
+     * Rendered invoices match the loop's reports.
+     * @throws IOException if an invoice cannot be rendered.
+     */
+    @Test
+    public void renderMatchesLoop() throws IOException {
+        final List<ClientAccount> clients = manyClients();
+        final List<TimeCard> timeCards = TestData.timeCards(clients);
+        final YearMonth month = YearMonth.of(2017, 3);
+        final String expected = TestData.invoiceReports(TestData.loopInvoices(clients, timeCards, month));
+        for(int parallelism : PARALLELISM) {
+            final ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                final List<String> rendered = new ParallelInvoiceBuilder(clients, timeCards, month.getMonth(),
+                                                                         month.getYear()).render(pool);
+                assertEquals(clients.size(), rendered.size());
+                assertEquals(expected, String.join("", rendered), "at " + parallelism);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Creates a client list long enough to be split between tasks, with every client repeated.
+     * @return the clients.
+     */
+    private static List<ClientAccount> manyClients() {
+        final List<ClientAccount> clients = TestData.clients();
+        for(int i = 0; i < 10; i++) {
+            clients.addAll(TestData.clients());
+        }
+        return clients;
+    }
+}
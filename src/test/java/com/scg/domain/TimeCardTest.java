@@ -0,0 +1,127 @@
+package com.scg.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+
+/**
+ * Tests that a {@link TimeCard} keeps its billable hours grouped by client, and that time on a time card
+ * can no longer be changed.
+ * @author Adam Spade
+ */
+public final class TimeCardTest
+extends Object
+{
+    /**
+     * Time card file written with the default serialized form, before the serialization proxies.
+     */
+    private static final String LEGACY_TIME_CARDS = "TimeCardList.ser";
+    /**
+     * Initializer for the clients billed.
+     */
+    private final List<ClientAccount> clients = TestData.clients();
+
+    /**
+     * Client groups, totals and names match a scan of the consulting hours, and lookups return the
+     * same read-only view each time.
+     */
+    @Test
+    public void clientGroupsMatchScan() {
+        for(TimeCard timeCard : TestData.randomTimeCards(clients, 100, 24L)) {
+            assertGroupsMatchScan(timeCard);
+        }
+    }
+    /**
+     * Time can be changed until it is added to a time card, and is rejected afterwards without
+     * changing the time or the card's totals.
+     */
+    @Test
+    public void settersRejectChangesAfterAdd() {
+        final LocalDate day = LocalDate.of(2017, 3, 6);
+        final ConsultantTime time = new ConsultantTime(day, clients.get(0), Skill.SOFTWARE_ENGINEER, 4);
+        time.setHours(5);
+        time.setDate(day.plusDays(1));
+        time.setAccount(clients.get(1));
+        final TimeCard timeCard = new TimeCard(TestData.consultants().get(0), day);
+        timeCard.addConsultantTime(time);
+        assertThrows(IllegalStateException.class, () -> time.setHours(8));
+        assertThrows(IllegalStateException.class, () -> time.setDate(day));
+        assertThrows(IllegalStateException.class, () -> time.setAccount(NonBillableAccount.VACATION));
+        assertEquals(5, time.getHours());
+        assertEquals(day.plusDays(1), time.getDate());
+        assertSame(clients.get(1), time.getAccount());
+        assertEquals(5, timeCard.getTotalBillableHours());
+        assertEquals(5, timeCard.getTotalBillableHoursForClient(clients.get(1).getName()));
+    }
+    /**
+     * Time cards read from the default serialized form group their billable hours on first lookup, after
+     * which their time can no longer be changed.
+     * @throws IOException if the legacy file cannot be read.
+     * @throws ClassNotFoundException if a serialized class cannot be found.
+     */
+    @Test
+    public void legacyTimeCardsGroupOnFirstLookup() throws IOException, ClassNotFoundException {
+        final List<TimeCard> timeCards;
+        try (ObjectInputStream in = new ObjectInputStream(
+                new BufferedInputStream(Files.newInputStream(Paths.get(LEGACY_TIME_CARDS))))) {
+            @SuppressWarnings("unchecked")
+            final List<TimeCard> read = (List<TimeCard>) in.readObject();
+            timeCards = read;
+        }
+        assertFalse(timeCards.isEmpty());
+        for(TimeCard timeCard : timeCards) {
+            assertGroupsMatchScan(timeCard);
+            for(ConsultantTime time : timeCard.getConsultingHours()) {
+                assertThrows(IllegalStateException.class, () -> time.setHours(time.getHours()));
+            }
+        }
+    }
+
+    /**
+     * Checks a time card's client groups against a scan of its consulting hours.
+     * @param timeCard to check.
+     */
+    private static void assertGroupsMatchScan(final TimeCard timeCard) {
+        final Set<String> names = new LinkedHashSet<>();
+        for(ConsultantTime time : timeCard.getConsultingHours()) {
+            if(time.isBillable()) {
+                names.add(time.getAccount().getName());
+            }
+        }
+        assertEquals(names, timeCard.getBillableClientNames());
+        for(String name : names) {
+            final List<ConsultantTime> scan = new ArrayList<>();
+            int total = 0;
+            for(ConsultantTime time : timeCard.getConsultingHours()) {
+                if(time.isBillable() && time.getAccount().getName().equals(name)) {
+                    scan.add(time);
+                    total += time.getHours();
+                }
+            }
+            final List<ConsultantTime> hours = timeCard.getBillableHoursForClient(name);
+            assertEquals(scan, hours);
+            assertEquals(total, timeCard.getTotalBillableHoursForClient(name));
+            assertSame(hours, timeCard.getBillableHoursForClient(name));
+            assertThrows(UnsupportedOperationException.class, () -> hours.remove(0));
+        }
+        assertTrue(timeCard.getBillableHoursForClient("No Such Client").isEmpty());
+        assertEquals(0, timeCard.getTotalBillableHoursForClient("No Such Client"));
+    }
+}
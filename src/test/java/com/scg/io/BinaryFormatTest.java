@@ -0,0 +1,183 @@
+package com.scg.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+import com.scg.domain.ClientAccount;
+import com.scg.domain.CompactTimeCard;
+import com.scg.domain.TimeCard;
+
+/**
+ * Tests of the binary client account and time card list codec.
+ * @author Adam Spade
+ */
+public final class BinaryFormatTest
+extends Object
+{
+    /**
+     * Bytes in a list header: magic number, kind and version.
+     */
+    private static final int HEADER_LENGTH = 6;
+
+    /**
+     * Client accounts read back the same as they were written.
+     * @throws IOException if the codec fails.
+     */
+    @Test
+    public void clientAccountsRoundTrip() throws IOException {
+        final List<ClientAccount> clients = TestData.clients();
+        final List<ClientAccount> read = BinaryFormat.readClientAccounts(
+                new ByteArrayInputStream(clientBytes(clients)));
+        assertEquals(clients.toString(), read.toString());
+    }
+    /**
+     * Time cards read back the same as they were written, sharing one consultant instance per name.
+     * @throws IOException if the codec fails.
+     */
+    @Test
+    public void timeCardsRoundTrip() throws IOException {
+        final List<TimeCard> timeCards = TestData.timeCards(TestData.clients());
+        final List<TimeCard> read = BinaryFormat.readTimeCards(new ByteArrayInputStream(timeCardBytes(timeCards)));
+        assertEquals(TestData.reports(timeCards), TestData.reports(read));
+        assertSame(read.get(0).getConsultant(), read.get(3).getConsultant());
+    }
+    /**
+     * Time cards read back as compact time cards materialize the same as they were written.
+     * @throws IOException if the codec fails.
+     */
+    @Test
+    public void compactTimeCardsRoundTrip() throws IOException {
+        final List<TimeCard> timeCards = TestData.randomTimeCards(TestData.clients(), 100, 23L);
+        final List<TimeCard> read = new ArrayList<>();
+        for(CompactTimeCard compact : BinaryFormat.readCompactTimeCards(
+                new ByteArrayInputStream(timeCardBytes(timeCards)))) {
+            read.add(compact.toTimeCard());
+        }
+        assertEquals(TestData.reports(timeCards), TestData.reports(read));
+    }
+    /**
+     * An empty list reads back empty.
+     * @throws IOException if the codec fails.
+     */
+    @Test
+    public void emptyListRoundTrip() throws IOException {
+        final byte[] bytes = timeCardBytes(Collections.<TimeCard>emptyList());
+        assertEquals(0, BinaryFormat.readTimeCards(new ByteArrayInputStream(bytes)).size());
+    }
+    /**
+     * Bytes without the magic number are rejected.
+     * @throws IOException if the codec fails.
+     */
+    @Test
+    public void badMagicIsCorrupt() throws IOException {
+        final byte[] bytes = timeCardBytes(TestData.timeCards(TestData.clients()));
+        bytes[0] ^= 0x20;
+        assertThrows(StreamCorruptedException.class,
+                     () -> BinaryFormat.readTimeCards(new ByteArrayInputStream(bytes)));
+    }
+    /**
+     * A client account list is not read as a time card list.
+     * @throws IOException if the codec fails.
+     */
+    @Test
+    public void wrongKindIsCorrupt() throws IOException {
+        final byte[] bytes = clientBytes(TestData.clients());
+        assertThrows(StreamCorruptedException.class,
+                     () -> BinaryFormat.readTimeCards(new ByteArrayInputStream(bytes)));
+    }
+    /**
+     * A version newer than the reader is rejected.
+     * @throws IOException if the codec fails.
+     */
+    @Test
+    public void unsupportedVersionIsCorrupt() throws IOException {
+        final byte[] bytes = clientBytes(TestData.clients());
+        bytes[5] = (byte) (BinaryFormat.VERSION + 1);
+        assertThrows(StreamCorruptedException.class,
+                     () -> BinaryFormat.readClientAccounts(new ByteArrayInputStream(bytes)));
+    }
+    /**
+     * A list cut short fails at the end of the data.
+     * @throws IOException if the codec fails.
+     */
+    @Test
+    public void truncatedListFails() throws IOException {
+        final byte[] bytes = timeCardBytes(TestData.timeCards(TestData.clients()));
+        final byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+        assertThrows(EOFException.class,
+                     () -> BinaryFormat.readTimeCards(new ByteArrayInputStream(truncated)));
+    }
+    /**
+     * A damaged count that decodes negative is rejected as corrupt.
+     * @throws IOException if the codec fails.
+     */
+    @Test
+    public void negativeCountIsCorrupt() throws IOException {
+        final byte[] bytes = withCount(clientBytes(TestData.clients()), -1);
+        assertThrows(StreamCorruptedException.class,
+                     () -> BinaryFormat.readClientAccounts(new ByteArrayInputStream(bytes)));
+    }
+    /**
+     * A damaged count far larger than the data fails at the end of the data instead of allocating
+     * for the count up front.
+     * @throws IOException if the codec fails.
+     */
+    @Test
+    public void hugeCountFailsAtEndOfData() throws IOException {
+        final byte[] bytes = withCount(timeCardBytes(TestData.timeCards(TestData.clients())), Integer.MAX_VALUE);
+        assertThrows(EOFException.class,
+                     () -> BinaryFormat.readTimeCards(new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * Replaces the count after the header of an encoded list.
+     * @param bytes of the list, whose count is encoded in one byte.
+     * @param count to write in its place.
+     * @return the damaged bytes.
+     * @throws IOException if the count cannot be encoded.
+     */
+    private static byte[] withCount(final byte[] bytes, final int count) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(bytes, 0, HEADER_LENGTH);
+        new BinaryEncoder(new DataOutputStream(out)).writeVarInt(count);
+        out.write(bytes, HEADER_LENGTH + 1, bytes.length - HEADER_LENGTH - 1);
+        return out.toByteArray();
+    }
+    /**
+     * Encodes client accounts.
+     * @param clients to encode.
+     * @return the encoded bytes.
+     * @throws IOException if the codec fails.
+     */
+    private static byte[] clientBytes(final List<ClientAccount> clients) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryFormat.writeClientAccounts(out, clients);
+        return out.toByteArray();
+    }
+    /**
+     * Encodes time cards.
+     * @param timeCards to encode.
+     * @return the encoded bytes.
+     * @throws IOException if the codec fails.
+     */
+    private static byte[] timeCardBytes(final List<TimeCard> timeCards) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryFormat.writeTimeCards(out, timeCards);
+        return out.toByteArray();
+    }
+}
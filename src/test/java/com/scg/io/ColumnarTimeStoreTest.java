@@ -0,0 +1,143 @@
+package com.scg.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+import com.scg.domain.TimeCard;
+
+/**
+ * Tests of the memory-mapped columnar time card store and its checks of damaged files.
+ * @author Adam Spade
+ */
+public final class ColumnarTimeStoreTest
+extends Object
+{
+    /**
+     * Offset of the table length, after the magic number, kind and version.
+     */
+    private static final int TABLES_LENGTH_OFFSET = 6;
+    /**
+     * Offset of the account count, the first value in the tables.
+     */
+    private static final int ACCOUNT_COUNT_OFFSET = 10;
+    /**
+     * Initializer for the stored time cards.
+     */
+    private final List<TimeCard> timeCards = TestData.timeCards(TestData.clients());
+    /**
+     * Initializer for the store file.
+     */
+    private Path file;
+
+    /**
+     * Writes the store file.
+     * @throws IOException if the file cannot be written.
+     */
+    @BeforeEach
+    public void writeStore() throws IOException {
+        file = Files.createTempFile("timecards", ".col");
+        ColumnarTimeStore.write(file, timeCards);
+    }
+    /**
+     * Deletes the store file.
+     * @throws IOException if the file cannot be deleted.
+     */
+    @AfterEach
+    public void deleteStore() throws IOException {
+        Files.delete(file);
+    }
+
+    /**
+     * Views report the same totals as the stored time cards and materialize them unchanged.
+     * @throws IOException if the store cannot be read.
+     */
+    @Test
+    public void timeCardsRoundTrip() throws IOException {
+        try (ColumnarTimeStore store = ColumnarTimeStore.open(file)) {
+            assertEquals(timeCards.size(), store.getTimeCardCount());
+            final List<TimeCard> read = new ArrayList<>();
+            for(int i = 0; i < timeCards.size(); i++) {
+                final MappedTimeCard view = store.getTimeCard(i);
+                assertEquals(timeCards.get(i).getTotalBillableHours(), view.getTotalBillableHours());
+                assertEquals(timeCards.get(i).getTotalNonBillableHours(), view.getTotalNonBillableHours());
+                read.add(view.toTimeCard());
+            }
+            assertEquals(TestData.reports(timeCards), TestData.reports(read));
+        }
+    }
+    /**
+     * An account table size that decodes negative is rejected on open.
+     * @throws IOException if the store cannot be written.
+     */
+    @Test
+    public void negativeAccountCountIsCorrupt() throws IOException {
+        Files.write(file, withAccountCount(Files.readAllBytes(file), -1));
+        assertThrows(StreamCorruptedException.class, () -> ColumnarTimeStore.open(file).close());
+    }
+    /**
+     * An account table size larger than the tables is rejected on open instead of allocated.
+     * @throws IOException if the store cannot be written.
+     */
+    @Test
+    public void hugeAccountCountIsCorrupt() throws IOException {
+        Files.write(file, withAccountCount(Files.readAllBytes(file), Integer.MAX_VALUE));
+        assertThrows(StreamCorruptedException.class, () -> ColumnarTimeStore.open(file).close());
+    }
+    /**
+     * A damaged row opens, and only the time card holding it fails, when its view is obtained.
+     * @throws IOException if the store cannot be read.
+     */
+    @Test
+    public void damagedRowFailsOnAccess() throws IOException {
+        final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        final int cardOffset = ACCOUNT_COUNT_OFFSET + bytes.getInt(TABLES_LENGTH_OFFSET) + 8;
+        final int rows = bytes.getInt(cardOffset - 4);
+        final int accountOffset = cardOffset + timeCards.size() * 16 + rows * 4;
+        bytes.putInt(accountOffset + 4 * bytes.getInt(cardOffset + 16 + 8), 999);
+        bytes.putInt(cardOffset + 32, -1);
+        Files.write(file, bytes.array());
+        try (ColumnarTimeStore store = ColumnarTimeStore.open(file)) {
+            assertEquals(timeCards.get(0).getTotalHours(), store.getTimeCard(0).getTotalHours());
+            final UncheckedIOException row = assertThrows(UncheckedIOException.class, () -> store.getTimeCard(1));
+            assertTrue(row.getCause() instanceof StreamCorruptedException);
+            final UncheckedIOException consultant = assertThrows(UncheckedIOException.class,
+                                                                 () -> store.getTimeCard(2));
+            assertTrue(consultant.getCause() instanceof StreamCorruptedException);
+            assertEquals(timeCards.get(3).getTotalHours(), store.getTimeCard(3).getTotalHours());
+        }
+    }
+
+    /**
+     * Replaces the account count of a store file, adjusting the table length to match.
+     * @param bytes of the store, whose account count is encoded in one byte.
+     * @param count to write in its place.
+     * @return the damaged bytes.
+     * @throws IOException if the count cannot be encoded.
+     */
+    private static byte[] withAccountCount(final byte[] bytes, final int count) throws IOException {
+        final ByteArrayOutputStream varInt = new ByteArrayOutputStream();
+        new BinaryEncoder(new DataOutputStream(varInt)).writeVarInt(count);
+        final ByteBuffer damaged = ByteBuffer.allocate(bytes.length + varInt.size() - 1);
+        damaged.put(bytes, 0, ACCOUNT_COUNT_OFFSET).put(varInt.toByteArray())
+               .put(bytes, ACCOUNT_COUNT_OFFSET + 1, bytes.length - ACCOUNT_COUNT_OFFSET - 1);
+        damaged.putInt(TABLES_LENGTH_OFFSET, damaged.getInt(TABLES_LENGTH_OFFSET) + varInt.size() - 1);
+        return damaged.array();
+    }
+}
@@ -0,0 +1,105 @@
+package com.scg.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+import com.scg.domain.TimeCard;
+
+/**
+ * Tests of the block-compressed time card file.
+ * @author Adam Spade
+ */
+public final class CompressedTimeCardFileTest
+extends Object
+{
+    /**
+     * Initializer for time cards filling several blocks.
+     */
+    private final List<TimeCard> timeCards = TestData.randomTimeCards(TestData.clients(), 1000, 6L);
+    /**
+     * Initializer for the compressed file.
+     */
+    private Path file;
+
+    /**
+     * Creates the compressed file.
+     * @throws IOException if the file cannot be created.
+     */
+    @BeforeEach
+    public void createFile() throws IOException {
+        file = Files.createTempFile("timecards", ".z");
+    }
+    /**
+     * Deletes the compressed file.
+     * @throws IOException if the file cannot be deleted.
+     */
+    @AfterEach
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Time cards spread over many blocks read back in order, sequentially and in parallel.
+     * @throws IOException if the file fails.
+     */
+    @Test
+    public void timeCardsRoundTrip() throws IOException {
+        CompressedTimeCardFile.write(file, timeCards, 64);
+        final String expected = TestData.reports(timeCards);
+        assertEquals(expected, TestData.reports(CompressedTimeCardFile.read(file)));
+        assertEquals(expected, TestData.reports(CompressedTimeCardFile.read(Files.readAllBytes(file))));
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            assertEquals(expected, TestData.reports(CompressedTimeCardFile.read(file, pool)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+    /**
+     * A file of no time cards reads back empty.
+     * @throws IOException if the file fails.
+     */
+    @Test
+    public void emptyRoundTrip() throws IOException {
+        CompressedTimeCardFile.write(file, new ArrayList<TimeCard>());
+        assertTrue(CompressedTimeCardFile.read(file).isEmpty());
+    }
+    /**
+     * A file cut short loses its block index and is rejected.
+     * @throws IOException if the file fails.
+     */
+    @Test
+    public void truncatedFileFails() throws IOException {
+        CompressedTimeCardFile.write(file, timeCards, 64);
+        final byte[] bytes = Files.readAllBytes(file);
+        assertThrows(IOException.class,
+                     () -> CompressedTimeCardFile.read(Arrays.copyOf(bytes, bytes.length / 2)));
+    }
+    /**
+     * A damaged block is rejected rather than read as different time cards.
+     * @throws IOException if the file fails.
+     */
+    @Test
+    public void damagedBlockFails() throws IOException {
+        CompressedTimeCardFile.write(file, timeCards, 64);
+        final byte[] bytes = Files.readAllBytes(file);
+        for(int i = 16; i < 48; i++) {
+            bytes[i] ^= 0x5A;
+        }
+        assertThrows(IOException.class, () -> CompressedTimeCardFile.read(bytes));
+    }
+}
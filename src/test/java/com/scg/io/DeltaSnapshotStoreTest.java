@@ -0,0 +1,183 @@
+package com.scg.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+import com.scg.domain.ClientAccount;
+import com.scg.domain.ConsultantTime;
+import com.scg.domain.NonBillableAccount;
+import com.scg.domain.Skill;
+import com.scg.domain.TimeCard;
+import com.scg.util.Address;
+import com.scg.util.PersonalName;
+import com.scg.util.StateCode;
+
+/**
+ * Tests of the base and delta snapshots written by {@link DeltaSnapshotStore}.
+ * @author Adam Spade
+ */
+public final class DeltaSnapshotStoreTest
+extends Object
+{
+    /**
+     * Initializer for the saved client accounts.
+     */
+    private final List<ClientAccount> clients = TestData.clients();
+    /**
+     * Initializer for the saved time cards.
+     */
+    private final List<TimeCard> timeCards = TestData.timeCards(clients);
+    /**
+     * Initializer for the directory of the snapshot files.
+     */
+    private Path directory;
+
+    /**
+     * Creates the directory of the snapshot files.
+     * @throws IOException if the directory cannot be created.
+     */
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("snapshots");
+    }
+    /**
+     * Deletes the directory of the snapshot files.
+     * @throws IOException if the directory cannot be deleted.
+     */
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for(Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * The first save writes everything as a base, and saving again unchanged writes nothing.
+     * @throws IOException if the store fails.
+     */
+    @Test
+    public void unchangedSaveWritesNothing() throws IOException {
+        final DeltaSnapshotStore store = new DeltaSnapshotStore(directory, "scg", 4);
+        assertEquals(clients.size() + timeCards.size(), store.save(clients, timeCards));
+        assertEquals(0, store.save(clients, timeCards));
+        assertFalse(Files.exists(directory.resolve("scg.delta.1")));
+        assertLoads(new DeltaSnapshotStore(directory, "scg").load());
+    }
+    /**
+     * A delta holds only the changed and added records, and loading merges it over the base.
+     * @throws IOException if the store fails.
+     */
+    @Test
+    public void deltaHoldsOnlyChanges() throws IOException {
+        final DeltaSnapshotStore store = new DeltaSnapshotStore(directory, "scg", 4);
+        store.save(clients, timeCards);
+        timeCards.get(1).addConsultantTime(new ConsultantTime(LocalDate.of(2017, 2, 25), clients.get(0),
+                                                              Skill.PROJECT_MANAGER, 3));
+        final TimeCard added = new TimeCard(timeCards.get(0).getConsultant(), LocalDate.of(2017, 3, 20));
+        added.addConsultantTime(new ConsultantTime(LocalDate.of(2017, 3, 20), NonBillableAccount.VACATION,
+                                                   Skill.PROJECT_MANAGER, 8));
+        timeCards.add(added);
+        clients.get(2).setContact(new PersonalName("Duck", "Daffy"));
+        assertEquals(3, store.save(clients, timeCards));
+        assertTrue(Files.exists(directory.resolve("scg.delta.1")));
+        assertLoads(new DeltaSnapshotStore(directory, "scg").load());
+    }
+    /**
+     * A change saved with a client account alone reaches the time cards billing it when loaded.
+     * @throws IOException if the store fails.
+     */
+    @Test
+    public void clientChangeReachesTimeCards() throws IOException {
+        final DeltaSnapshotStore store = new DeltaSnapshotStore(directory, "scg", 4);
+        store.save(clients, timeCards);
+        clients.get(0).setAddress(new Address("2 New Ave", "Redmond", StateCode.WA, "98052"));
+        assertEquals(1, store.save(clients, timeCards));
+        final Dataset loaded = new DeltaSnapshotStore(directory, "scg").load();
+        assertLoads(loaded);
+        final ClientAccount client = loaded.getClientAccounts().get(0);
+        int billed = 0;
+        for(TimeCard timeCard : loaded.getTimeCards()) {
+            for(ConsultantTime time : timeCard.getConsultingHours()) {
+                if(time.getAccount().getName().equals(client.getName())) {
+                    assertSame(client, time.getAccount());
+                    billed++;
+                }
+            }
+        }
+        assertTrue(billed > 0);
+        assertEquals(0, store.save(clients, timeCards));
+    }
+    /**
+     * Removed client accounts and time cards are gone after loading.
+     * @throws IOException if the store fails.
+     */
+    @Test
+    public void deltaHoldsRemovals() throws IOException {
+        final DeltaSnapshotStore store = new DeltaSnapshotStore(directory, "scg", 4);
+        store.save(clients, timeCards);
+        timeCards.remove(5);
+        clients.remove(1);
+        assertEquals(2, store.save(clients, timeCards));
+        assertLoads(new DeltaSnapshotStore(directory, "scg").load());
+    }
+    /**
+     * A store that has not loaded, or has reached its delta limit, writes a new base and drops the
+     * deltas of the old one.
+     * @throws IOException if the store fails.
+     */
+    @Test
+    public void rebaseDropsDeltas() throws IOException {
+        final DeltaSnapshotStore store = new DeltaSnapshotStore(directory, "scg", 1);
+        store.save(clients, timeCards);
+        timeCards.remove(0);
+        assertEquals(1, store.save(clients, timeCards));
+        assertTrue(Files.exists(directory.resolve("scg.delta.1")));
+        timeCards.remove(0);
+        assertEquals(clients.size() + timeCards.size(), store.save(clients, timeCards));
+        assertFalse(Files.exists(directory.resolve("scg.delta.1")));
+        assertLoads(new DeltaSnapshotStore(directory, "scg").load());
+    }
+    /**
+     * A delta left behind by an earlier base is ignored.
+     * @throws IOException if the store fails.
+     */
+    @Test
+    public void staleDeltaIsIgnored() throws IOException {
+        final DeltaSnapshotStore store = new DeltaSnapshotStore(directory, "scg", 4);
+        store.save(clients, timeCards);
+        final List<TimeCard> original = TestData.timeCards(clients);
+        timeCards.remove(0);
+        store.save(clients, timeCards);
+        final byte[] stale = Files.readAllBytes(directory.resolve("scg.delta.1"));
+        new DeltaSnapshotStore(directory, "scg", 4).save(clients, original);
+        Files.write(directory.resolve("scg.delta.1"), stale);
+        final Dataset loaded = new DeltaSnapshotStore(directory, "scg").load();
+        assertEquals(TestData.reports(original), TestData.reports(loaded.getTimeCards()));
+    }
+
+    /**
+     * Checks that a loaded dataset holds the current client accounts and time cards.
+     * @param loaded dataset.
+     */
+    private void assertLoads(final Dataset loaded) {
+        assertEquals(clients.toString(), loaded.getClientAccounts().toString());
+        assertEquals(TestData.reports(timeCards), TestData.reports(loaded.getTimeCards()));
+    }
+}
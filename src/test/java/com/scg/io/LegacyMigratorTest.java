@@ -0,0 +1,167 @@
+package com.scg.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+import com.scg.domain.ClientAccount;
+import com.scg.domain.TimeCard;
+
+/**
+ * Tests that migrating a directory of legacy files converts every file it can and reports the ones
+ * it cannot, leaving them as they were.
+ * @author Adam Spade
+ */
+public final class LegacyMigratorTest
+extends Object
+{
+    /**
+     * Initializer for the migrated clients.
+     */
+    private final List<ClientAccount> clients = TestData.clients();
+    /**
+     * Initializer for the migrated time cards.
+     */
+    private final List<TimeCard> timeCards = TestData.timeCards(clients);
+    /**
+     * Initializer for the migrated directory.
+     */
+    private Path directory;
+
+    /**
+     * Creates the migrated directory with a client file, a time card file and a file that is not
+     * migrated.
+     * @throws IOException if the files cannot be written.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("legacy");
+        serialize(directory.resolve("clients.ser"), clients);
+        serialize(directory.resolve("timecards.ser"), timeCards);
+        Files.write(directory.resolve("notes.txt"), "not migrated".getBytes(StandardCharsets.US_ASCII));
+        Files.createDirectory(directory.resolve("archive.ser"));
+    }
+    /**
+     * Deletes the migrated directory.
+     * @throws IOException if the directory cannot be deleted.
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for(Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * A directory of good files is migrated completely.
+     * @throws IOException if the migration fails.
+     */
+    @Test
+    public void migratesEveryFile() throws IOException {
+        assertEquals(2, LegacyMigrator.migrateDirectory(directory));
+        assertMigrated();
+        assertEquals(Arrays.asList("archive.ser", "clients.bin", "clients.ser", "notes.txt", "timecards.bin",
+                                   "timecards.ser"), fileNames());
+    }
+    /**
+     * Files that cannot be migrated are recorded and left as they were, without partial output,
+     * while the good files are migrated and a file holding nothing to migrate is passed over.
+     * @throws IOException if the directory cannot be listed.
+     */
+    @Test
+    public void skipsAndRecordsBadFiles() throws IOException {
+        final byte[] garbage = "not a serialization stream".getBytes(StandardCharsets.US_ASCII);
+        Files.write(directory.resolve("garbage.ser"), garbage);
+        serialize(directory.resolve("mixed.ser"), new ArrayList<Serializable>(Arrays.asList(
+                timeCards.get(0), timeCards.get(1), clients.get(0))));
+        serialize(directory.resolve("strings.ser"), "a string");
+        new ObjectOutputStream(Files.newOutputStream(directory.resolve("empty.ser"))).close();
+        final Map<Path, IOException> failures = new TreeMap<>();
+        assertEquals(2, LegacyMigrator.migrateDirectory(directory, failures));
+        assertMigrated();
+        assertEquals(Arrays.asList(directory.resolve("garbage.ser"), directory.resolve("mixed.ser"),
+                                   directory.resolve("strings.ser")), new ArrayList<>(failures.keySet()));
+        assertArrayEquals(garbage, Files.readAllBytes(directory.resolve("garbage.ser")));
+        assertFalse(Files.exists(directory.resolve("garbage.bin")));
+        assertFalse(Files.exists(directory.resolve("mixed.bin")));
+        assertFalse(Files.exists(directory.resolve("mixed.bin.tmp")));
+        assertFalse(Files.exists(directory.resolve("strings.bin")));
+        assertFalse(Files.exists(directory.resolve("empty.bin")));
+    }
+    /**
+     * Without a failure map, the good files are still migrated and the failures are thrown
+     * together once every file has been tried.
+     * @throws IOException if the files cannot be written.
+     */
+    @Test
+    public void reportsFailuresTogether() throws IOException {
+        Files.write(directory.resolve("a.ser"), new byte[] {1, 2, 3});
+        Files.write(directory.resolve("z.ser"), new byte[] {4, 5, 6});
+        final IOException ex = assertThrows(IOException.class, () -> LegacyMigrator.migrateDirectory(directory));
+        assertEquals(2, ex.getSuppressed().length);
+        assertTrue(ex.getMessage().contains("a.ser"));
+        assertTrue(ex.getMessage().contains("z.ser"));
+        assertMigrated();
+    }
+
+    /**
+     * Checks that the client and time card files were migrated unchanged.
+     * @throws IOException if a migrated file cannot be read.
+     */
+    private void assertMigrated() throws IOException {
+        try (InputStream in = Files.newInputStream(directory.resolve("clients.bin"))) {
+            assertEquals(clients.toString(), BinaryFormat.readClientAccounts(in).toString());
+        }
+        try (TimeCardReader reader = new TimeCardReader(Files.newInputStream(directory.resolve("timecards.bin")))) {
+            assertEquals(TestData.reports(timeCards), TestData.reports(reader.stream().collect(Collectors.toList())));
+        }
+    }
+    /**
+     * Getter for the sorted names in the migrated directory.
+     * @return the file names.
+     * @throws IOException if the directory cannot be listed.
+     */
+    private List<String> fileNames() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+    /**
+     * Writes an object to a Java-serialized file.
+     * @param file to write.
+     * @param object to serialize.
+     * @throws IOException if the file cannot be written.
+     */
+    private static void serialize(final Path file, final Object object) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file);
+             ObjectOutputStream objects = new ObjectOutputStream(out)) {
+            objects.writeObject(object);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.scg.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+import com.scg.domain.Consultant;
+import com.scg.domain.TimeCard;
+import com.scg.util.PersonalName;
+
+/**
+ * Tests of the indexed time card archive written by {@link TimeCardArchiveWriter}.
+ * @author Adam Spade
+ */
+public final class TimeCardArchiveTest
+extends Object
+{
+    /**
+     * Initializer for the archived time cards.
+     */
+    private final List<TimeCard> timeCards = TestData.timeCards(TestData.clients());
+    /**
+     * Initializer for the archive file.
+     */
+    private Path file;
+
+    /**
+     * Writes the time cards to an archive file.
+     * @throws IOException if the archive cannot be written.
+     */
+    @BeforeEach
+    public void writeArchive() throws IOException {
+        file = Files.createTempFile("timecards", ".arc");
+        try (TimeCardArchiveWriter writer = new TimeCardArchiveWriter(file)) {
+            for(TimeCard timeCard : timeCards) {
+                writer.write(timeCard);
+            }
+        }
+    }
+    /**
+     * Deletes the archive file.
+     * @throws IOException if the file cannot be deleted.
+     */
+    @AfterEach
+    public void deleteArchive() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Every time card is found by its consultant and week.
+     * @throws IOException if the archive fails.
+     */
+    @Test
+    public void looksUpEachTimeCard() throws IOException {
+        try (TimeCardArchive archive = TimeCardArchive.open(file)) {
+            for(TimeCard timeCard : timeCards) {
+                final List<TimeCard> found = archive.getTimeCards(timeCard.getConsultant(),
+                                                                  timeCard.getWeekStartingDay());
+                assertEquals(1, found.size());
+                assertEquals(timeCard.toReportString(), found.get(0).toReportString());
+            }
+        }
+    }
+    /**
+     * A range of weeks returns the consultant's cards for those weeks, in week order.
+     * @throws IOException if the archive fails.
+     */
+    @Test
+    public void looksUpRangeOfWeeks() throws IOException {
+        final Consultant consultant = timeCards.get(0).getConsultant();
+        final LocalDate first = LocalDate.of(2017, 2, 27);
+        final LocalDate last = LocalDate.of(2017, 3, 6);
+        final List<TimeCard> expected = new ArrayList<>();
+        for(TimeCard timeCard : timeCards) {
+            if(timeCard.getConsultant() == consultant && !timeCard.getWeekStartingDay().isBefore(first)
+               && !timeCard.getWeekStartingDay().isAfter(last)) {
+                expected.add(timeCard);
+            }
+        }
+        try (TimeCardArchive archive = TimeCardArchive.open(file)) {
+            assertEquals(2, expected.size());
+            assertEquals(TestData.reports(expected),
+                         TestData.reports(archive.getTimeCards(consultant, first, last)));
+        }
+    }
+    /**
+     * A consultant not in the archive has no time cards.
+     * @throws IOException if the archive fails.
+     */
+    @Test
+    public void unknownConsultantIsEmpty() throws IOException {
+        try (TimeCardArchive archive = TimeCardArchive.open(file)) {
+            assertTrue(archive.getTimeCards(new Consultant(new PersonalName("Nobody", "No"))).isEmpty());
+            assertEquals(3, archive.getConsultantNames().size());
+        }
+    }
+    /**
+     * An archive whose footer was never written, as after a crash, is rejected.
+     * @throws IOException if the archive fails.
+     */
+    @Test
+    public void missingFooterIsCorrupt() throws IOException {
+        final byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(StreamCorruptedException.class, () -> TimeCardArchive.open(file));
+    }
+}
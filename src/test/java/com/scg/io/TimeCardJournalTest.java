@@ -0,0 +1,178 @@
+package com.scg.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+import com.scg.domain.ConsultantTime;
+import com.scg.domain.TimeCard;
+
+/**
+ * Tests of journal recovery: records replay over the snapshot, a torn tail is cut off, and corruption
+ * before the tail fails without touching the file.
+ * @author Adam Spade
+ */
+public final class TimeCardJournalTest
+extends Object
+{
+    /**
+     * Initializer for the time cards recorded in the journal.
+     */
+    private final List<TimeCard> timeCards = TestData.timeCards(TestData.clients());
+    /**
+     * Initializer for the directory of the journal files.
+     */
+    private Path directory;
+    /**
+     * Initializer for the snapshot file.
+     */
+    private Path snapshot;
+    /**
+     * Initializer for the journal file.
+     */
+    private Path journal;
+
+    /**
+     * Creates the directory of the journal files.
+     * @throws IOException if the directory cannot be created.
+     */
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("journal");
+        snapshot = directory.resolve("timecards.snapshot");
+        journal = directory.resolve("timecards.journal");
+    }
+    /**
+     * Deletes the directory of the journal files.
+     * @throws IOException if the directory cannot be deleted.
+     */
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for(Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Time cards recorded across compactions are recovered from the snapshot and the journal.
+     * @throws IOException if the journal fails.
+     */
+    @Test
+    public void recoversSnapshotAndJournal() throws IOException {
+        record(4, 7);
+        assertTrue(Files.size(snapshot) > 0 && Files.size(journal) > 0);
+        try (TimeCardJournal recovered = new TimeCardJournal(snapshot, journal)) {
+            assertEquals(TestData.reports(timeCards), TestData.reports(recovered.getTimeCards()));
+        }
+    }
+    /**
+     * A record cut short by a crash is dropped and the journal is truncated to the last whole record.
+     * @throws IOException if the journal fails.
+     */
+    @Test
+    public void tornTailIsTruncated() throws IOException {
+        record(4, Integer.MAX_VALUE);
+        final long length = Files.size(journal);
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 50, 1, 2}), length);
+        }
+        try (TimeCardJournal recovered = new TimeCardJournal(snapshot, journal)) {
+            assertEquals(TestData.reports(timeCards), TestData.reports(recovered.getTimeCards()));
+        }
+        assertEquals(length, Files.size(journal));
+    }
+    /**
+     * Zeroes preallocated past the last record are truncated.
+     * @throws IOException if the journal fails.
+     */
+    @Test
+    public void zeroFilledTailIsTruncated() throws IOException {
+        record(4, Integer.MAX_VALUE);
+        final byte[] bytes = Files.readAllBytes(journal);
+        Files.write(journal, Arrays.copyOf(bytes, bytes.length + 100));
+        try (TimeCardJournal recovered = new TimeCardJournal(snapshot, journal)) {
+            assertEquals(TestData.reports(timeCards), TestData.reports(recovered.getTimeCards()));
+        }
+        assertEquals(bytes.length, Files.size(journal));
+    }
+    /**
+     * A damaged last record is treated as torn and dropped.
+     * @throws IOException if the journal fails.
+     */
+    @Test
+    public void damagedLastRecordIsTruncated() throws IOException {
+        record(4, Integer.MAX_VALUE);
+        final byte[] bytes = Files.readAllBytes(journal);
+        bytes[bytes.length - 1] ^= 0x55;
+        Files.write(journal, bytes);
+        try (TimeCardJournal recovered = new TimeCardJournal(snapshot, journal)) {
+            assertTrue(recovered.getTimeCards().size() > 0);
+        }
+        assertTrue(Files.size(journal) < bytes.length);
+    }
+    /**
+     * A damaged record followed by whole records fails recovery and leaves the journal as it was.
+     * @throws IOException if the journal fails.
+     */
+    @Test
+    public void midFileCorruptionFails() throws IOException {
+        record(4, Integer.MAX_VALUE);
+        final byte[] bytes = Files.readAllBytes(journal);
+        bytes[12] ^= 0x55;
+        Files.write(journal, bytes);
+        assertThrows(StreamCorruptedException.class, () -> new TimeCardJournal(snapshot, journal));
+        assertEquals(bytes.length, Files.size(journal));
+    }
+    /**
+     * Replaying records already in the snapshot, as after a crash between writing the snapshot and
+     * truncating the journal, does not count their time twice.
+     * @throws IOException if the journal fails.
+     */
+    @Test
+    public void replayAfterCompactionIsIdempotent() throws IOException {
+        record(4, Integer.MAX_VALUE);
+        final byte[] bytes = Files.readAllBytes(journal);
+        try (TimeCardJournal compacted = new TimeCardJournal(snapshot, journal)) {
+            compacted.compact();
+        }
+        Files.write(journal, bytes);
+        try (TimeCardJournal recovered = new TimeCardJournal(snapshot, journal)) {
+            assertEquals(TestData.reports(timeCards), TestData.reports(recovered.getTimeCards()));
+        }
+    }
+
+    /**
+     * Records the consultant time of every time card in a new journal and closes it.
+     * @param syncInterval records between forces to disk.
+     * @param compactionInterval records between compactions.
+     * @throws IOException if the journal fails.
+     */
+    private void record(final int syncInterval, final int compactionInterval) throws IOException {
+        try (TimeCardJournal recording = new TimeCardJournal(snapshot, journal, syncInterval, compactionInterval)) {
+            for(TimeCard timeCard : timeCards) {
+                for(ConsultantTime time : timeCard.getConsultingHours()) {
+                    recording.addConsultantTime(timeCard.getConsultant(), timeCard.getWeekStartingDay(), time);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.scg.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+import com.scg.domain.TimeCard;
+
+/**
+ * Tests of the framed time card stream written by {@link TimeCardWriter} and read by
+ * {@link TimeCardReader}.
+ * @author Adam Spade
+ */
+public final class TimeCardStreamTest
+extends Object
+{
+    /**
+     * Time cards read back the same and in the same order as they were written.
+     * @throws IOException if the stream fails.
+     */
+    @Test
+    public void timeCardsRoundTrip() throws IOException {
+        final List<TimeCard> timeCards = TestData.timeCards(TestData.clients());
+        final List<TimeCard> read;
+        try (TimeCardReader reader = new TimeCardReader(new ByteArrayInputStream(write(timeCards)))) {
+            read = reader.stream().collect(Collectors.toList());
+        }
+        assertEquals(TestData.reports(timeCards), TestData.reports(read));
+        assertSame(read.get(0).getConsultant(), read.get(3).getConsultant());
+    }
+    /**
+     * A stream with no time cards is empty.
+     * @throws IOException if the stream fails.
+     */
+    @Test
+    public void emptyStream() throws IOException {
+        try (TimeCardReader reader = new TimeCardReader(
+                new ByteArrayInputStream(write(new ArrayList<TimeCard>())))) {
+            assertFalse(reader.hasNext());
+        }
+    }
+    /**
+     * A stream that ends without its terminator, as after a crash, fails rather than reading as
+     * complete.
+     * @throws IOException if the stream fails.
+     */
+    @Test
+    public void missingTerminatorFails() throws IOException {
+        final List<TimeCard> timeCards = TestData.timeCards(TestData.clients());
+        final byte[] bytes = write(timeCards);
+        final byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        try (TimeCardReader reader = new TimeCardReader(new ByteArrayInputStream(truncated))) {
+            final UncheckedIOException ex = assertThrows(UncheckedIOException.class, () -> {
+                while(reader.hasNext()) {
+                    reader.next();
+                }
+            });
+            assertTrue(ex.getCause() instanceof EOFException);
+        }
+    }
+    /**
+     * A stream cut inside a frame fails.
+     * @throws IOException if the stream fails.
+     */
+    @Test
+    public void truncatedFrameFails() throws IOException {
+        final byte[] bytes = write(TestData.timeCards(TestData.clients()));
+        final byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+        try (TimeCardReader reader = new TimeCardReader(new ByteArrayInputStream(truncated))) {
+            assertThrows(UncheckedIOException.class, () -> {
+                while(reader.hasNext()) {
+                    reader.next();
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes time cards as a framed stream.
+     * @param timeCards to write.
+     * @return the stream bytes.
+     * @throws IOException if the stream fails.
+     */
+    private static byte[] write(final List<TimeCard> timeCards) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TimeCardWriter writer = new TimeCardWriter(out)) {
+            for(TimeCard timeCard : timeCards) {
+                writer.write(timeCard);
+            }
+        }
+        return out.toByteArray();
+    }
+}
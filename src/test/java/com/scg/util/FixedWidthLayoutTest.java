@@ -0,0 +1,137 @@
+package com.scg.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.scg.domain.Skill;
+
+/**
+ * Tests that {@link FixedWidthLayout} writes the same text as {@code String.format} in the default
+ * format locale, for the US and for locales with other separators and month names.
+ * @author Adam Spade
+ */
+public final class FixedWidthLayoutTest
+extends Object
+{
+    /**
+     * Default format locales to compare in.
+     */
+    private static final Locale[] LOCALES = {Locale.US, Locale.GERMANY, Locale.FRANCE};
+    /**
+     * Initializer for the default format locale before the test.
+     */
+    private Locale defaultLocale;
+
+    /**
+     * Saves the default format locale.
+     */
+    @BeforeEach
+    public void saveLocale() {
+        defaultLocale = Locale.getDefault(Locale.Category.FORMAT);
+    }
+    /**
+     * Restores the default format locale.
+     */
+    @AfterEach
+    public void restoreLocale() {
+        Locale.setDefault(Locale.Category.FORMAT, defaultLocale);
+    }
+
+    /**
+     * Text is padded, justified and truncated as the formatter does.
+     */
+    @Test
+    public void textMatchesFormat() {
+        final String pattern = "%s|%-12s|%12s|%.3s|%-8.2s|";
+        assertMatches(pattern, "Acme", "", "longer than twelve", "Widget", "x");
+        assertMatches(pattern, Skill.PROJECT_MANAGER, 42, null, "ab", Skill.SOFTWARE_ENGINEER);
+    }
+    /**
+     * Integers, negative ones and the extremes included, match with and without grouping.
+     */
+    @Test
+    public void integersMatchFormat() {
+        final String pattern = "%d|%5d|%-6d|%,d|%,14d|";
+        final Random random = new Random(14L);
+        final long[] values = {0, 7, -7, 999, -1000, 1234567, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+        for(long value : values) {
+            assertMatches(pattern, value, value, value, value, value);
+        }
+        for(int i = 0; i < 200; i++) {
+            final int value = random.nextInt();
+            assertMatches(pattern, value, value, value, value, value);
+        }
+    }
+    /**
+     * Decimals, including negative ones, halves and values that round to zero, match with and
+     * without grouping.
+     */
+    @Test
+    public void decimalsMatchFormat() {
+        final String pattern = "%,10.2f|%.2f|%-12.2f|%,.2f|%8.1f|";
+        final double[] values = {0.0, -0.0, 0.004, -0.004, 0.005, -0.005, 0.015, -0.045, 999.995,
+                                 -1234.5, 1234567.891, -9876543.21};
+        for(double value : values) {
+            assertMatches(pattern, value, value, value, value, value);
+        }
+        final Random random = new Random(14L);
+        for(int i = 0; i < 500; i++) {
+            final double value = (random.nextInt(2_000_000_000) - 1_000_000_000) / 1000.0;
+            assertMatches(pattern, value, value, value, value, value);
+        }
+    }
+    /**
+     * A fixed-point integer writes the same text as the decimal it scales.
+     */
+    @Test
+    public void fixedPointMatchesDecimal() {
+        final Random random = new Random(14L);
+        for(Locale locale : LOCALES) {
+            Locale.setDefault(Locale.Category.FORMAT, locale);
+            final FixedWidthLayout layout = FixedWidthLayout.compile("%,12.2m|%-10.2m|%.2m|");
+            for(int i = 0; i < 200; i++) {
+                final long cents = (i < 3) ? i - 1 : random.nextInt() / 10;
+                final double amount = cents / 100.0;
+                assertEquals(String.format("%,12.2f|%-10.2f|%.2f|", amount, amount, amount),
+                             layout.format(cents, cents, cents), locale + ": " + cents);
+            }
+        }
+    }
+    /**
+     * Date parts match for every month, and arguments can be reused by index.
+     */
+    @Test
+    public void datesMatchFormat() {
+        final String pattern = "%1$tm/%1$td/%1$tY %1$tB %1$tb|%2$-12tB|%2$6tb|%3$s";
+        for(int month = 1; month <= 12; month++) {
+            assertMatches(pattern, LocalDate.of(2017, month, month * 2), LocalDate.of(1999, month, 28), "end");
+        }
+    }
+    /**
+     * Line separators and percent signs become literal text.
+     */
+    @Test
+    public void literalsMatchFormat() {
+        assertMatches("%d%% done%n%s%n", 100, "next");
+    }
+
+    /**
+     * Checks that a layout writes the same text as the formatter in every default format locale.
+     * @param pattern of the layout.
+     * @param args values of the fields.
+     */
+    private static void assertMatches(final String pattern, final Object... args) {
+        for(Locale locale : LOCALES) {
+            Locale.setDefault(Locale.Category.FORMAT, locale);
+            assertEquals(String.format(pattern, args), FixedWidthLayout.compile(pattern).format(args),
+                         locale + ": " + pattern);
+        }
+    }
+}
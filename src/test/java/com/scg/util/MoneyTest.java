@@ -0,0 +1,94 @@
+package com.scg.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+import com.scg.domain.Invoice;
+import com.scg.domain.InvoiceLineItem;
+import com.scg.domain.Skill;
+
+/**
+ * Tests of the exact cent arithmetic in {@link Money} and of the whole unit getters built on it.
+ * @author Adam Spade
+ */
+public final class MoneyTest
+extends Object
+{
+    /**
+     * Pricing hours at a skill's rate is exact, with no rounding at any step.
+     */
+    @Test
+    public void timesIsExact() {
+        for(Skill skill : Skill.values()) {
+            for(int hours = 0; hours <= 200; hours++) {
+                final long charge = Money.times(skill.getRateCents(), hours);
+                assertEquals(Money.ofUnits((long) skill.getRate() * hours), charge);
+                assertEquals((long) skill.getRate() * hours, Money.toUnits(charge));
+            }
+        }
+        assertEquals(12_345_678L * 7, Money.times(12_345_678L, 7));
+        assertEquals(-1050, Money.times(-150, 7));
+    }
+    /**
+     * Whole units drop the cents toward zero, for negative amounts too.
+     */
+    @Test
+    public void toUnitsTruncatesTowardZero() {
+        assertEquals(123, Money.toUnits(12_399));
+        assertEquals(-123, Money.toUnits(-12_399));
+        assertEquals(0, Money.toUnits(99));
+        assertEquals(0, Money.toUnits(-99));
+        assertEquals(12_399, Money.plus(Money.ofUnits(123), 99));
+    }
+    /**
+     * Amounts format as the formatter writes the exact decimal, including negative and extreme amounts.
+     */
+    @Test
+    public void toStringMatchesFormat() {
+        final long[] amounts = {0, 1, -1, 99, -99, 100, 123_456_789, -123_456_789, Long.MAX_VALUE, Long.MIN_VALUE};
+        for(long cents : amounts) {
+            assertEquals(String.format("%,.2f", BigDecimal.valueOf(cents, 2)), Money.toString(cents));
+        }
+        final Random random = new Random(19L);
+        for(int i = 0; i < 500; i++) {
+            final long cents = random.nextLong() >> random.nextInt(64);
+            assertEquals(String.format("%,.2f", BigDecimal.valueOf(cents, 2)), Money.toString(cents));
+        }
+    }
+    /**
+     * Arithmetic that does not fit in a long fails instead of wrapping.
+     */
+    @Test
+    public void overflowFails() {
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2 + 1, 2));
+        assertThrows(ArithmeticException.class, () -> Money.plus(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.plus(Long.MIN_VALUE, -1));
+        assertThrows(ArithmeticException.class, () -> Money.ofUnits(Long.MAX_VALUE / 10));
+    }
+    /**
+     * Charges too large for whole units in an int stay exact in cents, and the int getters fail
+     * instead of wrapping.
+     */
+    @Test
+    public void wholeUnitGettersFailOnOverflow() {
+        final InvoiceLineItem lineItem = new InvoiceLineItem(LocalDate.of(2017, 3, 1), TestData.consultants().get(0),
+                                                             Skill.PROJECT_MANAGER, 10_000_000);
+        assertEquals(Skill.PROJECT_MANAGER.getRateCents() * 10_000_000L, lineItem.getChargeCents());
+        assertThrows(ArithmeticException.class, lineItem::getCharge);
+        final Invoice invoice = new Invoice(TestData.clients().get(0), Month.MARCH, 2017);
+        invoice.addLineItem(new InvoiceLineItem(LocalDate.of(2017, 3, 2), TestData.consultants().get(0),
+                                                Skill.PROJECT_MANAGER, 8_000_000));
+        assertEquals(Skill.PROJECT_MANAGER.getRate() * 8_000_000, invoice.getTotalCharges());
+        invoice.addLineItem(lineItem);
+        assertEquals(Skill.PROJECT_MANAGER.getRateCents() * 18_000_000L, invoice.getTotalChargesCents());
+        assertThrows(ArithmeticException.class, invoice::getTotalCharges);
+    }
+}
@@ -0,0 +1,138 @@
+package com.scg.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+import com.scg.domain.ClientAccount;
+import com.scg.domain.Consultant;
+import com.scg.domain.ConsultantTime;
+import com.scg.domain.Skill;
+import com.scg.domain.TimeCard;
+
+/**
+ * Tests that {@link TimeCardIndex} answers the {@link TimeCardListUtil} filters with the same cards in
+ * the same order, and follows the time recorded on its cards.
+ * @author Adam Spade
+ */
+public final class TimeCardIndexTest
+extends Object
+{
+    /**
+     * Initializer for the indexed clients.
+     */
+    private final List<ClientAccount> clients = TestData.clients();
+
+    /**
+     * Lookups on cards added in no week order match the list filters.
+     */
+    @Test
+    public void lookupsMatchListFilters() {
+        final List<TimeCard> timeCards = TestData.randomTimeCards(clients, 300, 21L);
+        assertMatchesListFilters(timeCards, new TimeCardIndex(timeCards));
+    }
+    /**
+     * Cards added one at a time, in reverse week order and with lookups in between, keep their add
+     * order in every lookup.
+     */
+    @Test
+    public void lookupsKeepAddOrder() {
+        final List<TimeCard> timeCards = TestData.timeCards(clients);
+        Collections.reverse(timeCards);
+        final TimeCardIndex index = new TimeCardIndex();
+        for(int i = 0; i < timeCards.size(); i++) {
+            index.add(timeCards.get(i));
+            index.add(timeCards.get(i));
+            assertMatchesListFilters(timeCards.subList(0, i + 1), index);
+        }
+        assertEquals(timeCards.size(), index.size());
+    }
+    /**
+     * Time recorded on an indexed card is posted to its client until the index stops following it.
+     */
+    @Test
+    public void postsTimeRecordedAfterAdding() {
+        final List<TimeCard> timeCards = TestData.timeCards(clients.subList(0, 2));
+        final TimeCardIndex index = new TimeCardIndex(timeCards);
+        final String widgets = clients.get(2).getName();
+        assertTrue(index.getTimeCardsForClient(widgets).isEmpty());
+        final TimeCard timeCard = timeCards.get(4);
+        timeCard.addConsultantTime(new ConsultantTime(timeCard.getWeekStartingDay(), clients.get(2),
+                                                      Skill.SOFTWARE_TESTER, 3));
+        assertEquals(Collections.singletonList(timeCard), index.getTimeCardsForClient(widgets));
+        index.untrackAll();
+        timeCards.get(2).addConsultantTime(new ConsultantTime(timeCards.get(2).getWeekStartingDay(),
+                                                              clients.get(2), Skill.SOFTWARE_TESTER, 3));
+        assertEquals(Collections.singletonList(timeCard), index.getTimeCardsForClient(widgets));
+    }
+    /**
+     * Time recorded on another thread while a card is being added is posted.
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    public void postsTimeRecordedWhileAdding() throws InterruptedException {
+        for(int round = 0; round < 20; round++) {
+            final TimeCard timeCard = new TimeCard(TestData.consultants().get(0), LocalDate.of(2017, 3, 6));
+            final Thread adder = new Thread(() -> {
+                for(int i = 0; i < 20000; i++) {
+                    timeCard.addConsultantTime(new ConsultantTime(LocalDate.of(2017, 3, 6), clients.get(0),
+                                                                  Skill.SOFTWARE_ENGINEER, 1));
+                }
+                timeCard.addConsultantTime(new ConsultantTime(LocalDate.of(2017, 3, 7), clients.get(1),
+                                                              Skill.SOFTWARE_ENGINEER, 1));
+            });
+            adder.start();
+            while(timeCard.getConsultingHours().size() < 1000) {
+                Thread.yield();
+            }
+            final TimeCardIndex index = new TimeCardIndex();
+            index.add(timeCard);
+            adder.join();
+            assertEquals(Collections.singletonList(timeCard), index.getTimeCardsForClient(clients.get(1).getName()));
+        }
+    }
+
+    /**
+     * Checks the consultant, date range and client lookups of an index against filters of the list.
+     * @param timeCards in the order they were added to the index.
+     * @param index of the time cards.
+     */
+    private void assertMatchesListFilters(final List<TimeCard> timeCards, final TimeCardIndex index) {
+        final List<Consultant> consultants = timeCards.stream().map(TimeCard::getConsultant).distinct()
+                                                      .collect(Collectors.toList());
+        for(Consultant consultant : consultants) {
+            assertEquals(TimeCardListUtil.getTimeCardsForConsultant(timeCards, consultant),
+                         index.getTimeCardsForConsultant(consultant), consultant.toString());
+        }
+        final List<DateRange> dateRanges = new ArrayList<>();
+        for(LocalDate month = LocalDate.of(2016, 10, 1); month.getYear() < 2018; month = month.plusMonths(1)) {
+            dateRanges.add(new DateRange(month.getMonth(), month.getYear()));
+        }
+        dateRanges.add(new DateRange(LocalDate.of(2017, 2, 26), LocalDate.of(2017, 2, 26)));
+        dateRanges.add(new DateRange(LocalDate.of(2017, 2, 27), LocalDate.of(2017, 3, 5)));
+        dateRanges.add(new DateRange(LocalDate.of(2017, 3, 5), LocalDate.of(2017, 3, 5)));
+        dateRanges.add(new DateRange(Month.MARCH, 2017));
+        for(DateRange dateRange : dateRanges) {
+            assertEquals(TimeCardListUtil.getTimeCardsForDateRange(timeCards, dateRange),
+                         index.getTimeCardsForDateRange(dateRange),
+                         dateRange.getStartDate() + " to " + dateRange.getEndDate());
+        }
+        for(ClientAccount client : clients) {
+            assertEquals(timeCards.stream()
+                                  .filter(timeCard -> timeCard.getBillableClientNames().contains(client.getName()))
+                                  .collect(Collectors.toList()),
+                         index.getTimeCardsForClient(client.getName()), client.getName());
+        }
+        assertFalse(index.getTimeCardsForClient("Nobody").iterator().hasNext());
+    }
+}
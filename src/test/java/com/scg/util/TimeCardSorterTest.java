@@ -0,0 +1,69 @@
+package com.scg.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+import com.scg.domain.TimeCard;
+
+/**
+ * Tests that {@link TimeCardSorter} puts time cards in the same order, ties included, as sorting with
+ * {@link TimeCard#compareTo(TimeCard)} and {@link TimeCardConsultantComparator}.
+ * @author Adam Spade
+ */
+public final class TimeCardSorterTest
+extends Object
+{
+    /**
+     * Sizes of the lists sorted, up to one sorted in parallel.
+     */
+    private static final int[] SIZES = {0, 1, 2, 500, TimeCardSorter.PARALLEL_THRESHOLD + 100};
+
+    /**
+     * Sorting by start date gives the natural order.
+     */
+    @Test
+    public void sortByStartDateMatchesNaturalOrder() {
+        for(int size : SIZES) {
+            final List<TimeCard> expected = TestData.randomTimeCards(TestData.clients(), size, size);
+            final List<TimeCard> sorted = new ArrayList<>(expected);
+            Collections.sort(expected);
+            TimeCardSorter.sortByStartDate(sorted);
+            assertEquals(expected, sorted, "size " + size);
+        }
+    }
+    /**
+     * Sorting by consultant name gives the consultant comparator's order.
+     */
+    @Test
+    public void sortByConsultantNameMatchesComparator() {
+        for(int size : SIZES) {
+            final List<TimeCard> expected = TestData.randomTimeCards(TestData.clients(), size, size);
+            final List<TimeCard> sorted = new ArrayList<>(expected);
+            Collections.sort(expected, new TimeCardConsultantComparator());
+            TimeCardSorter.sortByConsultantName(sorted);
+            assertEquals(expected, sorted, "size " + size);
+        }
+    }
+    /**
+     * Sorting the fixed time cards, which tie on every key but the consultant, gives both orders.
+     */
+    @Test
+    public void sortsFixedTimeCards() {
+        final List<TimeCard> timeCards = TestData.timeCards(TestData.clients());
+        Collections.reverse(timeCards);
+        final List<TimeCard> byDate = new ArrayList<>(timeCards);
+        final List<TimeCard> byName = new ArrayList<>(timeCards);
+        TimeCardSorter.sortByStartDate(byDate);
+        TimeCardSorter.sortByConsultantName(byName);
+        Collections.sort(timeCards);
+        assertEquals(timeCards, byDate);
+        Collections.sort(timeCards, new TimeCardConsultantComparator());
+        assertEquals(timeCards, byName);
+    }
+}
@@ -0,0 +1,89 @@
+package com.scg.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.scg.TestData;
+import com.scg.domain.TimeCard;
+
+/**
+ * Tests that {@link WeekIndex} returns the cards of the weeks overlapping a date range, in week order
+ * or in add order, however the cards were added.
+ * @author Adam Spade
+ */
+public final class WeekIndexTest
+extends Object
+{
+    /**
+     * An index built from cards in no week order answers every overlap query like a scan.
+     */
+    @Test
+    public void outOfOrderBuildMatchesScan() {
+        final List<TimeCard> timeCards = TestData.randomTimeCards(TestData.clients(), 300, 22L);
+        final WeekIndex index = new WeekIndex(timeCards);
+        assertEquals(timeCards.size(), index.size());
+        assertMatchesScan(timeCards, index);
+    }
+    /**
+     * Cards added one at a time in reverse week order, with queries in between, still match a scan.
+     */
+    @Test
+    public void addsBetweenQueriesMatchScan() {
+        final List<TimeCard> timeCards = TestData.randomTimeCards(TestData.clients(), 60, 23L);
+        timeCards.sort(Comparator.comparing(TimeCard::getWeekStartingDay).reversed());
+        final WeekIndex index = new WeekIndex();
+        for(int i = 0; i < timeCards.size(); i++) {
+            index.add(timeCards.get(i));
+            if(i % 7 == 0) {
+                assertMatchesScan(timeCards.subList(0, i + 1), index);
+            }
+        }
+        assertMatchesScan(timeCards, index);
+    }
+    /**
+     * A range overlaps a week when it holds any of its seven days, and nothing else.
+     */
+    @Test
+    public void overlapIncludesWholeWeek() {
+        final List<TimeCard> timeCards = TestData.timeCards(TestData.clients());
+        final WeekIndex index = new WeekIndex(timeCards);
+        final LocalDate week = LocalDate.of(2017, 2, 27);
+        assertEquals(3, index.getTimeCardsForDateRange(week.plusDays(6), week.plusDays(6)).size());
+        assertEquals(6, index.getTimeCardsForDateRange(week.plusDays(6), week.plusDays(7)).size());
+        assertEquals(3, index.getTimeCardsForDateRange(week.minusDays(1), week.minusDays(1)).size());
+        assertTrue(index.getTimeCardsForDateRange(week.minusDays(8), week.minusDays(8)).isEmpty());
+        assertTrue(index.getTimeCardsForWeeks(week.toEpochDay() + 7, week.toEpochDay()).isEmpty());
+        assertTrue(index.getTimeCardsForWeeks(week.toEpochDay() + 1, week.toEpochDay() + 6).isEmpty());
+    }
+
+    /**
+     * Checks week order and add order queries against a scan of the cards, for the months the cards
+     * span and for single days around them.
+     * @param timeCards in the order they were added to the index.
+     * @param index of the time cards.
+     */
+    private static void assertMatchesScan(final List<TimeCard> timeCards, final WeekIndex index) {
+        final List<DateRange> dateRanges = new ArrayList<>();
+        for(LocalDate month = LocalDate.of(2016, 10, 1); month.getYear() < 2018; month = month.plusMonths(1)) {
+            dateRanges.add(new DateRange(month.getMonth(), month.getYear()));
+        }
+        for(LocalDate day = LocalDate.of(2016, 11, 1); day.getYear() < 2017; day = day.plusDays(3)) {
+            dateRanges.add(new DateRange(day, day));
+        }
+        for(DateRange dateRange : dateRanges) {
+            final String range = dateRange.getStartDate() + " to " + dateRange.getEndDate();
+            final List<TimeCard> inAddOrder = TimeCardListUtil.getTimeCardsForDateRange(timeCards, dateRange);
+            assertEquals(inAddOrder, index.getTimeCardsForDateRangeInAddOrder(dateRange), range);
+            final List<TimeCard> byWeek = new ArrayList<>(inAddOrder);
+            byWeek.sort(Comparator.comparing(TimeCard::getWeekStartingDay));
+            assertEquals(byWeek, index.getTimeCardsForDateRange(dateRange), range);
+        }
+    }
+}